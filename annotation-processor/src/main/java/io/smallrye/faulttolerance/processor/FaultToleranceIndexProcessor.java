@@ -0,0 +1,224 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.processor;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Generates an index of fault tolerance operations, so that the CDI extension does not need to inspect every method of
+ * every bean at boot. For each class compiled with this processor, the index lists the signatures of the methods that
+ * are annotated with a fault tolerance annotation, either directly or on the class. Annotation values are not indexed
+ * because they may still be overridden with MicroProfile Config, they are read at runtime as before.
+ * <p>
+ * The index is written to {@value #INDEX}. A class name on its own line is followed by the signatures of its
+ * operations, each one indented with a tab, for example:
+ * </p>
+ *
+ * <pre>
+ * com.acme.HelloService
+ * \thello(java.lang.String,int)
+ * com.acme.NoFaultTolerance
+ * </pre>
+ * <p>
+ * The processor also warns about {@code @Fallback(fallbackMethod = ...)} that does not refer to a method of the class.
+ * </p>
+ */
+@SupportedAnnotationTypes("*")
+public class FaultToleranceIndexProcessor extends AbstractProcessor {
+
+    static final String INDEX = "META-INF/smallrye-fault-tolerance/operations";
+
+    private static final String PACKAGE = "org.eclipse.microprofile.faulttolerance.";
+
+    private static final Set<String> ANNOTATIONS = new HashSet<>(Arrays.asList(PACKAGE + "Asynchronous",
+            PACKAGE + "Bulkhead", PACKAGE + "CircuitBreaker", PACKAGE + "Fallback", PACKAGE + "Retry",
+            PACKAGE + "Timeout"));
+
+    private static final String FALLBACK = PACKAGE + "Fallback";
+
+    // class name -> signatures of operations
+    private final Map<String, Set<String>> operations = new TreeMap<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeIndex();
+        } else {
+            for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+                processType(type);
+            }
+        }
+        // other processors may process the same annotations
+        return false;
+    }
+
+    private void processType(TypeElement type) {
+        for (TypeElement member : ElementFilter.typesIn(type.getEnclosedElements())) {
+            processType(member);
+        }
+        if (type.getKind() != ElementKind.CLASS) {
+            return;
+        }
+        // class level annotations, including the inherited ones
+        List<? extends AnnotationMirror> typeAnnotations = processingEnv.getElementUtils().getAllAnnotationMirrors(type);
+        boolean annotatedType = isAnnotated(typeAnnotations);
+        Set<String> signatures = new TreeSet<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            if (annotatedType || isAnnotated(method.getAnnotationMirrors())
+                    || isAnnotated(method.getEnclosingElement().getAnnotationMirrors())) {
+                signatures.add(getSignature(method));
+                checkFallbackMethod(type, method, typeAnnotations);
+            }
+        }
+        operations.put(processingEnv.getElementUtils().getBinaryName(type).toString(), signatures);
+    }
+
+    private void checkFallbackMethod(TypeElement type, ExecutableElement method,
+            List<? extends AnnotationMirror> typeAnnotations) {
+        AnnotationMirror fallback = findAnnotation(method.getAnnotationMirrors(), FALLBACK);
+        if (fallback == null) {
+            fallback = findAnnotation(typeAnnotations, FALLBACK);
+        }
+        if (fallback == null) {
+            return;
+        }
+        String fallbackMethod = null;
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : fallback.getElementValues()
+                .entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals("fallbackMethod")) {
+                fallbackMethod = entry.getValue().getValue().toString();
+            }
+        }
+        if (fallbackMethod == null || fallbackMethod.isEmpty()) {
+            return;
+        }
+        String expected = fallbackMethod + getSignature(method).substring(method.getSimpleName().length());
+        for (ExecutableElement candidate : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            if (getSignature(candidate).equals(expected)) {
+                return;
+            }
+        }
+        // may still be fixed with MP Config, therefore not an error
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                "Fallback method " + expected + " not found in " + type.getQualifiedName(), method, fallback);
+    }
+
+    private void writeIndex() {
+        if (operations.isEmpty()) {
+            return;
+        }
+        try {
+            FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX);
+            try (Writer writer = new OutputStreamWriter(index.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, Set<String>> entry : operations.entrySet()) {
+                    writer.write(entry.getKey());
+                    writer.write('\n');
+                    for (String signature : entry.getValue()) {
+                        writer.write('\t');
+                        writer.write(signature);
+                        writer.write('\n');
+                    }
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Unable to write the fault tolerance operation index: " + e);
+        }
+    }
+
+    /**
+     * The signature must match {@code FaultToleranceOperationIndex.getSignature(Method)}, i.e. the method name followed
+     * by {@link Class#getTypeName()} of the erased parameter types.
+     */
+    private String getSignature(ExecutableElement method) {
+        List<String> parameters = new ArrayList<>();
+        for (VariableElement parameter : method.getParameters()) {
+            parameters.add(getTypeName(processingEnv.getTypeUtils().erasure(parameter.asType())));
+        }
+        return method.getSimpleName() + "(" + String.join(",", parameters) + ")";
+    }
+
+    private String getTypeName(TypeMirror type) {
+        switch (type.getKind()) {
+            case ARRAY:
+                return getTypeName(((ArrayType) type).getComponentType()) + "[]";
+            case DECLARED:
+                return processingEnv.getElementUtils().getBinaryName((TypeElement) ((DeclaredType) type).asElement())
+                        .toString();
+            default:
+                return type.toString();
+        }
+    }
+
+    private static boolean isAnnotated(List<? extends AnnotationMirror> annotations) {
+        for (AnnotationMirror annotation : annotations) {
+            if (ANNOTATIONS.contains(getName(annotation))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static AnnotationMirror findAnnotation(List<? extends AnnotationMirror> annotations, String name) {
+        for (AnnotationMirror annotation : annotations) {
+            if (name.equals(getName(annotation))) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    private static String getName(AnnotationMirror annotation) {
+        Element element = annotation.getAnnotationType().asElement();
+        return ((TypeElement) element).getQualifiedName().toString();
+    }
+
+}
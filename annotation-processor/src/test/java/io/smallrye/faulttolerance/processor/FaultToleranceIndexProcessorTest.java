@@ -0,0 +1,147 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FaultToleranceIndexProcessorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+
+    @Test
+    public void testIndex() throws IOException {
+        Map<String, Set<String>> index = compile(
+                source("com.acme.HelloService",
+                        "package com.acme;",
+                        "import org.eclipse.microprofile.faulttolerance.*;",
+                        "public class HelloService {",
+                        "    @Retry public String hello(String name, int count) { return name; }",
+                        "    @Fallback(fallbackMethod = \"fallback\") public String[] list(java.util.List<String> names) { return null; }",
+                        "    public String[] fallback(java.util.List<String> names) { return null; }",
+                        "    public void plain() { }",
+                        "    public static class Nested {",
+                        "        @Timeout public void ping(Nested nested, long... values) { }",
+                        "    }",
+                        "}"),
+                source("com.acme.AnnotatedService",
+                        "package com.acme;",
+                        "@org.eclipse.microprofile.faulttolerance.Bulkhead",
+                        "public class AnnotatedService {",
+                        "    public void run() { }",
+                        "}"),
+                source("com.acme.SubService",
+                        "package com.acme;",
+                        "public class SubService extends HelloService {",
+                        "}"),
+                source("com.acme.PlainService",
+                        "package com.acme;",
+                        "public class PlainService {",
+                        "    public void run() { }",
+                        "}"));
+
+        assertEquals(diagnostics.getDiagnostics().toString(), 0, countWarnings());
+        assertEquals(new TreeSet<>(Arrays.asList("hello(java.lang.String,int)", "list(java.util.List)")),
+                index.get("com.acme.HelloService"));
+        assertEquals(new TreeSet<>(Arrays.asList("hello(java.lang.String,int)", "list(java.util.List)")),
+                index.get("com.acme.SubService"));
+        assertEquals(Collections.singleton("ping(com.acme.HelloService$Nested,long[])"),
+                index.get("com.acme.HelloService$Nested"));
+        assertTrue(index.get("com.acme.AnnotatedService").contains("run()"));
+        assertTrue(index.containsKey("com.acme.PlainService"));
+        assertTrue(index.get("com.acme.PlainService").isEmpty());
+    }
+
+    @Test
+    public void testMissingFallbackMethod() throws IOException {
+        Map<String, Set<String>> index = compile(
+                source("com.acme.HelloService",
+                        "package com.acme;",
+                        "import org.eclipse.microprofile.faulttolerance.*;",
+                        "public class HelloService {",
+                        "    @Fallback(fallbackMethod = \"fallback\") public String hello(String name) { return name; }",
+                        "    public String fallback(int name) { return null; }",
+                        "}"));
+
+        assertEquals(1, countWarnings());
+        assertFalse(index.get("com.acme.HelloService").isEmpty());
+    }
+
+    private Map<String, Set<String>> compile(JavaFileObject... sources) throws IOException {
+        File output = folder.newFolder();
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics,
+                Arrays.asList("-d", output.getPath(), "-classpath", System.getProperty("java.class.path")), null,
+                Arrays.asList(sources));
+        task.setProcessors(Collections.singletonList(new FaultToleranceIndexProcessor()));
+        assertTrue(diagnostics.getDiagnostics().toString(), task.call());
+
+        Map<String, Set<String>> index = new TreeMap<>();
+        String type = null;
+        for (String line : Files.readAllLines(new File(output, FaultToleranceIndexProcessor.INDEX).toPath(),
+                StandardCharsets.UTF_8)) {
+            if (line.startsWith("\t")) {
+                index.get(type).add(line.substring(1));
+            } else {
+                type = line;
+                index.put(type, new TreeSet<>());
+            }
+        }
+        return index;
+    }
+
+    private long countWarnings() {
+        return diagnostics.getDiagnostics().stream().filter(d -> d.getKind() == Diagnostic.Kind.WARNING).count();
+    }
+
+    private static JavaFileObject source(String className, String... lines) {
+        return new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + ".java"),
+                JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return String.join("\n", lines);
+            }
+        };
+    }
+
+}
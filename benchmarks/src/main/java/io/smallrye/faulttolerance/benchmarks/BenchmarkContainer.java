@@ -0,0 +1,43 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.benchmarks;
+
+import java.util.Map;
+import java.util.ServiceLoader;
+
+import javax.enterprise.inject.spi.Extension;
+
+import org.jboss.weld.environment.se.Weld;
+import org.jboss.weld.environment.se.WeldContainer;
+
+/**
+ * Starts a Weld SE container with the fault tolerance extension. Extensions are added explicitly because Weld SE
+ * does not load them from {@code META-INF/services} when discovery is disabled. JMH runs each benchmark and each
+ * combination of parameters in a separate JVM by default, so the config is simply passed as system properties.
+ */
+final class BenchmarkContainer {
+
+    private BenchmarkContainer() {
+    }
+
+    static WeldContainer start(Map<String, String> config, Class<?>... beanClasses) {
+        config.forEach(System::setProperty);
+        Weld weld = new Weld().disableDiscovery().addBeanClasses(beanClasses);
+        ServiceLoader.load(Extension.class).forEach(weld::addExtension);
+        return weld.initialize();
+    }
+
+}
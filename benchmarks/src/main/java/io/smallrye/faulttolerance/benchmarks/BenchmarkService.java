@@ -0,0 +1,126 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.benchmarks;
+
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.faulttolerance.Asynchronous;
+import org.eclipse.microprofile.faulttolerance.Bulkhead;
+import org.eclipse.microprofile.faulttolerance.CircuitBreaker;
+import org.eclipse.microprofile.faulttolerance.Fallback;
+import org.eclipse.microprofile.faulttolerance.Retry;
+import org.eclipse.microprofile.faulttolerance.Timeout;
+
+/**
+ * No-op operations, one for each measured combination of fault tolerance annotations.
+ */
+@ApplicationScoped
+public class BenchmarkService {
+
+    static final String RESULT = "ok";
+
+    static final String FALLBACK = "fallback";
+
+    public String none() {
+        return RESULT;
+    }
+
+    @Retry
+    public String retry() {
+        return RESULT;
+    }
+
+    @CircuitBreaker
+    public String circuitBreaker() {
+        return RESULT;
+    }
+
+    @Timeout
+    public String timeout() {
+        return RESULT;
+    }
+
+    @Bulkhead(100)
+    public String bulkhead() {
+        return RESULT;
+    }
+
+    @Fallback(fallbackMethod = "fallbackResult")
+    public String fallback() {
+        return RESULT;
+    }
+
+    @Retry
+    @CircuitBreaker
+    @Timeout
+    @Bulkhead(100)
+    @Fallback(fallbackMethod = "fallbackResult")
+    public String all() {
+        return RESULT;
+    }
+
+    @Asynchronous
+    @Timeout
+    public CompletionStage<String> asyncTimeout() {
+        return CompletableFuture.completedFuture(RESULT);
+    }
+
+    @Asynchronous
+    @Bulkhead(value = 100, waitingTaskQueue = 1000)
+    public CompletionStage<String> asyncBulkhead() {
+        return CompletableFuture.completedFuture(RESULT);
+    }
+
+    @Asynchronous
+    @Retry
+    @CircuitBreaker
+    @Timeout
+    @Bulkhead(value = 100, waitingTaskQueue = 1000)
+    @Fallback(fallbackMethod = "asyncFallbackResult")
+    public CompletionStage<String> asyncAll() {
+        return CompletableFuture.completedFuture(RESULT);
+    }
+
+    @Fallback(fallbackMethod = "fallbackResult")
+    public String failingWithFallback() {
+        throw new IllegalStateException();
+    }
+
+    @Retry(maxRetries = 1, delay = 0, jitter = 0)
+    @Fallback(fallbackMethod = "fallbackResult")
+    public String failingWithRetryAndFallback() {
+        throw new IllegalStateException();
+    }
+
+    @CircuitBreaker(delay = 1, delayUnit = ChronoUnit.HOURS)
+    @Fallback(fallbackMethod = "fallbackResult")
+    public String failingWithOpenCircuitBreaker() {
+        throw new IllegalStateException();
+    }
+
+    public String fallbackResult() {
+        return FALLBACK;
+    }
+
+    public CompletionStage<String> asyncFallbackResult() {
+        return CompletableFuture.completedFuture(FALLBACK);
+    }
+
+}
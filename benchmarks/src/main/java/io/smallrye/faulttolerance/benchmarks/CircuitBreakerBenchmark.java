@@ -0,0 +1,104 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.faulttolerance.CircuitBreaker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.smallrye.faulttolerance.SynchronousCircuitBreaker;
+import io.smallrye.faulttolerance.config.FaultToleranceOperation;
+
+/**
+ * Contention on a single {@link SynchronousCircuitBreaker} shared by 1 to 8 threads. The failure ratio stays below the
+ * threshold, so the circuit remains closed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CircuitBreakerBenchmark {
+
+    @Param({ "0", "10" })
+    public int failurePercent;
+
+    private SynchronousCircuitBreaker circuitBreaker;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        FaultToleranceOperation operation = FaultToleranceOperation.of(Target.class, Target.class.getMethod("call"));
+        operation.validate();
+        circuitBreaker = new SynchronousCircuitBreaker(operation.getCircuitBreaker());
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean threads1() {
+        return execute();
+    }
+
+    @Benchmark
+    @Threads(2)
+    public boolean threads2() {
+        return execute();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean threads4() {
+        return execute();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean threads8() {
+        return execute();
+    }
+
+    private boolean execute() {
+        if (!circuitBreaker.attemptExecution()) {
+            return false;
+        }
+        if (failurePercent > 0 && ThreadLocalRandom.current().nextInt(100) < failurePercent) {
+            return circuitBreaker.executionFailed();
+        }
+        return circuitBreaker.executionSucceeded();
+    }
+
+    public static class Target {
+
+        @CircuitBreaker(requestVolumeThreshold = 100, failureRatio = 0.5)
+        public void call() {
+        }
+
+    }
+
+}
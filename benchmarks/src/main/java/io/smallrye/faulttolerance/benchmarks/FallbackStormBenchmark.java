@@ -0,0 +1,80 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.benchmarks;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.jboss.weld.environment.se.WeldContainer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.smallrye.faulttolerance.HystrixCommandInterceptor;
+
+/**
+ * Throughput of operations that always fail and always fall back, invoked concurrently. Once the circuit breaker of
+ * {@code failingWithOpenCircuitBreaker} opens, the operation is not invoked anymore.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class FallbackStormBenchmark {
+
+    @Param({ "failingWithFallback", "failingWithRetryAndFallback", "failingWithOpenCircuitBreaker" })
+    public String operation;
+
+    @Param({ "false", "true" })
+    public boolean nativeEngine;
+
+    private WeldContainer container;
+
+    private Supplier<Object> invocation;
+
+    @Setup
+    public void setup() {
+        container = BenchmarkContainer.start(
+                Collections.singletonMap(HystrixCommandInterceptor.NATIVE_ENGINE_KEY, String.valueOf(nativeEngine)),
+                BenchmarkService.class);
+        invocation = InterceptorBenchmark.getInvocation(container.select(BenchmarkService.class).get(), operation);
+    }
+
+    @TearDown
+    public void tearDown() {
+        container.shutdown();
+    }
+
+    @Benchmark
+    public Object invoke() {
+        return invocation.get();
+    }
+
+}
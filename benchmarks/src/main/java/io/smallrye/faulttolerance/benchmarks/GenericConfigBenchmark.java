@@ -0,0 +1,89 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.benchmarks;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.faulttolerance.Retry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.smallrye.faulttolerance.config.FaultToleranceOperation;
+import io.smallrye.faulttolerance.config.GenericConfig;
+import io.smallrye.faulttolerance.config.RetryConfig;
+
+/**
+ * Config parameter lookups, with and without the config parameters cache, compared to reading the compiled policy.
+ * {@code createOperation} measures the per method cost of discovering fault tolerance operations at boot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GenericConfigBenchmark {
+
+    @Param({ "true", "false" })
+    public boolean cache;
+
+    private Method method;
+
+    private RetryConfig config;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        System.setProperty(GenericConfig.CONFIG_PARAMS_CACHE_KEY, String.valueOf(cache));
+        method = Target.class.getMethod("call");
+        FaultToleranceOperation operation = FaultToleranceOperation.of(Target.class, method);
+        operation.validate();
+        config = operation.getRetry();
+    }
+
+    @Benchmark
+    public Integer get() {
+        return config.get(RetryConfig.MAX_RETRIES, Integer.class);
+    }
+
+    @Benchmark
+    public int getPolicy() {
+        return config.getPolicy().getMaxRetries();
+    }
+
+    @Benchmark
+    public FaultToleranceOperation createOperation() {
+        return FaultToleranceOperation.of(Target.class, method);
+    }
+
+    public static class Target {
+
+        @Retry(maxRetries = 5)
+        public void call() {
+        }
+
+    }
+
+}
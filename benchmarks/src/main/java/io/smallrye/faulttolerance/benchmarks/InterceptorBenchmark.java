@@ -0,0 +1,124 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.jboss.weld.environment.se.WeldContainer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.smallrye.faulttolerance.HystrixCommandInterceptor;
+
+/**
+ * Overhead of the interceptor for a no-op method, for each combination of annotations, with both the Hystrix based
+ * implementation and the native engine, with the sync fast path and metrics enabled and disabled. {@code none} is not
+ * intercepted at all and serves as the baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InterceptorBenchmark {
+
+    static final String METRICS_ENABLED_KEY = "MP_Fault_Tolerance_Metrics_Enabled";
+
+    @Param({ "none", "retry", "circuitBreaker", "timeout", "bulkhead", "fallback", "all", "asyncTimeout",
+            "asyncBulkhead", "asyncAll" })
+    public String operation;
+
+    @Param({ "false", "true" })
+    public boolean nativeEngine;
+
+    @Param({ "false", "true" })
+    public boolean syncFastPath;
+
+    @Param({ "true", "false" })
+    public boolean metrics;
+
+    private WeldContainer container;
+
+    private Supplier<Object> invocation;
+
+    @Setup
+    public void setup() {
+        Map<String, String> config = new HashMap<>();
+        config.put(HystrixCommandInterceptor.NATIVE_ENGINE_KEY, String.valueOf(nativeEngine));
+        config.put(HystrixCommandInterceptor.SYNC_FAST_PATH_KEY, String.valueOf(syncFastPath));
+        config.put(METRICS_ENABLED_KEY, String.valueOf(metrics));
+        container = BenchmarkContainer.start(config, BenchmarkService.class);
+        invocation = getInvocation(container.select(BenchmarkService.class).get(), operation);
+    }
+
+    @TearDown
+    public void tearDown() {
+        container.shutdown();
+    }
+
+    @Benchmark
+    public Object invoke() {
+        return invocation.get();
+    }
+
+    static Supplier<Object> getInvocation(BenchmarkService service, String operation) {
+        switch (operation) {
+            case "none":
+                return service::none;
+            case "retry":
+                return service::retry;
+            case "circuitBreaker":
+                return service::circuitBreaker;
+            case "timeout":
+                return service::timeout;
+            case "bulkhead":
+                return service::bulkhead;
+            case "fallback":
+                return service::fallback;
+            case "all":
+                return service::all;
+            case "asyncTimeout":
+                return () -> service.asyncTimeout().toCompletableFuture().join();
+            case "asyncBulkhead":
+                return () -> service.asyncBulkhead().toCompletableFuture().join();
+            case "asyncAll":
+                return () -> service.asyncAll().toCompletableFuture().join();
+            case "failingWithFallback":
+                return service::failingWithFallback;
+            case "failingWithRetryAndFallback":
+                return service::failingWithRetryAndFallback;
+            case "failingWithOpenCircuitBreaker":
+                return service::failingWithOpenCircuitBreaker;
+            default:
+                throw new IllegalArgumentException("Unknown operation: " + operation);
+        }
+    }
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+
+import javax.enterprise.context.ApplicationScoped;
+
+/**
+ * An integrator is allowed to provide a custom implementation of {@link AsyncExecutorProvider}. The bean should be
+ * {@link ApplicationScoped}, must be marked as alternative and selected globally for an application.
+ *
+ * @see HystrixCommandInterceptor#NATIVE_ENGINE_KEY
+ */
+public interface AsyncExecutorProvider {
+
+    /**
+     *
+     * @return the executor used for asynchronous invocations
+     */
+    ExecutorService getExecutorService();
+
+    /**
+     * Synchronous invocations with a timeout are executed on this executor while the calling thread waits for the
+     * result. It should not queue tasks, so that a synchronous invocation never waits for unrelated asynchronous work.
+     * The default implementation returns {@link #getExecutorService()}.
+     *
+     * @return the executor used for synchronous invocations with a timeout
+     */
+    default ExecutorService getTimeoutExecutorService() {
+        return getExecutorService();
+    }
+
+    /**
+     *
+     * @return the executor used to schedule delayed actions, such as the next attempt of an asynchronous invocation;
+     *         scheduled actions never block and only hand the work over to {@link #getExecutorService()}
+     */
+    ScheduledExecutorService getScheduledExecutorService();
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import io.smallrye.faulttolerance.config.RetryConfig;
+import io.smallrye.faulttolerance.config.RetryConfig.Backoff;
+import io.smallrye.faulttolerance.config.RetryPolicy;
+
+/**
+ * Computes the delay before the next retry according to {@link RetryConfig#BACKOFF}. An instance is immutable and may be
+ * shared by all invocations of an operation, the state of an invocation is passed to {@link #nextDelayNanos(int, long)}.
+ * Random numbers are taken from {@link ThreadLocalRandom}, so that concurrent invocations do not contend.
+ */
+public final class BackoffPolicy {
+
+    private final Backoff backoff;
+
+    private final long delayNanos;
+
+    private final long maxDelayNanos;
+
+    private final long jitterNanos;
+
+    private final int factor;
+
+    public BackoffPolicy(RetryConfig config) {
+        this(config.getPolicy());
+    }
+
+    public BackoffPolicy(RetryPolicy policy) {
+        this.backoff = policy.getBackoff();
+        this.delayNanos = policy.getDelayNanos();
+        if (policy.getMaxDelayNanos() > 0) {
+            this.maxDelayNanos = policy.getMaxDelayNanos();
+        } else if (policy.getMaxDurationNanos() > 0) {
+            // there is no point in waiting longer than the max duration
+            this.maxDelayNanos = policy.getMaxDurationNanos();
+        } else {
+            this.maxDelayNanos = Long.MAX_VALUE;
+        }
+        this.jitterNanos = policy.getJitterNanos();
+        this.factor = policy.getBackoffFactor();
+    }
+
+    /**
+     *
+     * @param retry the number of the upcoming retry, starting with 1
+     * @param previousDelayNanos the delay before the previous retry, ignored for the first retry
+     * @return the delay in nanoseconds before the given retry
+     */
+    public long nextDelayNanos(int retry, long previousDelayNanos) {
+        long delay;
+        switch (backoff) {
+            case EXPONENTIAL:
+                delay = delayNanos;
+                for (int i = 1; i < retry && delay < maxDelayNanos; i++) {
+                    delay = multiply(delay, factor);
+                }
+                break;
+            case FIBONACCI:
+                delay = delayNanos;
+                long previous = 0;
+                for (int i = 1; i < retry && delay < maxDelayNanos; i++) {
+                    long next = add(previous, delay);
+                    previous = delay;
+                    delay = next;
+                }
+                break;
+            case DECORRELATED_JITTER:
+                // random between the base delay and three times the previous delay, the jitter is not applied on top
+                long bound = multiply(retry > 1 ? Math.max(delayNanos, previousDelayNanos) : delayNanos, 3);
+                delay = bound > delayNanos ? ThreadLocalRandom.current().nextLong(delayNanos, bound) : delayNanos;
+                return Math.min(delay, maxDelayNanos);
+            default:
+                delay = delayNanos;
+                break;
+        }
+        delay = Math.min(delay, maxDelayNanos);
+        if (jitterNanos > 0) {
+            // random number between -jitter and +jitter
+            delay = add(delay, ThreadLocalRandom.current().nextLong(-jitterNanos, jitterNanos + 1));
+        }
+        return Math.max(0, Math.min(delay, maxDelayNanos));
+    }
+
+    private static long multiply(long value, long factor) {
+        return value > Long.MAX_VALUE / factor ? Long.MAX_VALUE : value * factor;
+    }
+
+    private static long add(long value, long addend) {
+        long result = value + addend;
+        // overflow if both arguments have the same sign and the result has a different one
+        return ((value ^ result) & (addend ^ result)) < 0 ? Long.MAX_VALUE : result;
+    }
+
+}
@@ -30,6 +30,8 @@ import javax.enterprise.context.Dependent;
 public interface CommandListenersProvider {
 
     /**
+     * The returned list must not be modified. If the same list instance is returned for subsequent invocations, the
+     * interceptor may reuse a copy created for a previous invocation.
      *
      * @return a sorted list of command listeners or {@code null} if no listeners are available
      */
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+
+import com.netflix.hystrix.HystrixCircuitBreaker;
+
+import io.smallrye.faulttolerance.HystrixCommandInterceptor.CommandMetadata;
+
+/**
+ * Holds the command metadata of each fault tolerance operation, keyed by bean class and method. A new
+ * {@link HystrixCommandInterceptor} instance is created for each intercepted bean instance, e.g. for every
+ * {@code @RequestScoped} or {@code @Dependent} bean, so the metadata is shared by all interceptor instances rather than
+ * created by each of them.
+ * <p>
+ * Looking up existing metadata is lock-free and does not allocate.
+ * </p>
+ */
+@ApplicationScoped
+public class CommandMetadataRegistry {
+
+    private final ConcurrentMap<Class<?>, ConcurrentMap<Method, CommandMetadata>> metadata = new ConcurrentHashMap<>();
+
+    private ConcurrentMap<String, HystrixCircuitBreaker> circuitBreakers;
+
+    @SuppressWarnings("unchecked")
+    @PostConstruct
+    void init() {
+        // WORKAROUND: Hystrix does not allow integrators to use a custom HystrixCircuitBreaker impl
+        // See also https://github.com/Netflix/Hystrix/issues/9
+        try {
+            Field field = SecurityActions.getDeclaredField(HystrixCircuitBreaker.Factory.class, "circuitBreakersByCommand");
+            SecurityActions.setAccessible(field);
+            this.circuitBreakers = (ConcurrentHashMap<String, HystrixCircuitBreaker>) field.get(null);
+        } catch (Exception e) {
+            throw new IllegalStateException(
+                    "Could not obtain reference to com.netflix.hystrix.HystrixCircuitBreaker.Factory.circuitBreakersByCommand",
+                    e);
+        }
+    }
+
+    /**
+     *
+     * @param beanClass
+     * @param method
+     * @return the metadata or {@code null} if not registered yet
+     */
+    CommandMetadata get(Class<?> beanClass, Method method) {
+        ConcurrentMap<Method, CommandMetadata> methods = metadata.get(beanClass);
+        return methods != null ? methods.get(method) : null;
+    }
+
+    /**
+     *
+     * @param beanClass
+     * @param method
+     * @param factory invoked at most once for the given bean class and method
+     * @return the existing or created metadata
+     */
+    CommandMetadata computeIfAbsent(Class<?> beanClass, Method method, Function<Method, CommandMetadata> factory) {
+        return metadata.computeIfAbsent(beanClass, k -> new ConcurrentHashMap<>()).computeIfAbsent(method, factory);
+    }
+
+    /**
+     *
+     * @return the circuit breakers of Hystrix commands, see {@code HystrixCircuitBreaker.Factory}
+     */
+    public ConcurrentMap<String, HystrixCircuitBreaker> getCircuitBreakers() {
+        return circuitBreakers;
+    }
+
+}
@@ -20,20 +20,19 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.Future;
 
 import org.eclipse.microprofile.faulttolerance.Asynchronous;
-import org.eclipse.microprofile.metrics.Counter;
-import org.eclipse.microprofile.metrics.MetricID;
-import org.eclipse.microprofile.metrics.MetricRegistry;
-import org.eclipse.microprofile.metrics.MetricType;
+import org.eclipse.microprofile.faulttolerance.exceptions.BulkheadException;
 
 import com.netflix.hystrix.HystrixCommandGroupKey;
 import com.netflix.hystrix.HystrixCommandKey;
 import com.netflix.hystrix.HystrixCommandProperties;
 import com.netflix.hystrix.HystrixThreadPoolKey;
 import com.netflix.hystrix.HystrixThreadPoolProperties;
+import com.netflix.hystrix.exception.HystrixRuntimeException;
+import com.netflix.hystrix.exception.HystrixRuntimeException.FailureType;
 
 import io.smallrye.faulttolerance.config.FaultToleranceOperation;
-import io.smallrye.faulttolerance.metrics.MetricNames;
-import io.smallrye.faulttolerance.metrics.MetricsCollectorFactory;
+import io.smallrye.faulttolerance.metrics.MetricsRecorder;
+import rx.Observable;
 
 /**
  * This command is used to wrap any {@link Asynchronous} operation.
@@ -43,9 +42,46 @@ import io.smallrye.faulttolerance.metrics.MetricsCollectorFactory;
 public class CompositeCommand extends BasicCommand {
 
     public static Future<Object> createAndQueue(Callable<Object> callable, FaultToleranceOperation operation,
-            RetryContext retryContext, ExecutionContextWithInvocationContext ctx, MetricRegistry registry,
+            RetryContext retryContext, ExecutionContextWithInvocationContext ctx, MetricsRecorder metrics,
             boolean timeoutEnabled) {
-        return new CompositeCommand(callable, operation, retryContext, ctx, registry, timeoutEnabled).queue();
+        if (retryContext == null) {
+            return new CompositeCommand(callable, operation, ctx, timeoutEnabled).queue();
+        }
+
+        // each attempt is executed by a separate command and the next one is scheduled after the retry delay,
+        // so that no thread from the pool is held while waiting
+        //
+        // the retry metrics collection here mirrors the logic in HystrixCommandInterceptor.executeCommand
+        // and MetricsCollectorFactory.MetricsCollectorImpl.beforeExecute/afterSuccess/onError
+        return Observable.defer(() -> {
+            if (retryContext.hasBeenRetried()) {
+                metrics.retryRetried();
+                metrics.retryDelayed(retryContext.getLastDelay());
+            }
+            return new CompositeCommand(callable, operation, ctx, timeoutEnabled).toObservable()
+                    .onErrorResumeNext(e -> Observable.error(isRejection(e) ? new BulkheadException(e) : e));
+        }).doOnNext(ignored -> metrics.retrySucceeded(retryContext.hasBeenRetried()))
+                .retryWhen(new ScheduledRetry(retryContext, CompositeCommand::getRetryCause, metrics::retryFailed, null))
+                .toBlocking().toFuture();
+    }
+
+    private static boolean isRejection(Throwable failure) {
+        // the pool may reject any attempt, not just the first one; same as HystrixCommandInterceptor.createAndQueue
+        // and processHystrixRuntimeException, this is considered a bulkhead failure
+        return failure instanceof HystrixRuntimeException
+                && ((HystrixRuntimeException) failure).getFailureType() == FailureType.REJECTED_THREAD_EXECUTION;
+    }
+
+    private static Throwable getRetryCause(Throwable failure) {
+        if (failure instanceof BulkheadException) {
+            return failure;
+        }
+        // otherwise, only failures of the operation itself are retried
+        if (failure instanceof HystrixRuntimeException
+                && ((HystrixRuntimeException) failure).getFailureType() == FailureType.COMMAND_EXCEPTION) {
+            return HystrixCommandInterceptor.getRetryCause((HystrixRuntimeException) failure);
+        }
+        return null;
     }
 
     @Override
@@ -64,63 +100,22 @@ public class CompositeCommand extends BasicCommand {
 
     private final FaultToleranceOperation operation;
 
-    private final RetryContext retryContext;
-
-    private final MetricRegistry registry;
-
     /**
      *
      * @param callable Asynchronous operation
      * @param operation Fault tolerance operation
      */
-    protected CompositeCommand(Callable<Object> callable, FaultToleranceOperation operation, RetryContext retryContext,
-            ExecutionContextWithInvocationContext ctx, MetricRegistry registry, boolean timeoutEnabled) {
+    protected CompositeCommand(Callable<Object> callable, FaultToleranceOperation operation,
+            ExecutionContextWithInvocationContext ctx, boolean timeoutEnabled) {
         super(initSetter(operation, timeoutEnabled));
         this.operation = operation;
         this.callable = callable;
-        this.retryContext = retryContext;
         this.ctx = ctx;
-        this.registry = registry;
     }
 
     @Override
     protected Object run() throws Exception {
-        String metricsPrefix = MetricNames.metricsPrefix(operation.getMethod());
-
-        if (retryContext == null) {
-            return callable.call();
-        }
-
-        // the retry metrics collection here mirrors the logic in HystrixCommandInterceptor.executeCommand
-        // and MetricsCollectorFactory.MetricsCollectorImpl.beforeExecute/afterSuccess/onError
-        while (true) {
-            try {
-                if (registry != null && retryContext.hasBeenRetried()) {
-                    counterOf(metricsPrefix + MetricNames.RETRY_RETRIES_TOTAL).inc();
-                }
-                Object result = callable.call();
-                if (registry != null) {
-                    if (retryContext.hasBeenRetried()) {
-                        counterOf(metricsPrefix + MetricNames.RETRY_CALLS_SUCCEEDED_RETRIED_TOTAL).inc();
-                    } else {
-                        counterOf(metricsPrefix + MetricNames.RETRY_CALLS_SUCCEEDED_NOT_RETRIED_TOTAL).inc();
-                    }
-                }
-                return result;
-            } catch (Throwable e) {
-                if (retryContext.shouldRetry()) {
-                    Exception shouldRetry = retryContext.nextRetry(e);
-                    if (shouldRetry != null) {
-                        throw shouldRetry;
-                    }
-                } else {
-                    if (registry != null) {
-                        counterOf(metricsPrefix + MetricNames.RETRY_CALLS_FAILED_TOTAL).inc();
-                    }
-                    throw e;
-                }
-            }
-        }
+        return callable.call();
     }
 
     // needs to be identical to CompositeObservableCommand.initSetter
@@ -141,21 +136,6 @@ public class CompositeCommand extends BasicCommand {
                         .withAllowMaximumSizeToDivergeFromCoreSize(true));
     }
 
-    // duplicate of MetricsCollectorFactory.MetricsCollectorImpl.counterOf
-    private Counter counterOf(String name) {
-        MetricID metricID = new MetricID(name);
-        Counter counter = registry.getCounters().get(metricID);
-        if (counter == null) {
-            synchronized (operation) {
-                counter = registry.getCounters().get(metricID);
-                if (counter == null) {
-                    counter = registry.counter(MetricsCollectorFactory.metadataOf(name, MetricType.COUNTER));
-                }
-            }
-        }
-        return counter;
-    }
-
     static HystrixCommandGroupKey hystrixCommandGroupKey() {
         return HystrixCommandGroupKey.Factory.asKey("CompositeCommandGroup");
     }
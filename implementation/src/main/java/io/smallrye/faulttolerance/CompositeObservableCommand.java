@@ -19,13 +19,9 @@ import java.lang.reflect.Field;
 import java.security.PrivilegedActionException;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
-import org.eclipse.microprofile.metrics.Counter;
-import org.eclipse.microprofile.metrics.MetricID;
-import org.eclipse.microprofile.metrics.MetricRegistry;
-import org.eclipse.microprofile.metrics.MetricType;
-
 import com.netflix.hystrix.HystrixCommandKey;
 import com.netflix.hystrix.HystrixCommandProperties;
 import com.netflix.hystrix.HystrixObservableCommand;
@@ -33,9 +29,9 @@ import com.netflix.hystrix.HystrixThreadPoolKey;
 import com.netflix.hystrix.HystrixThreadPoolProperties;
 
 import io.smallrye.faulttolerance.config.FaultToleranceOperation;
-import io.smallrye.faulttolerance.metrics.MetricNames;
-import io.smallrye.faulttolerance.metrics.MetricsCollectorFactory;
+import io.smallrye.faulttolerance.metrics.MetricsRecorder;
 import rx.Observable;
+import rx.schedulers.Schedulers;
 
 /**
  *
@@ -47,24 +43,24 @@ public class CompositeObservableCommand extends HystrixObservableCommand {
             FaultToleranceOperation operation,
             RetryContext retryContext,
             ExecutionContextWithInvocationContext ctx,
-            MetricRegistry registry,
+            MetricsRecorder metrics,
             boolean timeoutEnabled,
             Supplier<Object> fallback) {
-        return new CompositeObservableCommand(callable, operation, retryContext, ctx, registry, timeoutEnabled, fallback);
+        return new CompositeObservableCommand(callable, operation, retryContext, ctx, metrics, timeoutEnabled, fallback);
     }
 
     private final Callable<? extends CompletionStage<?>> callable;
     private final ExecutionContextWithInvocationContext ctx;
     private final FaultToleranceOperation operation;
     private final RetryContext retryContext;
-    private final MetricRegistry registry;
+    private final MetricsRecorder metrics;
     private final Supplier<Object> fallback;
 
     protected CompositeObservableCommand(Callable<? extends CompletionStage<?>> callable,
             FaultToleranceOperation operation,
             RetryContext retryContext,
             ExecutionContextWithInvocationContext ctx,
-            MetricRegistry registry,
+            MetricsRecorder metrics,
             boolean timeoutEnabled,
             Supplier<Object> fallback) {
         super(initSetter(operation, timeoutEnabled));
@@ -72,19 +68,19 @@ public class CompositeObservableCommand extends HystrixObservableCommand {
         this.ctx = ctx;
         this.operation = operation;
         this.retryContext = retryContext;
-        this.registry = registry;
+        this.metrics = metrics;
         this.fallback = fallback;
     }
 
     @Override
     protected Observable<?> construct() {
-        String metricsPrefix = MetricNames.metricsPrefix(operation.getMethod());
         // the retry metrics collection here mirrors the logic in HystrixCommandInterceptor.executeCommand
         // and MetricsCollectorFactory.MetricsCollectorImpl.beforeExecute/afterSuccess/onError
         Observable<Object> observable = Observable.create(subscriber -> {
             try {
-                if (registry != null && retryContext != null && retryContext.hasBeenRetried()) {
-                    counterOf(metricsPrefix + MetricNames.RETRY_RETRIES_TOTAL).inc();
+                if (retryContext != null && retryContext.hasBeenRetried()) {
+                    metrics.retryRetried();
+                    metrics.retryDelayed(retryContext.getLastDelay());
                 }
                 CompletionStage<?> stage = callable.call();
                 if (stage == null) {
@@ -92,12 +88,8 @@ public class CompositeObservableCommand extends HystrixObservableCommand {
                 } else {
                     stage.whenComplete((value, error) -> {
                         if (error == null) {
-                            if (registry != null && retryContext != null) {
-                                if (retryContext.hasBeenRetried()) {
-                                    counterOf(metricsPrefix + MetricNames.RETRY_CALLS_SUCCEEDED_RETRIED_TOTAL).inc();
-                                } else {
-                                    counterOf(metricsPrefix + MetricNames.RETRY_CALLS_SUCCEEDED_NOT_RETRIED_TOTAL).inc();
-                                }
+                            if (retryContext != null) {
+                                metrics.retrySucceeded(retryContext.hasBeenRetried());
                             }
 
                             subscriber.onNext(value);
@@ -113,28 +105,10 @@ public class CompositeObservableCommand extends HystrixObservableCommand {
         });
 
         if (retryContext != null) {
-            return observable.retryWhen(attempts -> {
-                return attempts.flatMap((Throwable error) -> {
-                    if (retryContext.shouldRetry()) {
-                        Exception shouldRetry = null;
-                        try {
-                            shouldRetry = retryContext.nextRetry(error);
-                        } catch (Throwable e) {
-                            return Observable.error(e);
-                        }
-                        if (shouldRetry != null) {
-                            return Observable.error(shouldRetry);
-                        } else {
-                            return Observable.just(""); // the value here doesn't matter, it's just a signal to retry
-                        }
-                    } else {
-                        if (registry != null) {
-                            counterOf(metricsPrefix + MetricNames.RETRY_CALLS_FAILED_TOTAL).inc();
-                        }
-                        return Observable.error(error);
-                    }
-                });
-            });
+            // the next attempt is subscribed on the I/O scheduler after the delay, because the first part of the operation
+            // (up to returning the CompletionStage) is executed synchronously
+            return observable.retryWhen(
+                    new ScheduledRetry(retryContext, Function.identity(), metrics::retryFailed, Schedulers.io()));
         } else {
             return observable;
         }
@@ -189,19 +163,4 @@ public class CompositeObservableCommand extends HystrixObservableCommand {
             });
         });
     }
-
-    // duplicate of MetricsCollectorFactory.MetricsCollectorImpl.counterOf
-    private Counter counterOf(String name) {
-        MetricID metricID = new MetricID(name);
-        Counter counter = registry.getCounters().get(metricID);
-        if (counter == null) {
-            synchronized (operation) {
-                counter = registry.getCounters().get(metricID);
-                if (counter == null) {
-                    counter = registry.counter(MetricsCollectorFactory.metadataOf(name, MetricType.COUNTER));
-                }
-            }
-        }
-        return counter;
-    }
 }
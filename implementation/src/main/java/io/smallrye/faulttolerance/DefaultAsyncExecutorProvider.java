@@ -0,0 +1,123 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedThreadFactory;
+import javax.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.jboss.logging.Logger;
+
+/**
+ * The default executor provider using the managed version of {@link ThreadFactory}.
+ */
+@ApplicationScoped
+public class DefaultAsyncExecutorProvider implements AsyncExecutorProvider {
+
+    private static final Logger LOGGER = Logger.getLogger(DefaultAsyncExecutorProvider.class);
+
+    static final int DEFAULT_MAIN_THREAD_POOL_SIZE = 100;
+
+    @Resource(lookup = "java:comp/DefaultManagedThreadFactory")
+    ManagedThreadFactory managedThreadFactory;
+
+    private ExecutorService executorService;
+
+    private ExecutorService timeoutExecutorService;
+
+    private ScheduledExecutorService scheduledExecutorService;
+
+    @PostConstruct
+    void init() {
+        ThreadFactory threadFactory;
+        if (managedThreadFactory != null) {
+            threadFactory = managedThreadFactory;
+            LOGGER.debug("### Managed Thread Factory used ###");
+        } else {
+            threadFactory = Executors.privilegedThreadFactory();
+            LOGGER.debug("### Privilleged Thread Factory used ###");
+        }
+        Config config = ConfigProvider.getConfig();
+        int size = config.getOptionalValue(HystrixCommandInterceptor.MAIN_THREAD_POOL_SIZE_KEY, Integer.class)
+                .orElse(DEFAULT_MAIN_THREAD_POOL_SIZE);
+        boolean virtualThreads = config.getOptionalValue(HystrixCommandInterceptor.VIRTUAL_THREADS_KEY, Boolean.class)
+                .orElse(false);
+        if (virtualThreads && !VirtualThreads.isSupported()) {
+            LOGGER.warn("Virtual threads are not supported by this JVM, platform threads are used instead");
+            virtualThreads = false;
+        }
+        if (virtualThreads) {
+            // bulkheads limit the number of concurrent tasks of each operation
+            executorService = VirtualThreads.newExecutor();
+            timeoutExecutorService = VirtualThreads.newExecutor();
+            LOGGER.debug("Virtual threads used for asynchronous invocations");
+        } else if (size > 0) {
+            // the queue is unbounded, bulkheads limit the number of tasks of each operation
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), threadFactory);
+            executor.allowCoreThreadTimeOut(true);
+            executorService = executor;
+            LOGGER.debugf("Main thread pool size: %s", size);
+        } else {
+            executorService = Executors.newCachedThreadPool(threadFactory);
+            LOGGER.debug("Main thread pool size: unlimited");
+        }
+        if (timeoutExecutorService == null) {
+            // never queues, the number of threads is bounded by the number of callers waiting for a result
+            timeoutExecutorService = Executors.newCachedThreadPool(threadFactory);
+        }
+        // a single thread is enough, scheduled actions only submit tasks to the executor service
+        ScheduledThreadPoolExecutor scheduledExecutor = new ScheduledThreadPoolExecutor(1, threadFactory);
+        scheduledExecutor.setRemoveOnCancelPolicy(true);
+        scheduledExecutorService = scheduledExecutor;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduledExecutorService.shutdownNow();
+        executorService.shutdownNow();
+        timeoutExecutorService.shutdownNow();
+    }
+
+    @Override
+    public ExecutorService getExecutorService() {
+        return executorService;
+    }
+
+    @Override
+    public ExecutorService getTimeoutExecutorService() {
+        return timeoutExecutorService;
+    }
+
+    @Override
+    public ScheduledExecutorService getScheduledExecutorService() {
+        return scheduledExecutorService;
+    }
+
+}
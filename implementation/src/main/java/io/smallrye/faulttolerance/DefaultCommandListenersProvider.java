@@ -15,8 +15,9 @@
  */
 package io.smallrye.faulttolerance;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
 import javax.enterprise.context.ApplicationScoped;
@@ -24,7 +25,9 @@ import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
 
 /**
- * Default implementation of {@link CommandListenersProvider}. Note that dependent listeners are not destroyed automatically.
+ * Default implementation of {@link CommandListenersProvider}. The listeners are resolved and sorted once, the same
+ * immutable list is then returned for every invocation. The set of beans does not change after the application is
+ * deployed, so the list never needs to be refreshed. Note that dependent listeners are not destroyed automatically.
  *
  * @author mkouba
  */
@@ -34,12 +37,30 @@ public class DefaultCommandListenersProvider implements CommandListenersProvider
     @Inject
     Instance<CommandListener> listeners;
 
+    // empty if there are no listeners
+    private volatile List<CommandListener> snapshot;
+
     public List<CommandListener> getCommandListeners() {
-        if (listeners.isUnsatisfied()) {
-            return null;
-        } else {
-            return StreamSupport.stream(listeners.spliterator(), false).sorted().collect(Collectors.toList());
+        List<CommandListener> snapshot = this.snapshot;
+        if (snapshot == null) {
+            snapshot = resolve();
+        }
+        return snapshot.isEmpty() ? null : snapshot;
+    }
+
+    private synchronized List<CommandListener> resolve() {
+        List<CommandListener> snapshot = this.snapshot;
+        if (snapshot == null) {
+            if (listeners.isUnsatisfied()) {
+                snapshot = Collections.emptyList();
+            } else {
+                CommandListener[] sorted = StreamSupport.stream(listeners.spliterator(), false).sorted()
+                        .toArray(CommandListener[]::new);
+                snapshot = Collections.unmodifiableList(Arrays.asList(sorted));
+            }
+            this.snapshot = snapshot;
         }
+        return snapshot;
     }
 
 }
@@ -1,47 +1,149 @@
 package io.smallrye.faulttolerance;
 
-import javax.enterprise.context.Dependent;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.AmbiguousResolutionException;
+import javax.enterprise.inject.spi.Bean;
 import javax.enterprise.inject.spi.BeanManager;
 import javax.enterprise.inject.spi.Unmanaged;
 import javax.inject.Inject;
+import javax.inject.Singleton;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.faulttolerance.ExecutionContext;
 import org.eclipse.microprofile.faulttolerance.FallbackHandler;
 
-import io.smallrye.faulttolerance.config.FallbackConfig;
 import io.smallrye.faulttolerance.config.FaultToleranceOperation;
 
 /**
  * Default implementation of {@link FallbackHandlerProvider}.
+ * <p>
+ * A handler class that is an {@link ApplicationScoped} or a {@link Singleton} bean is resolved once and its contextual
+ * reference is reused for all invocations. Otherwise, a new instance is created and destroyed for each invocation,
+ * unless {@link HystrixCommandInterceptor#FALLBACK_HANDLER_POOL_SIZE_KEY} is set. This also applies to other scopes, e.g.
+ * {@code @RequestScoped}, because the fallback may be invoked on a thread where the context is not active, such as a
+ * timeout or an asynchronous invocation.
+ * </p>
+ * <p>
+ * The provider is application scoped, so the resolved handlers and pooled instances are shared by all interceptor
+ * instances, including those of short-lived beans, and pooled instances are disposed when the application shuts down.
+ * </p>
  *
  * @author Martin Kouba
  */
-@Dependent
+@ApplicationScoped
 public class DefaultFallbackHandlerProvider implements FallbackHandlerProvider {
 
     @Inject
     BeanManager beanManager;
 
+    @Inject
+    @ConfigProperty(name = HystrixCommandInterceptor.FALLBACK_HANDLER_POOL_SIZE_KEY, defaultValue = "0")
+    Integer poolSize;
+
+    private final ConcurrentMap<Class<?>, FallbackHandler<?>> handlers = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
     @Override
     public <T> FallbackHandler<T> get(FaultToleranceOperation operation) {
-        if (operation.hasFallback()) {
-            return new FallbackHandler<T>() {
-                @Override
-                public T handle(ExecutionContext context) {
-                    Unmanaged<FallbackHandler<T>> unmanaged = new Unmanaged<>(beanManager,
-                            operation.getFallback().get(FallbackConfig.VALUE));
-                    Unmanaged.UnmanagedInstance<FallbackHandler<T>> unmanagedInstance = unmanaged.newInstance();
-                    FallbackHandler<T> handler = unmanagedInstance.produce().inject().postConstruct().get();
-                    try {
-                        return handler.handle(context);
-                    } finally {
-                        // The instance exists to service a single invocation only
-                        unmanagedInstance.preDestroy().dispose();
-                    }
-                }
-            };
+        Class<?> handlerClass = operation.hasFallback() ? operation.getFallback().getPolicy().getHandler() : null;
+        if (handlerClass != null) {
+            return (FallbackHandler<T>) handlers.computeIfAbsent(handlerClass, this::createHandler);
         }
         return null;
     }
 
+    @PreDestroy
+    void destroy() {
+        for (FallbackHandler<?> handler : handlers.values()) {
+            if (handler instanceof PooledFallbackHandler) {
+                ((PooledFallbackHandler<?>) handler).dispose();
+            }
+        }
+        handlers.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> FallbackHandler<T> createHandler(Class<?> handlerClass) {
+        Bean<?> bean = resolveBean(handlerClass);
+        if (bean != null && (ApplicationScoped.class.equals(bean.getScope())
+                || Singleton.class.equals(bean.getScope()))) {
+            return (FallbackHandler<T>) beanManager.getReference(bean, handlerClass,
+                    beanManager.createCreationalContext(bean));
+        }
+        Unmanaged<FallbackHandler<T>> unmanaged = new Unmanaged<>(beanManager,
+                (Class<FallbackHandler<T>>) handlerClass);
+        if (poolSize > 0) {
+            return new PooledFallbackHandler<>(unmanaged, poolSize);
+        }
+        return context -> {
+            Unmanaged.UnmanagedInstance<FallbackHandler<T>> unmanagedInstance = unmanaged.newInstance();
+            FallbackHandler<T> handler = unmanagedInstance.produce().inject().postConstruct().get();
+            try {
+                return handler.handle(context);
+            } finally {
+                // The instance exists to service a single invocation only
+                unmanagedInstance.preDestroy().dispose();
+            }
+        };
+    }
+
+    private Bean<?> resolveBean(Class<?> handlerClass) {
+        Set<Bean<?>> beans = beanManager.getBeans(handlerClass);
+        if (beans.isEmpty()) {
+            return null;
+        }
+        try {
+            return beanManager.resolve(beans);
+        } catch (AmbiguousResolutionException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Keeps up to {@code size} idle handler instances. An instance is only used by one invocation at a time, so the
+     * handler does not need to be thread-safe. If all instances are in use, a new one is created and destroyed after
+     * the invocation if the pool is full.
+     */
+    private static final class PooledFallbackHandler<T> implements FallbackHandler<T> {
+
+        private final Unmanaged<FallbackHandler<T>> unmanaged;
+
+        private final BlockingQueue<Unmanaged.UnmanagedInstance<FallbackHandler<T>>> idle;
+
+        PooledFallbackHandler(Unmanaged<FallbackHandler<T>> unmanaged, int size) {
+            this.unmanaged = unmanaged;
+            this.idle = new ArrayBlockingQueue<>(size);
+        }
+
+        @Override
+        public T handle(ExecutionContext context) {
+            Unmanaged.UnmanagedInstance<FallbackHandler<T>> instance = idle.poll();
+            if (instance == null) {
+                instance = unmanaged.newInstance().produce().inject().postConstruct();
+            }
+            try {
+                return instance.get().handle(context);
+            } finally {
+                if (!idle.offer(instance)) {
+                    instance.preDestroy().dispose();
+                }
+            }
+        }
+
+        void dispose() {
+            Unmanaged.UnmanagedInstance<FallbackHandler<T>> instance;
+            while ((instance = idle.poll()) != null) {
+                instance.preDestroy().dispose();
+            }
+        }
+
+    }
+
 }
@@ -26,6 +26,7 @@ import javax.annotation.Resource;
 import javax.enterprise.concurrent.ManagedThreadFactory;
 import javax.enterprise.context.Dependent;
 
+import org.eclipse.microprofile.config.ConfigProvider;
 import org.jboss.logging.Logger;
 
 import com.netflix.hystrix.HystrixThreadPoolKey;
@@ -56,6 +57,15 @@ public class DefaultHystrixConcurrencyStrategy extends HystrixConcurrencyStrateg
 
     @PostConstruct
     public void initTreadManagerFactory() {
+        if (ConfigProvider.getConfig().getOptionalValue(HystrixCommandInterceptor.VIRTUAL_THREADS_KEY, Boolean.class)
+                .orElse(false)) {
+            if (VirtualThreads.isSupported()) {
+                threadFactory = VirtualThreads.newThreadFactory("hystrix-virtual-");
+                LOGGER.debug("### Virtual Thread Factory used ###");
+                return;
+            }
+            LOGGER.warn("Virtual threads are not supported by this JVM, platform threads are used instead");
+        }
         if (managedThreadFactory != null) {
             threadFactory = managedThreadFactory;
             LOGGER.debug("### Managed Thread Factory used ###");
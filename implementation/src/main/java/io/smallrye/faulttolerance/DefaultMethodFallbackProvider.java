@@ -1,5 +1,6 @@
 package io.smallrye.faulttolerance;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles.Lookup;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
@@ -11,17 +12,14 @@ import java.lang.reflect.Method;
  */
 class DefaultMethodFallbackProvider {
 
-    static Object getFallback(Method fallbackMethod, ExecutionContextWithInvocationContext ctx)
-            throws Throwable {
+    static MethodHandle unreflect(Method fallbackMethod) throws ReflectiveOperationException {
         // This should work in Java 8
         Class<?> declaringClazz = fallbackMethod.getDeclaringClass();
         Constructor<Lookup> constructor = Lookup.class.getDeclaredConstructor(Class.class);
         constructor.setAccessible(true);
         return constructor.newInstance(declaringClazz)
                 .in(declaringClazz)
-                .unreflectSpecial(fallbackMethod, declaringClazz)
-                .bindTo(ctx.getTarget())
-                .invokeWithArguments(ctx.getParameters());
+                .unreflectSpecial(fallbackMethod, declaringClazz);
     }
 
 }
@@ -32,7 +32,9 @@ public interface FallbackHandlerProvider {
     /**
      *
      * @param operation Fault tolerance operation
-     * @return a new fallback handler or {@code null}
+     * @return a fallback handler or {@code null}; the handler may be reused for multiple invocations, the
+     *         {@link org.eclipse.microprofile.faulttolerance.ExecutionContext} passed to the handler remains valid after
+     *         the invocation
      */
     <T> FallbackHandler<T> get(FaultToleranceOperation operation);
 
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Binds fallback methods to method handles once, so that invoking a fallback method does not go through reflection.
+ */
+final class FallbackMethodHandles {
+
+    private FallbackMethodHandles() {
+    }
+
+    /**
+     * The returned handle has the type {@code (Object, Object[])Object} and should be invoked via
+     * {@link MethodHandle#invokeExact(Object...)} with the target instance and the invocation parameters. Exceptions
+     * thrown by the fallback method are not wrapped. A primitive return value is boxed, {@code null} is returned for
+     * {@code void} methods.
+     *
+     * @param fallbackMethod the fallback method, must be accessible
+     * @return the method handle
+     * @throws ReflectiveOperationException if the method cannot be unreflected
+     */
+    static MethodHandle create(Method fallbackMethod) throws ReflectiveOperationException {
+        MethodHandle handle;
+        if (fallbackMethod.isDefault()) {
+            // Workaround for default methods (used e.g. in MP Rest Client)
+            handle = DefaultMethodFallbackProvider.unreflect(fallbackMethod);
+        } else {
+            handle = MethodHandles.lookup().unreflect(fallbackMethod);
+            if (Modifier.isStatic(fallbackMethod.getModifiers())) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+        }
+        int parameterCount = fallbackMethod.getParameterCount();
+        // the parameters of a varargs method are already collected in an array
+        return handle.asFixedArity().asType(MethodType.genericMethodType(parameterCount + 1))
+                .asSpreader(Object[].class, parameterCount);
+    }
+
+}
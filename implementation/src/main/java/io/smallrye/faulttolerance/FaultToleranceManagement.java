@@ -0,0 +1,279 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.Initialized;
+import javax.enterprise.event.Observes;
+import javax.enterprise.inject.spi.BeanManager;
+import javax.inject.Inject;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.jboss.logging.Logger;
+
+import io.smallrye.faulttolerance.config.BulkheadConfig;
+import io.smallrye.faulttolerance.config.BulkheadPolicy;
+import io.smallrye.faulttolerance.config.CircuitBreakerConfig;
+import io.smallrye.faulttolerance.config.CircuitBreakerPolicy;
+import io.smallrye.faulttolerance.config.FaultToleranceOperation;
+import io.smallrye.faulttolerance.config.RetryConfig;
+import io.smallrye.faulttolerance.config.RetryPolicy;
+import io.smallrye.faulttolerance.config.TimeoutConfig;
+import io.smallrye.faulttolerance.config.TimeoutPolicy;
+
+/**
+ * Replaces the policies of fault tolerance operations at runtime, without redeploying the application. A policy is
+ * swapped atomically, invocations that already started finish with the previous policy.
+ * <p>
+ * The circuit breaker and retry policies are applied by both the Hystrix based implementation and the engine, except
+ * that the Hystrix circuit breaker is only affected if {@link HystrixCommandInterceptor#SYNC_CIRCUIT_BREAKER_KEY} is
+ * enabled. Bulkhead and timeout policies are only applied by the engine, see
+ * {@link HystrixCommandInterceptor#NATIVE_ENGINE_KEY}, because Hystrix freezes them into the command properties and
+ * thread pools. Replacing a policy that would not be applied fails with {@link IllegalStateException}.
+ * </p>
+ * <p>
+ * Only operations of CDI beans are managed. Operations are identified by
+ * {@code <bean class name>::<generic string of the method>}.
+ * </p>
+ */
+@ApplicationScoped
+public class FaultToleranceManagement implements FaultToleranceManagementMBean {
+
+    private static final Logger LOGGER = Logger.getLogger(FaultToleranceManagement.class);
+
+    static final String OBJECT_NAME = "io.smallrye.faulttolerance:type=FaultToleranceManagement";
+
+    @Inject
+    BeanManager beanManager;
+
+    private HystrixExtension extension;
+
+    private boolean nativeEngine;
+
+    private boolean syncCircuitBreaker;
+
+    private volatile ObjectName registered;
+
+    // Initialize eagerly, so that the MBean is registered
+    void init(@Observes @Initialized(ApplicationScoped.class) Object event) {
+    }
+
+    @PostConstruct
+    void register() {
+        extension = beanManager.getExtension(HystrixExtension.class);
+        Config config = ConfigProvider.getConfig();
+        nativeEngine = config.getOptionalValue(HystrixCommandInterceptor.NATIVE_ENGINE_KEY, Boolean.class).orElse(false);
+        syncCircuitBreaker = config.getOptionalValue(HystrixCommandInterceptor.SYNC_CIRCUIT_BREAKER_KEY, Boolean.class)
+                .orElse(true);
+        if (!config.getOptionalValue(HystrixCommandInterceptor.MANAGEMENT_MBEAN_KEY, Boolean.class).orElse(false)) {
+            return;
+        }
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(name)) {
+                LOGGER.warnf("%s is already registered, possibly by another deployment", name);
+                return;
+            }
+            server.registerMBean(new StandardMBean(this, FaultToleranceManagementMBean.class), name);
+            registered = name;
+        } catch (JMException e) {
+            LOGGER.warn("Unable to register the fault tolerance management MBean", e);
+        }
+    }
+
+    @PreDestroy
+    void unregister() {
+        ObjectName name = registered;
+        if (name != null) {
+            registered = null;
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+            } catch (JMException e) {
+                LOGGER.debug("Unable to unregister the fault tolerance management MBean", e);
+            }
+        }
+    }
+
+    /**
+     *
+     * @return all fault tolerance operations of the application
+     */
+    public Collection<FaultToleranceOperation> getFaultToleranceOperations() {
+        return extension.getFaultToleranceOperations().values();
+    }
+
+    /**
+     *
+     * @param operation the identifier of an operation
+     * @return the operation
+     * @throws IllegalArgumentException if there is no such operation
+     */
+    public FaultToleranceOperation getFaultToleranceOperation(String operation) {
+        FaultToleranceOperation result = extension.getFaultToleranceOperations().get(operation);
+        if (result == null) {
+            throw new IllegalArgumentException("Unknown fault tolerance operation: " + operation);
+        }
+        return result;
+    }
+
+    public void setBulkheadPolicy(String operation, BulkheadPolicy policy) {
+        FaultToleranceOperation ftOperation = getFaultToleranceOperation(operation);
+        // the queue is only used by asynchronous invocations
+        if (policy.getSize() < 1 || policy.getQueueSize() < (ftOperation.isAsync() ? 1 : 0)) {
+            throw new IllegalArgumentException("Invalid " + policy);
+        }
+        BulkheadConfig bulkhead = getBulkhead(operation);
+        checkNativeEngine(operation, "Bulkhead");
+        bulkhead.setPolicy(policy);
+        LOGGER.infof("Bulkhead of %s changed: %s", operation, policy);
+    }
+
+    public void setCircuitBreakerPolicy(String operation, CircuitBreakerPolicy policy) {
+        if (policy.getDelayNanos() < 0 || policy.getFailureRatio() < 0 || policy.getFailureRatio() > 1
+                || policy.getRequestVolumeThreshold() < 1 || policy.getSuccessThreshold() < 1) {
+            throw new IllegalArgumentException("Invalid " + policy);
+        }
+        CircuitBreakerConfig circuitBreaker = getCircuitBreaker(operation);
+        if (!nativeEngine && !syncCircuitBreaker) {
+            throw new IllegalStateException("Circuit breaker of " + operation + " is not managed, "
+                    + HystrixCommandInterceptor.SYNC_CIRCUIT_BREAKER_KEY + " is disabled");
+        }
+        circuitBreaker.setPolicy(policy);
+        LOGGER.infof("Circuit breaker of %s changed: %s", operation, policy);
+    }
+
+    public void setRetryPolicy(String operation, RetryPolicy policy) {
+        // like @Retry, maxDuration must be greater than delay, so 0 is not allowed
+        if (policy.getMaxRetries() < -1 || policy.getDelayNanos() < 0
+                || policy.getMaxDurationNanos() <= policy.getDelayNanos()) {
+            throw new IllegalArgumentException("Invalid " + policy);
+        }
+        getRetry(operation).setPolicy(policy);
+        LOGGER.infof("Retry of %s changed: %s", operation, policy);
+    }
+
+    public void setTimeoutPolicy(String operation, TimeoutPolicy policy) {
+        if (policy.getTimeoutNanos() < 0) {
+            throw new IllegalArgumentException("Invalid " + policy);
+        }
+        TimeoutConfig timeout = getTimeout(operation);
+        checkNativeEngine(operation, "Timeout");
+        timeout.setPolicy(policy);
+        LOGGER.infof("Timeout of %s changed: %s", operation, policy);
+    }
+
+    @Override
+    public String[] getOperations() {
+        return extension.getFaultToleranceOperations().keySet().stream().sorted().toArray(String[]::new);
+    }
+
+    @Override
+    public String getPolicies(String operation) {
+        FaultToleranceOperation ftOperation = getFaultToleranceOperation(operation);
+        StringBuilder builder = new StringBuilder();
+        if (ftOperation.hasBulkhead()) {
+            builder.append(ftOperation.getBulkhead().getPolicy()).append('\n');
+        }
+        if (ftOperation.hasCircuitBreaker()) {
+            builder.append(ftOperation.getCircuitBreaker().getPolicy()).append('\n');
+        }
+        if (ftOperation.hasRetry()) {
+            builder.append(ftOperation.getRetry().getPolicy()).append('\n');
+        }
+        if (ftOperation.hasTimeout()) {
+            builder.append(ftOperation.getTimeout().getPolicy()).append('\n');
+        }
+        if (ftOperation.hasFallback()) {
+            builder.append(ftOperation.getFallback().getPolicy()).append('\n');
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public void setBulkhead(String operation, int size, int queueSize) {
+        setBulkheadPolicy(operation, new BulkheadPolicy(size, queueSize));
+    }
+
+    @Override
+    public void setCircuitBreaker(String operation, long delayMillis, double failureRatio, int requestVolumeThreshold,
+            int successThreshold) {
+        setCircuitBreakerPolicy(operation, getCircuitBreaker(operation).getPolicy().with(
+                TimeUnit.MILLISECONDS.toNanos(delayMillis), failureRatio, requestVolumeThreshold, successThreshold));
+    }
+
+    @Override
+    public void setRetry(String operation, int maxRetries, long delayMillis, long maxDurationMillis) {
+        setRetryPolicy(operation, getRetry(operation).getPolicy().with(maxRetries,
+                TimeUnit.MILLISECONDS.toNanos(delayMillis), TimeUnit.MILLISECONDS.toNanos(maxDurationMillis), null));
+    }
+
+    @Override
+    public void setTimeout(String operation, long timeoutMillis) {
+        setTimeoutPolicy(operation, new TimeoutPolicy(TimeUnit.MILLISECONDS.toNanos(timeoutMillis)));
+    }
+
+    private void checkNativeEngine(String operation, String policy) {
+        if (!nativeEngine) {
+            throw new IllegalStateException(policy + " of " + operation + " is not managed, "
+                    + HystrixCommandInterceptor.NATIVE_ENGINE_KEY + " is disabled");
+        }
+    }
+
+    private BulkheadConfig getBulkhead(String operation) {
+        FaultToleranceOperation ftOperation = getFaultToleranceOperation(operation);
+        if (!ftOperation.hasBulkhead()) {
+            throw new IllegalArgumentException(operation + " does not use @Bulkhead");
+        }
+        return ftOperation.getBulkhead();
+    }
+
+    private CircuitBreakerConfig getCircuitBreaker(String operation) {
+        FaultToleranceOperation ftOperation = getFaultToleranceOperation(operation);
+        if (!ftOperation.hasCircuitBreaker()) {
+            throw new IllegalArgumentException(operation + " does not use @CircuitBreaker");
+        }
+        return ftOperation.getCircuitBreaker();
+    }
+
+    private RetryConfig getRetry(String operation) {
+        FaultToleranceOperation ftOperation = getFaultToleranceOperation(operation);
+        if (!ftOperation.hasRetry()) {
+            throw new IllegalArgumentException(operation + " does not use @Retry");
+        }
+        return ftOperation.getRetry();
+    }
+
+    private TimeoutConfig getTimeout(String operation) {
+        FaultToleranceOperation ftOperation = getFaultToleranceOperation(operation);
+        if (!ftOperation.hasTimeout()) {
+            throw new IllegalArgumentException(operation + " does not use @Timeout");
+        }
+        return ftOperation.getTimeout();
+    }
+
+}
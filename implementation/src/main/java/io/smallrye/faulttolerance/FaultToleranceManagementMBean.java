@@ -0,0 +1,48 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance;
+
+/**
+ * JMX view of {@link FaultToleranceManagement}. Operations are identified by the strings returned from
+ * {@link #getOperations()}, durations are in milliseconds.
+ *
+ * @see HystrixCommandInterceptor#MANAGEMENT_MBEAN_KEY
+ */
+public interface FaultToleranceManagementMBean {
+
+    /**
+     *
+     * @return the identifiers of all fault tolerance operations of the application
+     */
+    String[] getOperations();
+
+    /**
+     *
+     * @param operation
+     * @return a description of the current policies of the given operation
+     */
+    String getPolicies(String operation);
+
+    void setBulkhead(String operation, int size, int queueSize);
+
+    void setCircuitBreaker(String operation, long delayMillis, double failureRatio, int requestVolumeThreshold,
+            int successThreshold);
+
+    void setRetry(String operation, int maxRetries, long delayMillis, long maxDurationMillis);
+
+    void setTimeout(String operation, long timeoutMillis);
+
+}
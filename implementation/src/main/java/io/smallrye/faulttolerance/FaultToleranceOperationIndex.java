@@ -0,0 +1,121 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of fault tolerance operations generated at build time by {@code smallrye-fault-tolerance-annotation-processor}.
+ * For each class compiled with the processor, the index lists the signatures of the methods that are annotated with a
+ * fault tolerance annotation, so that {@link HystrixExtension} does not need to inspect the other methods.
+ * <p>
+ * A class name on its own line is followed by the signatures of its operations, each one indented with a tab.
+ * </p>
+ */
+final class FaultToleranceOperationIndex {
+
+    static final String RESOURCE = "META-INF/smallrye-fault-tolerance/operations";
+
+    static final FaultToleranceOperationIndex EMPTY = new FaultToleranceOperationIndex(new HashMap<>());
+
+    /**
+     * Reads and merges all indexes visible to the given class loader.
+     *
+     * @param classLoader
+     * @return the index
+     * @throws IOException
+     */
+    static FaultToleranceOperationIndex load(ClassLoader classLoader) throws IOException {
+        Map<String, Set<String>> operations = new HashMap<>();
+        Enumeration<URL> resources = classLoader.getResources(RESOURCE);
+        while (resources.hasMoreElements()) {
+            URL resource = resources.nextElement();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(resource.openStream(), StandardCharsets.UTF_8))) {
+                read(reader, operations);
+            }
+        }
+        return new FaultToleranceOperationIndex(operations);
+    }
+
+    static void read(BufferedReader reader, Map<String, Set<String>> operations) throws IOException {
+        Set<String> signatures = null;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            if (line.charAt(0) == '\t') {
+                if (signatures == null) {
+                    throw new IOException("Operation without a class: " + line.substring(1));
+                }
+                signatures.add(line.substring(1));
+            } else {
+                signatures = operations.computeIfAbsent(line, k -> new HashSet<>());
+            }
+        }
+    }
+
+    /**
+     * The method name followed by {@link Class#getTypeName()} of the parameter types, e.g.
+     * {@code hello(java.lang.String,int[])}.
+     *
+     * @param method
+     * @return the signature of the method
+     */
+    static String getSignature(Method method) {
+        StringBuilder signature = new StringBuilder(method.getName()).append('(');
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (i > 0) {
+                signature.append(',');
+            }
+            signature.append(parameterTypes[i].getTypeName());
+        }
+        return signature.append(')').toString();
+    }
+
+    // class name -> signatures of operations
+    private final Map<String, Set<String>> operations;
+
+    FaultToleranceOperationIndex(Map<String, Set<String>> operations) {
+        this.operations = operations;
+    }
+
+    boolean isEmpty() {
+        return operations.isEmpty();
+    }
+
+    /**
+     *
+     * @param beanClass
+     * @return the signatures of the operations of the given class, or {@code null} if the class is not indexed
+     */
+    Set<String> getOperations(Class<?> beanClass) {
+        return operations.get(beanClass.getName());
+    }
+
+}
@@ -16,17 +16,15 @@
 
 package io.smallrye.faulttolerance;
 
-import java.lang.reflect.Field;
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Method;
 import java.security.PrivilegedActionException;
-import java.time.Duration;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
@@ -46,7 +44,6 @@ import javax.interceptor.InvocationContext;
 import org.eclipse.microprofile.config.Config;
 import org.eclipse.microprofile.faulttolerance.Asynchronous;
 import org.eclipse.microprofile.faulttolerance.CircuitBreaker;
-import org.eclipse.microprofile.faulttolerance.Fallback;
 import org.eclipse.microprofile.faulttolerance.FallbackHandler;
 import org.eclipse.microprofile.faulttolerance.Retry;
 import org.eclipse.microprofile.faulttolerance.Timeout;
@@ -54,7 +51,6 @@ import org.eclipse.microprofile.faulttolerance.exceptions.BulkheadException;
 import org.eclipse.microprofile.faulttolerance.exceptions.CircuitBreakerOpenException;
 import org.eclipse.microprofile.faulttolerance.exceptions.FaultToleranceException;
 import org.eclipse.microprofile.faulttolerance.exceptions.TimeoutException;
-import org.eclipse.microprofile.metrics.MetricRegistry;
 import org.jboss.logging.Logger;
 
 import com.netflix.hystrix.HystrixCircuitBreaker;
@@ -69,14 +65,16 @@ import com.netflix.hystrix.HystrixThreadPoolProperties;
 import com.netflix.hystrix.exception.HystrixRuntimeException;
 import com.netflix.hystrix.exception.HystrixRuntimeException.FailureType;
 
-import io.smallrye.faulttolerance.config.BulkheadConfig;
-import io.smallrye.faulttolerance.config.CircuitBreakerConfig;
-import io.smallrye.faulttolerance.config.FallbackConfig;
+import io.smallrye.faulttolerance.config.BulkheadPolicy;
+import io.smallrye.faulttolerance.config.CircuitBreakerPolicy;
 import io.smallrye.faulttolerance.config.FaultToleranceOperation;
-import io.smallrye.faulttolerance.config.TimeoutConfig;
+import io.smallrye.faulttolerance.engine.FallbackFunction;
+import io.smallrye.faulttolerance.engine.FaultToleranceChain;
+import io.smallrye.faulttolerance.engine.FaultToleranceEngine;
 import io.smallrye.faulttolerance.metrics.BulkheadWaitRecorder;
 import io.smallrye.faulttolerance.metrics.MetricsCollector;
 import io.smallrye.faulttolerance.metrics.MetricsCollectorFactory;
+import io.smallrye.faulttolerance.metrics.MetricsRecorder;
 import rx.Observable;
 import rx.Subscription;
 
@@ -126,16 +124,114 @@ public class HystrixCommandInterceptor {
      */
     public static final String ASYNC_TIMEOUT_KEY = "io_smallrye_faulttolerance_asyncTimeout";
 
-    private static final Logger LOGGER = Logger.getLogger(HystrixCommandInterceptor.class);
+    /**
+     * This config property can be used to execute fault tolerance operations using the {@link FaultToleranceEngine} that
+     * does not depend on Hystrix. The engine is disabled by default. Note that {@link #SYNC_CIRCUIT_BREAKER_KEY},
+     * {@link #ASYNC_TIMEOUT_KEY} and Hystrix configuration are ignored when the engine is enabled. The engine obtains the
+     * {@link CommandListener}s once per invocation, not for each attempt.
+     */
+    public static final String NATIVE_ENGINE_KEY = "io_smallrye_faulttolerance_nativeEngine";
+
+    /**
+     * This config property can be used to limit the number of threads of the executor shared by all asynchronous
+     * invocations of the {@link FaultToleranceEngine}. Tasks submitted while all the threads are busy wait in a FIFO
+     * queue. The default value is {@code 100}, a value lower than {@code 1} means that the number of threads is not
+     * limited. Hystrix thread pools are not affected.
+     */
+    public static final String MAIN_THREAD_POOL_SIZE_KEY = "io_smallrye_faulttolerance_mainThreadPoolSize";
+
+    /**
+     * This config property can be used to execute asynchronous invocations and timeouts of the {@link FaultToleranceEngine}
+     * on virtual threads, a new virtual thread is started for each task and {@link #MAIN_THREAD_POOL_SIZE_KEY} is
+     * ignored. Hystrix thread pools use virtual threads too, but their size still limits concurrency. Pinning of virtual
+     * threads inside fault tolerance operations is reported by {@link VirtualThreadPinningMonitor}. Virtual threads
+     * require Java 21 or newer, platform threads are used if they are not supported. Disabled by default.
+     */
+    public static final String VIRTUAL_THREADS_KEY = "io_smallrye_faulttolerance_virtualThreads";
+
+    /**
+     * This config property can be used to set the tick duration of the timer that enforces timeouts of the
+     * {@link FaultToleranceEngine}, in microseconds. A timeout fires on the first tick after its deadline, so the tick
+     * duration is the precision of timeouts; the timer thread wakes up on every tick while a timeout is pending. The
+     * default value is {@code 1000}, i.e. the same precision as Hystrix timeouts. A finer tick makes timeouts more
+     * precise at the cost of more wakeups of the timer thread, e.g. {@code 100} means up to 10,000 wakeups per second.
+     */
+    public static final String TIMER_TICK_KEY = "io_smallrye_faulttolerance_timerTick";
+
+    /**
+     * This config property can be used to execute synchronous operations with {@code @Timeout} on the calling thread,
+     * instead of handing them off to another thread. A watchdog interrupts the calling thread once the timeout elapses
+     * and {@link TimeoutException} is thrown, even if the method ignores the interruption and completes normally. Hystrix
+     * commands then use the semaphore isolation and Hystrix timeouts are disabled. Disabled by default.
+     */
+    public static final String SAME_THREAD_TIMEOUT_KEY = "io_smallrye_faulttolerance_sameThreadTimeout";
+
+    /**
+     * This config property can be used to enable the fast path for synchronous operations that only use circuit
+     * breaker, retry and fallback. Such operations need neither a thread hand-off nor a Hystrix command, so they are then
+     * executed by the {@link FaultToleranceEngine} on the calling thread, without allocations if the call succeeds. The
+     * behavior is that of the engine rather than Hystrix, e.g. the circuit breaker is not shared with Hystrix commands
+     * of the operation, an exception thrown by a fallback is not wrapped in {@code FaultToleranceException} and the
+     * {@link CommandListener}s are obtained once per invocation, not for each attempt. The fast path is not used if
+     * {@link #SYNC_CIRCUIT_BREAKER_KEY} is disabled. Disabled by default.
+     */
+    public static final String SYNC_FAST_PATH_KEY = "io_smallrye_faulttolerance_syncFastPath";
+
+    /**
+     * This config property can be used to record fault tolerance counters, such as the number of invocations, in
+     * striped counters. Threads that update the same counter then do not contend on a single memory location, at the
+     * cost of summing the stripes each time the counter is read. Only counters registered by this implementation are
+     * affected; a counter that already exists in the {@code MetricRegistry} is used as is. Disabled by default.
+     */
+    public static final String STRIPED_COUNTERS_KEY = "io_smallrye_faulttolerance_stripedCounters";
+
+    /**
+     * This config property can be used to disable HdrHistogram based recording of fault tolerance durations, such as
+     * the bulkhead execution duration. By default, histograms registered by this implementation record every value
+     * wait-free and report percentiles and the maximum computed from all values recorded in about the last two minutes.
+     * If disabled, the default histograms of the {@code MetricRegistry} are used, which sample the recorded values.
+     * Enabled by default.
+     */
+    public static final String HDR_HISTOGRAMS_KEY = "io_smallrye_faulttolerance_hdrHistograms";
+
+    /**
+     * This config property can be used to reuse instances of fallback handlers that are neither
+     * {@code @ApplicationScoped} nor {@code @Singleton} beans, e.g. {@code @Dependent} or {@code @RequestScoped}
+     * handlers. Up to the configured number of idle instances is kept
+     * per handler class and each instance only handles one fallback at a time, so the handler does not need to be
+     * thread-safe, but it must not depend on being created for a single invocation. The default value {@code 0} means
+     * that a new instance is created and destroyed for each fallback.
+     */
+    public static final String FALLBACK_HANDLER_POOL_SIZE_KEY = "io_smallrye_faulttolerance_fallbackHandlerPoolSize";
 
-    private final ConcurrentMap<String, HystrixCircuitBreaker> circuitBreakers;
+    /**
+     * This config property can be used to register {@link FaultToleranceManagement} in the platform MBean server, so
+     * that the policies of fault tolerance operations can be changed at runtime via JMX. The CDI bean is available
+     * regardless of this property. Disabled by default.
+     */
+    public static final String MANAGEMENT_MBEAN_KEY = "io_smallrye_faulttolerance_managementMBean";
 
-    private final ConcurrentMap<Method, CommandMetadata> commandMetadataCache;
+    /**
+     * This config property can be used to ignore the operation indexes generated by
+     * {@code smallrye-fault-tolerance-annotation-processor}, e.g. if a portable extension adds fault tolerance annotations
+     * to classes compiled with the processor. If disabled, all methods of all beans are inspected. Enabled by default.
+     */
+    public static final String OPERATION_INDEX_KEY = "io_smallrye_faulttolerance_operationIndex";
+
+    private static final Logger LOGGER = Logger.getLogger(HystrixCommandInterceptor.class);
+
+    private final CommandMetadataRegistry commandMetadataRegistry;
 
     private final Boolean syncCircuitBreakerEnabled;
 
     private final boolean asyncTimeout;
 
+    private final boolean nativeEngine;
+
+    private final boolean sameThreadTimeout;
+
+    private final boolean syncFastPath;
+
     private final FallbackHandlerProvider fallbackHandlerProvider;
 
     private final FaultToleranceOperationProvider faultToleranceOperationProvider;
@@ -146,32 +242,35 @@ public class HystrixCommandInterceptor {
 
     private final MetricsCollectorFactory metricsCollectorFactory;
 
-    @SuppressWarnings("unchecked")
+    private final FaultToleranceEngine faultToleranceEngine;
+
+    private final RetryBudgets retryBudgets;
+
+    private final VirtualThreadPinningMonitor pinningMonitor;
+
     @Inject
     public HystrixCommandInterceptor(
             Config config, FallbackHandlerProvider fallbackHandlerProvider,
             FaultToleranceOperationProvider faultToleranceOperationProvider,
             CommandListenersProvider listenersProvider, @Intercepted Bean<?> interceptedBean,
-            MetricsCollectorFactory metricsCollectorFactory) {
+            MetricsCollectorFactory metricsCollectorFactory, FaultToleranceEngine faultToleranceEngine,
+            RetryBudgets retryBudgets, VirtualThreadPinningMonitor pinningMonitor,
+            CommandMetadataRegistry commandMetadataRegistry) {
         this.syncCircuitBreakerEnabled = config.getOptionalValue(SYNC_CIRCUIT_BREAKER_KEY, Boolean.class).orElse(true);
         this.asyncTimeout = config.getOptionalValue(ASYNC_TIMEOUT_KEY, Boolean.class).orElse(false);
+        this.nativeEngine = config.getOptionalValue(NATIVE_ENGINE_KEY, Boolean.class).orElse(false);
+        this.sameThreadTimeout = config.getOptionalValue(SAME_THREAD_TIMEOUT_KEY, Boolean.class).orElse(false);
+        this.syncFastPath = syncCircuitBreakerEnabled
+                && config.getOptionalValue(SYNC_FAST_PATH_KEY, Boolean.class).orElse(false);
         this.fallbackHandlerProvider = fallbackHandlerProvider;
         this.faultToleranceOperationProvider = faultToleranceOperationProvider;
-        this.commandMetadataCache = new ConcurrentHashMap<>();
         this.listenersProvider = listenersProvider;
         this.interceptedBean = interceptedBean;
         this.metricsCollectorFactory = metricsCollectorFactory;
-        // WORKAROUND: Hystrix does not allow integrators to use a custom HystrixCircuitBreaker impl
-        // See also https://github.com/Netflix/Hystrix/issues/9
-        try {
-            Field field = SecurityActions.getDeclaredField(HystrixCircuitBreaker.Factory.class, "circuitBreakersByCommand");
-            SecurityActions.setAccessible(field);
-            this.circuitBreakers = (ConcurrentHashMap<String, HystrixCircuitBreaker>) field.get(null);
-        } catch (Exception e) {
-            throw new IllegalStateException(
-                    "Could not obtain reference to com.netflix.hystrix.HystrixCircuitBreaker.Factory.circuitBreakersByCommand",
-                    e);
-        }
+        this.faultToleranceEngine = faultToleranceEngine;
+        this.retryBudgets = retryBudgets;
+        this.pinningMonitor = pinningMonitor;
+        this.commandMetadataRegistry = commandMetadataRegistry;
     }
 
     @AroundInvoke
@@ -180,7 +279,7 @@ public class HystrixCommandInterceptor {
         Method method = invocationContext.getMethod();
         Class<?> beanClass = interceptedBean != null ? interceptedBean.getBeanClass() : method.getDeclaringClass();
 
-        CommandMetadata metadata = commandMetadataCache.computeIfAbsent(method, k -> new CommandMetadata(beanClass, method));
+        CommandMetadata metadata = getCommandMetadata(beanClass, method);
         FaultToleranceOperation operation = metadata.operation;
 
         if (!operation.isLegitimate()) {
@@ -188,10 +287,17 @@ public class HystrixCommandInterceptor {
             return invocationContext.proceed();
         }
 
+        if (nativeEngine || metadata.fastPath) {
+            LOGGER.tracef("FT operation intercepted: %s", method);
+            return metadata.getChain().call(invocationContext, metadata.getListeners(listenersProvider),
+                    fallbackHandlerProvider);
+        }
+
         ExecutionContextWithInvocationContext ctx = new ExecutionContextWithInvocationContext(invocationContext);
         LOGGER.tracef("FT operation intercepted: %s", method);
 
-        RetryContext retryContext = operation.hasRetry() ? new RetryContext(operation.getRetry()) : null;
+        RetryContext retryContext = operation.hasRetry() ? new RetryContext(operation.getRetry(), metadata.retryBudget)
+                : null;
         SynchronousCircuitBreaker syncCircuitBreaker = getSynchronousCircuitBreaker(metadata);
 
         Cancelator cancelator = new Cancelator(retryContext);
@@ -199,16 +305,18 @@ public class HystrixCommandInterceptor {
         if (operation.isAsync()) {
             LOGGER.debugf("Queue up command for async execution: %s", operation);
             Function<Supplier<Object>, SimpleCommand> commandFactory = (fallback) -> {
-                MetricRegistry metricRegistry = metricsCollectorFactory.isMetricsEnabled()
-                        ? metricsCollectorFactory.getRegistry()
-                        : null;
-                List<CommandListener> commandListeners = listenersProvider.getCommandListeners();
-                if (metricRegistry != null && operation.hasBulkhead()) {
-                    commandListeners = commandListeners == null ? new ArrayList<>() : new ArrayList<>(commandListeners);
-                    commandListeners.add(new BulkheadWaitRecorder(metricRegistry));
+                CommandListener[] commandListeners = metadata.getListeners(listenersProvider);
+                if (metadata.metrics != MetricsRecorder.NOOP && operation.hasBulkhead()) {
+                    // the recorder measures the wait time of this invocation
+                    if (commandListeners == null) {
+                        commandListeners = new CommandListener[1];
+                    } else {
+                        commandListeners = Arrays.copyOf(commandListeners, commandListeners.length + 1);
+                    }
+                    commandListeners[commandListeners.length - 1] = new BulkheadWaitRecorder(metadata.metrics);
                 }
                 SimpleCommand simpleCommand = new SimpleCommand(metadata.setter, ctx, fallback, operation, commandListeners,
-                        retryContext);
+                        retryContext, null, 0);
                 cancelator.setCommand(simpleCommand);
                 return simpleCommand;
             };
@@ -222,9 +330,9 @@ public class HystrixCommandInterceptor {
                         operation,
                         retryContext,
                         ctx,
-                        metricsCollectorFactory.isMetricsEnabled() ? metricsCollectorFactory.getRegistry() : null,
+                        metadata.metrics,
                         asyncTimeout,
-                        metadata.getFallback(ctx));
+                        metadata.getFallback(ctx, fallbackHandlerProvider));
                 return new ObservableCompletableFuture<>(command.observe(), retryContext, method, syncCircuitBreaker);
             } else {
                 try {
@@ -233,7 +341,7 @@ public class HystrixCommandInterceptor {
                             operation,
                             retryContext,
                             ctx,
-                            metricsCollectorFactory.isMetricsEnabled() ? metricsCollectorFactory.getRegistry() : null,
+                            metadata.metrics,
                             asyncTimeout);
 
                     return new AsyncFuture(future, cancelator);
@@ -249,7 +357,9 @@ public class HystrixCommandInterceptor {
         } else {
             Function<Supplier<Object>, SimpleCommand> commandFactory = (fallback) -> {
                 SimpleCommand simpleCommand = new SimpleCommand(metadata.setter, ctx, fallback, operation,
-                        listenersProvider.getCommandListeners(), retryContext);
+                        metadata.getListeners(listenersProvider), retryContext,
+                        metadata.sameThreadTimeoutNanos > 0 ? faultToleranceEngine.getTimeoutTimer() : null,
+                        metadata.sameThreadTimeoutNanos);
                 cancelator.setCommand(simpleCommand);
                 return simpleCommand;
             };
@@ -262,8 +372,8 @@ public class HystrixCommandInterceptor {
             CommandMetadata metadata,
             ExecutionContextWithInvocationContext ctx, SynchronousCircuitBreaker syncCircuitBreaker) throws Exception {
 
-        MetricsCollector metricsCollector = metricsCollectorFactory.createCollector(metadata.operation, retryContext,
-                metadata.poolKey);
+        MetricsCollector metricsCollector = metricsCollectorFactory.createCollector(metadata.operation, metadata.metrics,
+                retryContext, metadata.poolKey);
         metricsCollector.init(syncCircuitBreaker);
 
         while (true) {
@@ -271,7 +381,7 @@ public class HystrixCommandInterceptor {
                 LOGGER.debugf("Executing %s with %s", metadata.operation, retryContext);
             }
 
-            SimpleCommand command = commandFactory.apply(metadata.getFallback(ctx));
+            SimpleCommand command = commandFactory.apply(metadata.getFallback(ctx, fallbackHandlerProvider));
 
             metricsCollector.beforeExecute(command);
 
@@ -354,7 +464,7 @@ public class HystrixCommandInterceptor {
         }
     }
 
-    private static Throwable getRetryCause(HystrixRuntimeException e) {
+    static Throwable getRetryCause(HystrixRuntimeException e) {
         if (e.getCause() instanceof Exception) {
             if (isHystrixWrapperForThrowable((Exception) e.getCause())) {
                 // the real cause was not `instanceof Exception`, so Hystrix wrapped it
@@ -383,10 +493,56 @@ public class HystrixCommandInterceptor {
         return (e.getCause() instanceof Exception) ? (Exception) e.getCause() : e;
     }
 
+    private CommandMetadata getCommandMetadata(Class<?> beanClass, Method method) {
+        CommandMetadata metadata = commandMetadataRegistry.get(beanClass, method);
+        if (metadata == null) {
+            metadata = commandMetadataRegistry.computeIfAbsent(beanClass, method, m -> createCommandMetadata(beanClass, m));
+        }
+        return metadata;
+    }
+
+    private CommandMetadata createCommandMetadata(Class<?> beanClass, Method method) {
+        FaultToleranceOperation operation = faultToleranceOperationProvider.get(beanClass, method);
+        // Initialize Hystrix command setter
+        HystrixCommandKey commandKey = HystrixCommandKey.Factory.asKey(SimpleCommand.getCommandKey(method));
+
+        HystrixThreadPoolKey poolKey;
+        if (operation.hasBulkhead() && operation.isAsync()) {
+            // Each bulkhead policy needs a dedicated thread pool
+            // Note that this is _in addition_ to the thread pool dedicated
+            // for processing the async invocations (see Composite[Observable]Command.initSetter)
+            poolKey = HystrixThreadPoolKey.Factory.asKey(commandKey.name());
+        } else {
+            poolKey = HystrixThreadPoolKey.Factory.asKey("DefaultCommandGroup");
+        }
+
+        Setter setter = initCommandSetter(commandKey, poolKey, method, operation);
+        // only circuit breaker, retry and fallback
+        boolean fastPath = !nativeEngine && syncFastPath && !operation.isAsync() && !operation.hasTimeout()
+                && !operation.hasBulkhead();
+        RetryBudget retryBudget = nativeEngine || fastPath ? null : retryBudgets.get(operation);
+        MetricsRecorder metrics = nativeEngine || fastPath ? MetricsRecorder.NOOP
+                : metricsCollectorFactory.createRecorder(operation);
+        long sameThreadTimeoutNanos = 0;
+        if (!nativeEngine && sameThreadTimeout && operation.hasTimeout() && !operation.isAsync()) {
+            sameThreadTimeoutNanos = operation.getTimeout().getPolicy().getTimeoutNanos();
+        }
+        if (!nativeEngine && !fastPath) {
+            // the engine registers its operations itself
+            pinningMonitor.register(method, metrics);
+        }
+        return new CommandMetadata(beanClass, method, operation, setter, commandKey, poolKey, retryBudget, metrics,
+                sameThreadTimeoutNanos, fastPath, faultToleranceEngine);
+    }
+
     private SynchronousCircuitBreaker getSynchronousCircuitBreaker(CommandMetadata metadata) {
         if (syncCircuitBreakerEnabled && metadata.hasCircuitBreaker()) {
-            HystrixCircuitBreaker circuitBreaker = circuitBreakers.computeIfAbsent(metadata.commandKey.name(),
-                    (key) -> new SynchronousCircuitBreaker(metadata.operation.getCircuitBreaker()));
+            ConcurrentMap<String, HystrixCircuitBreaker> circuitBreakers = commandMetadataRegistry.getCircuitBreakers();
+            HystrixCircuitBreaker circuitBreaker = circuitBreakers.get(metadata.commandKey.name());
+            if (circuitBreaker == null) {
+                circuitBreaker = circuitBreakers.computeIfAbsent(metadata.commandKey.name(),
+                        (key) -> new SynchronousCircuitBreaker(metadata.operation.getCircuitBreaker()));
+            }
             if (circuitBreaker instanceof SynchronousCircuitBreaker) {
                 return (SynchronousCircuitBreaker) circuitBreaker;
             }
@@ -403,17 +559,18 @@ public class HystrixCommandInterceptor {
             FaultToleranceOperation operation) {
         HystrixCommandProperties.Setter propertiesSetter = HystrixCommandProperties.Setter();
 
+        // Sync timeout operations may be executed on the calling thread, the timeout is then enforced by a watchdog
+        boolean timeoutOnCallingThread = sameThreadTimeout && operation.hasTimeout() && !operation.isAsync();
+
         // Async and timeout operations use THREAD isolation strategy
-        if (operation.isAsync() || operation.hasTimeout()) {
+        if (operation.isAsync() || (operation.hasTimeout() && !timeoutOnCallingThread)) {
             propertiesSetter.withExecutionIsolationStrategy(HystrixCommandProperties.ExecutionIsolationStrategy.THREAD);
         } else {
             propertiesSetter.withExecutionIsolationStrategy(HystrixCommandProperties.ExecutionIsolationStrategy.SEMAPHORE);
         }
 
-        if (operation.hasTimeout()) {
-            Long value = Duration
-                    .of(operation.getTimeout().get(TimeoutConfig.VALUE), operation.getTimeout().get(TimeoutConfig.UNIT))
-                    .toMillis();
+        if (operation.hasTimeout() && !timeoutOnCallingThread) {
+            Long value = TimeUnit.NANOSECONDS.toMillis(operation.getTimeout().getPolicy().getTimeoutNanos());
             if (value > Integer.MAX_VALUE) {
                 LOGGER.warnf("Max supported value for @Timeout.value() is %s", Integer.MAX_VALUE);
                 value = Long.valueOf(Integer.MAX_VALUE);
@@ -425,15 +582,12 @@ public class HystrixCommandInterceptor {
         }
 
         if (operation.hasCircuitBreaker()) {
+            CircuitBreakerPolicy circuitBreaker = operation.getCircuitBreaker().getPolicy();
             propertiesSetter.withCircuitBreakerEnabled(true)
-                    .withCircuitBreakerRequestVolumeThreshold(
-                            operation.getCircuitBreaker().get(CircuitBreakerConfig.REQUEST_VOLUME_THRESHOLD))
-                    .withCircuitBreakerErrorThresholdPercentage(
-                            new Double((Double) operation.getCircuitBreaker().get(CircuitBreakerConfig.FAILURE_RATIO) * 100)
-                                    .intValue())
+                    .withCircuitBreakerRequestVolumeThreshold(circuitBreaker.getRequestVolumeThreshold())
+                    .withCircuitBreakerErrorThresholdPercentage((int) (circuitBreaker.getFailureRatio() * 100))
                     .withCircuitBreakerSleepWindowInMilliseconds(
-                            (int) Duration.of(operation.getCircuitBreaker().get(CircuitBreakerConfig.DELAY),
-                                    operation.getCircuitBreaker().get(CircuitBreakerConfig.DELAY_UNIT)).toMillis());
+                            (int) TimeUnit.NANOSECONDS.toMillis(circuitBreaker.getDelayNanos()));
         } else {
             propertiesSetter.withCircuitBreakerEnabled(false);
         }
@@ -443,26 +597,31 @@ public class HystrixCommandInterceptor {
                 .andCommandKey(commandKey).andCommandPropertiesDefaults(propertiesSetter).andThreadPoolKey(poolKey);
 
         if (operation.hasBulkhead()) {
-            BulkheadConfig bulkhead = operation.getBulkhead();
+            BulkheadPolicy bulkhead = operation.getBulkhead().getPolicy();
             if (operation.isAsync()) {
                 HystrixThreadPoolProperties.Setter threadPoolSetter = HystrixThreadPoolProperties.Setter();
                 threadPoolSetter.withAllowMaximumSizeToDivergeFromCoreSize(false)
-                        .withCoreSize(bulkhead.get(BulkheadConfig.VALUE))
-                        .withMaximumSize(bulkhead.get(BulkheadConfig.VALUE))
-                        .withMaxQueueSize(bulkhead.get(BulkheadConfig.WAITING_TASK_QUEUE))
-                        .withQueueSizeRejectionThreshold(bulkhead.get(BulkheadConfig.WAITING_TASK_QUEUE));
+                        .withCoreSize(bulkhead.getSize())
+                        .withMaximumSize(bulkhead.getSize())
+                        .withMaxQueueSize(bulkhead.getQueueSize())
+                        .withQueueSizeRejectionThreshold(bulkhead.getQueueSize());
                 setter.andThreadPoolPropertiesDefaults(threadPoolSetter);
             } else {
                 // If used without @Asynchronous, the semaphore isolation approach must be used
                 propertiesSetter.withExecutionIsolationStrategy(HystrixCommandProperties.ExecutionIsolationStrategy.SEMAPHORE);
-                propertiesSetter.withExecutionIsolationSemaphoreMaxConcurrentRequests(bulkhead.get(BulkheadConfig.VALUE));
+                propertiesSetter.withExecutionIsolationSemaphoreMaxConcurrentRequests(bulkhead.getSize());
                 propertiesSetter.withExecutionIsolationThreadInterruptOnFutureCancel(true);
             }
         }
         return setter;
     }
 
-    private class CommandMetadata {
+    /**
+     * Shared by all interceptor instances, see {@link CommandMetadataRegistry}. Therefore, it must not hold any
+     * dependency of a particular interceptor instance, such as the {@link FallbackHandlerProvider}; these are passed by
+     * the calling interceptor instead.
+     */
+    static final class CommandMetadata {
 
         private final Setter setter;
 
@@ -472,65 +631,95 @@ public class HystrixCommandInterceptor {
 
         private final Method fallbackMethod;
 
+        // (Object target, Object[] parameters)Object, null if there is no fallback method
+        private final MethodHandle fallbackMethodHandle;
+
         private final FaultToleranceOperation operation;
 
-        CommandMetadata(Class<?> beanClass, Method method) {
-            operation = faultToleranceOperationProvider.get(beanClass, method);
-            // Initialize Hystrix command setter
-            commandKey = HystrixCommandKey.Factory.asKey(SimpleCommand.getCommandKey(method));
+        private final RetryBudget retryBudget;
 
-            if (operation.hasBulkhead() && operation.isAsync()) {
-                // Each bulkhead policy needs a dedicated thread pool
-                // Note that this is _in addition_ to the thread pool dedicated
-                // for processing the async invocations (see Composite[Observable]Command.initSetter)
-                poolKey = HystrixThreadPoolKey.Factory.asKey(commandKey.name());
-            } else {
-                poolKey = HystrixThreadPoolKey.Factory.asKey("DefaultCommandGroup");
-            }
+        private final MetricsRecorder metrics;
 
-            setter = initCommandSetter(commandKey, poolKey, method, operation);
-
-            if (operation.hasFallback()) {
-                FallbackConfig fallbackConfig = operation.getFallback();
-                if (!fallbackConfig.get(FallbackConfig.VALUE).equals(Fallback.DEFAULT.class)) {
-                    fallbackMethod = null;
-                } else {
-                    String fallbackMethodName = fallbackConfig.get(FallbackConfig.FALLBACK_METHOD);
-                    if (!"".equals(fallbackMethodName)) {
-                        try {
-                            fallbackMethod = SecurityActions.getDeclaredMethod(beanClass, method.getDeclaringClass(),
-                                    fallbackMethodName, method.getGenericParameterTypes());
-                            if (fallbackMethod == null) {
-                                throw new FaultToleranceException("Could not obtain fallback method " + fallbackMethodName);
-                            }
-                            SecurityActions.setAccessible(fallbackMethod);
-                        } catch (PrivilegedActionException e) {
-                            throw new FaultToleranceException("Could not obtain fallback method", e);
-                        }
-                    } else {
-                        fallbackMethod = null;
+        // 0 unless the timeout is enforced on the calling thread
+        private final long sameThreadTimeoutNanos;
+
+        // executed by the engine even if the engine is not enabled
+        private final boolean fastPath;
+
+        private final FaultToleranceEngine faultToleranceEngine;
+
+        private volatile FaultToleranceChain chain;
+
+        private volatile ListenersSnapshot listeners;
+
+        CommandMetadata(Class<?> beanClass, Method method, FaultToleranceOperation operation, Setter setter,
+                HystrixCommandKey commandKey, HystrixThreadPoolKey poolKey, RetryBudget retryBudget,
+                MetricsRecorder metrics, long sameThreadTimeoutNanos, boolean fastPath,
+                FaultToleranceEngine faultToleranceEngine) {
+            this.operation = operation;
+            this.setter = setter;
+            this.commandKey = commandKey;
+            this.poolKey = poolKey;
+            this.retryBudget = retryBudget;
+            this.metrics = metrics;
+            this.sameThreadTimeoutNanos = sameThreadTimeoutNanos;
+            this.fastPath = fastPath;
+            this.faultToleranceEngine = faultToleranceEngine;
+
+            String fallbackMethodName = operation.hasFallback() ? operation.getFallback().getPolicy().getFallbackMethod()
+                    : null;
+            if (fallbackMethodName != null) {
+                try {
+                    fallbackMethod = SecurityActions.getDeclaredMethod(beanClass, method.getDeclaringClass(),
+                            fallbackMethodName, method.getGenericParameterTypes());
+                    if (fallbackMethod == null) {
+                        throw new FaultToleranceException("Could not obtain fallback method " + fallbackMethodName);
                     }
+                    SecurityActions.setAccessible(fallbackMethod);
+                } catch (PrivilegedActionException e) {
+                    throw new FaultToleranceException("Could not obtain fallback method", e);
                 }
             } else {
                 fallbackMethod = null;
             }
+            if (fallbackMethod != null) {
+                try {
+                    fallbackMethodHandle = FallbackMethodHandles.create(fallbackMethod);
+                } catch (ReflectiveOperationException e) {
+                    throw new FaultToleranceException("Could not obtain fallback method", e);
+                }
+            } else {
+                fallbackMethodHandle = null;
+            }
         }
 
         boolean hasCircuitBreaker() {
             return operation.hasCircuitBreaker();
         }
 
-        Supplier<Object> getFallback(ExecutionContextWithInvocationContext ctx) {
+        /**
+         * The array is only rebuilt if the provider returns a different list than for the previous invocation.
+         *
+         * @param provider
+         * @return the command listeners or {@code null} if no listeners are available
+         */
+        CommandListener[] getListeners(CommandListenersProvider provider) {
+            List<CommandListener> source = provider.getCommandListeners();
+            ListenersSnapshot listeners = this.listeners;
+            if (listeners == null || listeners.source != source) {
+                listeners = new ListenersSnapshot(source);
+                this.listeners = listeners;
+            }
+            return listeners.array;
+        }
+
+        Supplier<Object> getFallback(ExecutionContextWithInvocationContext ctx,
+                FallbackHandlerProvider fallbackHandlerProvider) {
             Supplier<Object> fallback = null;
-            if (fallbackMethod != null) {
+            if (fallbackMethodHandle != null) {
                 fallback = () -> {
                     try {
-                        if (fallbackMethod.isDefault()) {
-                            // Workaround for default methods (used e.g. in MP Rest Client)
-                            return DefaultMethodFallbackProvider.getFallback(fallbackMethod, ctx);
-                        } else {
-                            return fallbackMethod.invoke(ctx.getTarget(), ctx.getParameters());
-                        }
+                        return (Object) fallbackMethodHandle.invokeExact(ctx.getTarget(), ctx.getParameters());
                     } catch (Throwable e) {
                         throw new FaultToleranceException("Error during fallback method invocation", e);
                     }
@@ -543,6 +732,49 @@ public class HystrixCommandInterceptor {
             }
             return fallback;
         }
+
+        FaultToleranceChain getChain() {
+            FaultToleranceChain chain = this.chain;
+            if (chain == null) {
+                chain = faultToleranceEngine.getChain(operation, this::getFallbackFunction);
+                this.chain = chain;
+            }
+            return chain;
+        }
+
+        private FallbackFunction<Object> getFallbackFunction() {
+            if (fallbackMethodHandle != null) {
+                return ctx -> {
+                    try {
+                        return (Object) fallbackMethodHandle.invokeExact(ctx.getTarget(), ctx.getParameters());
+                    } catch (Throwable e) {
+                        throw asException(e);
+                    }
+                };
+            }
+            return ctx -> {
+                // resolved for each invocation, the provider belongs to the calling interceptor
+                FallbackHandlerProvider fallbackHandlerProvider = ctx.getFallbackHandlerProvider();
+                FallbackHandler<?> fallbackHandler = fallbackHandlerProvider != null
+                        ? fallbackHandlerProvider.get(operation)
+                        : null;
+                if (fallbackHandler == null) {
+                    throw asException(ctx.getFailure());
+                }
+                // the handler may keep the context, a reused context is cleared after the invocation
+                return fallbackHandler.handle(ctx.detach());
+            };
+        }
+
+        private Exception asException(Throwable throwable) {
+            if (throwable instanceof Exception) {
+                return (Exception) throwable;
+            } else if (throwable instanceof Error) {
+                throw (Error) throwable;
+            } else {
+                return new FaultToleranceException("Error during fallback method invocation", throwable);
+            }
+        }
     }
 
     static class ObservableCompletableFuture<T> extends CompletableFuture<T> {
@@ -719,6 +951,20 @@ public class HystrixCommandInterceptor {
         return new IllegalStateException("Unable to get the result of: " + future);
     }
 
+    private static final class ListenersSnapshot {
+
+        private final List<CommandListener> source;
+
+        // null if there are no listeners
+        private final CommandListener[] array;
+
+        ListenersSnapshot(List<CommandListener> source) {
+            this.source = source;
+            this.array = source == null || source.isEmpty() ? null : source.toArray(new CommandListener[0]);
+        }
+
+    }
+
     private class Cancelator {
         private final RetryContext retryContext;
         private SimpleCommand command;
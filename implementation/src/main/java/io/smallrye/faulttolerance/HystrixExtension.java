@@ -16,10 +16,13 @@
 
 package io.smallrye.faulttolerance;
 
+import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -47,6 +50,7 @@ import org.eclipse.microprofile.faulttolerance.Timeout;
 import org.jboss.logging.Logger;
 
 import io.smallrye.faulttolerance.config.FaultToleranceOperation;
+import io.smallrye.faulttolerance.engine.FaultToleranceEngine;
 import io.smallrye.faulttolerance.metrics.MetricsCollectorFactory;
 
 /**
@@ -61,6 +65,8 @@ public class HystrixExtension implements Extension {
      */
     private final ConcurrentMap<String, FaultToleranceOperation> faultToleranceOperations = new ConcurrentHashMap<>();
 
+    private volatile FaultToleranceOperationIndex operationIndex = FaultToleranceOperationIndex.EMPTY;
+
     void registerInterceptorBindings(@Observes BeforeBeanDiscovery bbd, BeanManager bm) {
         LOGGER.info("MicroProfile: Fault Tolerance activated");
         bbd.addInterceptorBinding(new HystrixInterceptorBindingAnnotatedType<>(bm.createAnnotatedType(CircuitBreaker.class)));
@@ -84,6 +90,35 @@ public class HystrixExtension implements Extension {
         bbd.addAnnotatedType(bm.createAnnotatedType(DefaultCommandListenersProvider.class),
                 DefaultCommandListenersProvider.class.getName());
         bbd.addAnnotatedType(bm.createAnnotatedType(MetricsCollectorFactory.class), MetricsCollectorFactory.class.getName());
+        bbd.addAnnotatedType(bm.createAnnotatedType(DefaultAsyncExecutorProvider.class),
+                DefaultAsyncExecutorProvider.class.getName());
+        bbd.addAnnotatedType(bm.createAnnotatedType(FaultToleranceEngine.class), FaultToleranceEngine.class.getName());
+        bbd.addAnnotatedType(bm.createAnnotatedType(RetryBudgets.class), RetryBudgets.class.getName());
+        bbd.addAnnotatedType(bm.createAnnotatedType(CommandMetadataRegistry.class), CommandMetadataRegistry.class.getName());
+        bbd.addAnnotatedType(bm.createAnnotatedType(VirtualThreadPinningMonitor.class),
+                VirtualThreadPinningMonitor.class.getName());
+        bbd.addAnnotatedType(bm.createAnnotatedType(FaultToleranceManagement.class),
+                FaultToleranceManagement.class.getName());
+    }
+
+    void loadOperationIndex(@Observes BeforeBeanDiscovery bbd) {
+        if (!ConfigProvider.getConfig().getOptionalValue(HystrixCommandInterceptor.OPERATION_INDEX_KEY, Boolean.class)
+                .orElse(true)) {
+            return;
+        }
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null) {
+            classLoader = HystrixExtension.class.getClassLoader();
+        }
+        try {
+            operationIndex = FaultToleranceOperationIndex.load(classLoader);
+        } catch (IOException e) {
+            LOGGER.warn("Unable to read the fault tolerance operation index, all bean methods will be inspected", e);
+            return;
+        }
+        if (!operationIndex.isEmpty()) {
+            LOGGER.debugf("Fault tolerance operation index found: %s", FaultToleranceOperationIndex.RESOURCE);
+        }
     }
 
     void changeInterceptorPriority(@Observes ProcessAnnotatedType<HystrixCommandInterceptor> event) {
@@ -103,12 +138,25 @@ public class HystrixExtension implements Extension {
      * <li>Take the final values of AnnotatedTypes</li>
      * <li>Support annotations added via portable extensions</li>
      * </ul>
+     * <p>
+     * Only the methods listed in the {@link FaultToleranceOperationIndex} are inspected for classes compiled with the
+     * annotation processor. Annotations added via portable extensions to such classes are therefore only recognized if
+     * the index is disabled, see {@link HystrixCommandInterceptor#OPERATION_INDEX_KEY}.
+     * </p>
      *
      * @param event
      */
     void collectFaultToleranceOperations(@Observes ProcessManagedBean<?> event) {
         AnnotatedType<?> annotatedType = event.getAnnotatedBeanClass();
+        Set<String> indexed = operationIndex.getOperations(annotatedType.getJavaClass());
+        if (indexed != null && indexed.isEmpty()) {
+            return;
+        }
         for (AnnotatedMethod<?> annotatedMethod : annotatedType.getMethods()) {
+            if (indexed != null
+                    && !indexed.contains(FaultToleranceOperationIndex.getSignature(annotatedMethod.getJavaMember()))) {
+                continue;
+            }
             FaultToleranceOperation operation = FaultToleranceOperation.of(annotatedMethod);
             if (operation.isLegitimate()) {
                 operation.validate();
@@ -127,6 +175,14 @@ public class HystrixExtension implements Extension {
         return faultToleranceOperations.get(getCacheKey(beanClass, method));
     }
 
+    /**
+     *
+     * @return an unmodifiable view of the FT operations of all managed beans
+     */
+    Map<String, FaultToleranceOperation> getFaultToleranceOperations() {
+        return Collections.unmodifiableMap(faultToleranceOperations);
+    }
+
     public static class HystrixInterceptorBindingAnnotatedType<T extends Annotation> implements AnnotatedType<T> {
 
         public HystrixInterceptorBindingAnnotatedType(AnnotatedType<T> delegate) {
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.smallrye.faulttolerance.config.RetryConfig;
+import io.smallrye.faulttolerance.config.RetryPolicy;
+import io.smallrye.faulttolerance.metrics.MetricsRecorder;
+
+/**
+ * Limits the number of retries of a single fault tolerance operation across all concurrent invocations. Within a sliding
+ * time window, the number of retries may not exceed {@link RetryConfig#BUDGET_RATIO} of the first attempts, plus
+ * {@link RetryConfig#BUDGET_MIN_RETRIES} so that operations with low traffic may still retry.
+ * <p>
+ * Each first attempt deposits a fraction of a token and each retry withdraws a whole token. The window is split into
+ * buckets that are recycled as time passes, a retry is only granted by a successful CAS on the retry count of the current
+ * bucket, so concurrent invocations cannot overspend the budget and no lock is needed.
+ * </p>
+ *
+ * @see RetryBudgets
+ */
+public final class RetryBudget {
+
+    private static final int BUCKETS = 10;
+
+    private final double ratio;
+
+    private final long minRetries;
+
+    private final long bucketNanos;
+
+    private final AtomicReferenceArray<Bucket> buckets;
+
+    private final MetricsRecorder metrics;
+
+    /**
+     *
+     * @param ratio
+     * @param minRetries
+     * @param windowMillis
+     * @param metrics
+     */
+    public RetryBudget(double ratio, long minRetries, long windowMillis, MetricsRecorder metrics) {
+        this.ratio = ratio;
+        this.minRetries = minRetries;
+        this.bucketNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(windowMillis) / BUCKETS, 1);
+        this.buckets = new AtomicReferenceArray<>(BUCKETS);
+        this.metrics = metrics;
+    }
+
+    /**
+     *
+     * @param config
+     * @param metrics
+     * @return the budget of the given operation or {@code null} if the retry budget is not enabled
+     */
+    public static RetryBudget of(RetryConfig config, MetricsRecorder metrics) {
+        RetryPolicy policy = config.getPolicy();
+        if (policy.getBudgetRatio() <= 0) {
+            return null;
+        }
+        return new RetryBudget(policy.getBudgetRatio(), policy.getBudgetMinRetries(), policy.getBudgetWindowMillis(),
+                metrics);
+    }
+
+    /**
+     * Deposit the share of a first attempt.
+     */
+    public void attemptStarted() {
+        currentBucket(System.nanoTime()).attempts.increment();
+    }
+
+    /**
+     * Withdraw a token for a retry.
+     *
+     * @return {@code true} if the retry is allowed, {@code false} if the budget is spent
+     */
+    public boolean tryAcquireRetry() {
+        long now = System.nanoTime();
+        Bucket current = currentBucket(now);
+        long oldestEpoch = current.epoch - BUCKETS + 1;
+        long attempts = 0;
+        long previousRetries = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            Bucket bucket = buckets.get(i);
+            if (bucket != null && bucket.epoch >= oldestEpoch) {
+                attempts += bucket.attempts.sum();
+                if (bucket != current) {
+                    previousRetries += bucket.retries.get();
+                }
+            }
+        }
+        long allowed = (long) (attempts * ratio) + minRetries - previousRetries;
+        while (true) {
+            long retries = current.retries.get();
+            if (retries >= allowed) {
+                metrics.retryDenied();
+                return false;
+            }
+            if (current.retries.compareAndSet(retries, retries + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private Bucket currentBucket(long now) {
+        long epoch = Math.floorDiv(now, bucketNanos);
+        int slot = (int) Math.floorMod(epoch, BUCKETS);
+        while (true) {
+            Bucket bucket = buckets.get(slot);
+            if (bucket != null && bucket.epoch >= epoch) {
+                // A bucket from the future may only be seen by a thread delayed after reading the time
+                return bucket;
+            }
+            Bucket fresh = new Bucket(epoch);
+            if (buckets.compareAndSet(slot, bucket, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private static final class Bucket {
+
+        final long epoch;
+
+        final LongAdder attempts = new LongAdder();
+
+        final AtomicLong retries = new AtomicLong();
+
+        Bucket(long epoch) {
+            this.epoch = epoch;
+        }
+
+    }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import io.smallrye.faulttolerance.config.FaultToleranceOperation;
+import io.smallrye.faulttolerance.metrics.MetricsCollectorFactory;
+
+/**
+ * Holds the {@link RetryBudget} of each fault tolerance operation, so that the budget is shared by all invocations of
+ * the operation, no matter which bean instance or interceptor instance handles them.
+ */
+@ApplicationScoped
+public class RetryBudgets {
+
+    @Inject
+    MetricsCollectorFactory metricsCollectorFactory;
+
+    private final ConcurrentMap<String, Optional<RetryBudget>> budgets = new ConcurrentHashMap<>();
+
+    /**
+     *
+     * @param operation Fault tolerance operation
+     * @return the retry budget of the given operation or {@code null} if the operation does not use retry or the retry
+     *         budget is not enabled
+     */
+    public RetryBudget get(FaultToleranceOperation operation) {
+        if (!operation.hasRetry()) {
+            return null;
+        }
+        return budgets.computeIfAbsent(operation.getBeanClass().getName() + "::" + operation.getMethod().toGenericString(),
+                key -> Optional.ofNullable(RetryBudget.of(operation.getRetry(),
+                        metricsCollectorFactory.createRecorder(operation))))
+                .orElse(null);
+    }
+
+}
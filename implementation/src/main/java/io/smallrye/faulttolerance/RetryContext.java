@@ -15,8 +15,6 @@
  */
 package io.smallrye.faulttolerance;
 
-import java.time.Duration;
-import java.util.Arrays;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
@@ -24,27 +22,43 @@ import java.util.concurrent.atomic.AtomicReference;
 import org.eclipse.microprofile.faulttolerance.exceptions.FaultToleranceException;
 
 import io.smallrye.faulttolerance.config.RetryConfig;
+import io.smallrye.faulttolerance.config.RetryPolicy;
 
 public class RetryContext {
 
     private final RetryConfig config;
 
+    private final RetryPolicy policy;
+
     private final AtomicInteger remainingAttempts;
 
     private final AtomicReference<Boolean> shouldRetry = new AtomicReference<>();
 
     private final long start;
 
-    private final long maxDuration;
+    private final BackoffPolicy backoff;
+
+    private volatile int retries;
+
+    private volatile long lastDelay;
 
-    private final long delay;
+    private final RetryBudget budget;
 
-    RetryContext(RetryConfig config) {
+    /**
+     *
+     * @param config
+     * @param budget may be {@code null}
+     */
+    RetryContext(RetryConfig config, RetryBudget budget) {
         this.config = config;
+        this.policy = config.getPolicy();
         this.start = System.nanoTime();
-        this.remainingAttempts = new AtomicInteger(config.<Integer> get(RetryConfig.MAX_RETRIES));
-        this.maxDuration = Duration.of(config.get(RetryConfig.MAX_DURATION), config.get(RetryConfig.DURATION_UNIT)).toNanos();
-        this.delay = Duration.of(config.get(RetryConfig.DELAY), config.get(RetryConfig.DELAY_UNIT)).toMillis();
+        this.remainingAttempts = new AtomicInteger(policy.getMaxRetries());
+        this.backoff = new BackoffPolicy(policy);
+        this.budget = budget;
+        if (budget != null) {
+            budget.attemptStarted();
+        }
     }
 
     RetryConfig getConfig() {
@@ -57,12 +71,25 @@ public class RetryContext {
      * @return an exception to rethrow or null if we should try again
      */
     Exception nextRetry(Throwable throwable) {
+        Exception result = nextAsyncRetry(throwable);
+        return result != null ? result : delayIfNeeded();
+    }
+
+    /**
+     * Same as {@link #nextRetry(Throwable)} but does not wait for the delay. If the operation should be retried, the caller
+     * is responsible for scheduling the next attempt after {@link #nextDelay()} nanoseconds, so that no thread is blocked
+     * in the meantime.
+     *
+     * @param throwable
+     * @return an exception to rethrow or null if we should try again
+     */
+    Exception nextAsyncRetry(Throwable throwable) {
         // Decrement the retry count for this attempt
         // Check the exception type
         if (shouldRetryOn(throwable)) {
             shouldRetry.set(null);
             remainingAttempts.decrementAndGet();
-            return delayIfNeeded();
+            return null;
         } else {
             if (throwable instanceof Error) {
                 throw (Error) throwable;
@@ -88,28 +115,43 @@ public class RetryContext {
         if (retry == null) {
             retry = shouldRetry()
                     // The given exception should not abort execution
-                    && (config.getAbortOn().length == 0
-                            || Arrays.stream(config.getAbortOn()).noneMatch(ex -> ex.isAssignableFrom(exception.getClass())))
+                    && !policy.abortsOn(exception)
                     // We should retry on the given exception
                     && retryOn(exception)
                     // Once the duration is reached, no more retries should be performed
-                    && (System.nanoTime() - start <= maxDuration);
+                    && (System.nanoTime() - start <= policy.getMaxDurationNanos())
+                    // Must be the last condition, a retry is withdrawn from the budget
+                    && (budget == null || budget.tryAcquireRetry());
             retry = shouldRetry.compareAndSet(null, retry) ? retry : shouldRetry.get();
         }
         return retry;
     }
 
     private boolean retryOn(Throwable throwable) {
-        Class<?>[] retryOn = config.getRetryOn();
-        if (retryOn.length == 0) {
-            return false;
+        if (throwable == null) {
+            return policy.getRetryOnCount() == 1;
         }
-        if (retryOn.length == 1) {
-            Class<?> exceptionClass = retryOn[0];
+        return policy.retriesOn(throwable);
+    }
 
-            return throwable == null || exceptionClass.isAssignableFrom(throwable.getClass());
-        }
-        return Arrays.stream(retryOn).anyMatch(t -> t.isAssignableFrom(throwable.getClass()));
+    /**
+     *
+     * @return the delay in nanoseconds before the next attempt
+     */
+    long nextDelay() {
+        // only called by the thread that handles the failure of the previous attempt
+        int retry = ++retries;
+        long delay = backoff.nextDelayNanos(retry, lastDelay);
+        lastDelay = delay;
+        return delay;
+    }
+
+    /**
+     *
+     * @return the delay in nanoseconds before the last attempt, {@code 0} if not retried yet
+     */
+    public long getLastDelay() {
+        return lastDelay;
     }
 
     /**
@@ -117,10 +159,8 @@ public class RetryContext {
      * @return an exception to rethrow or null if we should try again
      */
     private Exception delayIfNeeded() {
-        long jitterBase = config.getJitter();
-        long jitter = (long) (Math.random() * ((jitterBase * 2) + 1)) - jitterBase; // random number between -jitter and +jitter
         try {
-            TimeUnit.MILLISECONDS.sleep(delay + Duration.of(jitter, config.getJitterDelayUnit()).toMillis());
+            TimeUnit.NANOSECONDS.sleep(nextDelay());
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             return e;
@@ -134,7 +174,7 @@ public class RetryContext {
     }
 
     public boolean hasBeenRetried() {
-        return remainingAttempts.get() < (config.<Integer> get(RetryConfig.MAX_RETRIES));
+        return remainingAttempts.get() < policy.getMaxRetries();
     }
 
     public void cancel() {
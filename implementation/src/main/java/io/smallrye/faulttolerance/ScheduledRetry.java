@@ -0,0 +1,86 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import rx.Observable;
+import rx.Scheduler;
+import rx.functions.Func1;
+
+/**
+ * A {@link Observable#retryWhen(Func1)} handler for asynchronous operations. Instead of sleeping, the next attempt is
+ * scheduled on the shared RxJava computation scheduler, so that no thread is occupied between attempts.
+ */
+final class ScheduledRetry implements Func1<Observable<? extends Throwable>, Observable<?>> {
+
+    private final RetryContext retryContext;
+
+    private final Function<Throwable, Throwable> retryCause;
+
+    private final Runnable retriesExhausted;
+
+    private final Scheduler attemptScheduler;
+
+    /**
+     *
+     * @param retryContext
+     * @param retryCause Extracts the failure to be matched against the retry configuration, or returns {@code null} if
+     *        the failure should never be retried
+     * @param retriesExhausted Invoked when a failure is propagated because no more retries are allowed
+     * @param attemptScheduler The scheduler the next attempt is subscribed on, may be {@code null} if subscribing on the
+     *        timer thread does not block
+     */
+    ScheduledRetry(RetryContext retryContext, Function<Throwable, Throwable> retryCause, Runnable retriesExhausted,
+            Scheduler attemptScheduler) {
+        this.retryContext = retryContext;
+        this.retryCause = retryCause;
+        this.retriesExhausted = retriesExhausted;
+        this.attemptScheduler = attemptScheduler;
+    }
+
+    @Override
+    public Observable<?> call(Observable<? extends Throwable> failures) {
+        return failures.flatMap(this::nextAttempt);
+    }
+
+    private Observable<?> nextAttempt(Throwable failure) {
+        if (!retryContext.shouldRetry()) {
+            retriesExhausted.run();
+            return Observable.error(failure);
+        }
+        Throwable cause = retryCause.apply(failure);
+        if (cause == null) {
+            return Observable.error(failure);
+        }
+        try {
+            if (retryContext.nextAsyncRetry(cause) != null) {
+                return Observable.error(failure);
+            }
+        } catch (Error e) {
+            return Observable.error(failure);
+        }
+        long delay = retryContext.nextDelay();
+        if (delay == 0) {
+            // the value here doesn't matter, it's just a signal to retry
+            return Observable.just(0L);
+        }
+        Observable<Long> timer = Observable.timer(delay, TimeUnit.NANOSECONDS);
+        return attemptScheduler != null ? timer.observeOn(attemptScheduler) : timer;
+    }
+
+}
@@ -16,10 +16,10 @@
 
 package io.smallrye.faulttolerance;
 
-import static io.smallrye.faulttolerance.config.CircuitBreakerConfig.FAIL_ON;
-
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 
@@ -31,6 +31,8 @@ import com.netflix.hystrix.HystrixCircuitBreaker;
 import com.netflix.hystrix.exception.HystrixTimeoutException;
 
 import io.smallrye.faulttolerance.config.FaultToleranceOperation;
+import io.smallrye.faulttolerance.timer.HashedWheelTimer;
+import io.smallrye.faulttolerance.timer.Watchdog;
 
 /**
  * @author Antoine Sabot-Durand
@@ -72,12 +74,35 @@ public class SimpleCommand extends BasicCommand {
             FaultToleranceOperation operation,
             Iterable<CommandListener> listeners,
             RetryContext retryContext) {
+        this(setter, ctx, fallback, operation, toArray(listeners), retryContext, null, 0);
+    }
+
+    /**
+     *
+     * @param setter Hystrix command setter
+     * @param ctx Execution context
+     * @param fallback Fallback
+     * @param operation Fault tolerance operation
+     * @param listeners Command listeners, {@code null} if there are no listeners
+     * @param timer Enforces the timeout on the calling thread, {@code null} if Hystrix enforces the timeout
+     * @param timeoutNanos Timeout enforced on the calling thread
+     */
+    protected SimpleCommand(Setter setter,
+            ExecutionContextWithInvocationContext ctx,
+            Supplier<Object> fallback,
+            FaultToleranceOperation operation,
+            CommandListener[] listeners,
+            RetryContext retryContext,
+            HashedWheelTimer timer,
+            long timeoutNanos) {
         super(setter);
         this.ctx = ctx;
         this.fallback = fallback;
         this.operation = operation;
         this.listeners = listeners;
         this.retryContext = retryContext;
+        this.timer = timer;
+        this.timeoutNanos = timeoutNanos;
     }
 
     @Override
@@ -86,21 +111,52 @@ public class SimpleCommand extends BasicCommand {
         if (canceled.get()) {
             return null;
         }
+        if (timer == null) {
+            return proceed();
+        }
+        Watchdog watchdog = new Watchdog();
+        watchdog.arm(timer, timeoutNanos);
+        Object result;
+        try {
+            result = proceed();
+        } catch (Throwable e) {
+            if (watchdog.disarm()) {
+                throw new TimeoutException(e);
+            }
+            throw e;
+        }
+        if (watchdog.disarm()) {
+            // TimeoutException should be thrown even if the execution completes normally
+            throw new TimeoutException(operation.getMethod().getName() + " timed out");
+        }
+        return result;
+    }
+
+    private Object proceed() throws Exception {
         if (listeners == null) {
             return ctx.proceed();
         }
         try {
-            for (CommandListener listener : listeners) {
-                listener.beforeExecution(operation);
+            for (int i = 0; i < listeners.length; i++) {
+                listeners[i].beforeExecution(operation);
             }
             return ctx.proceed();
         } finally {
-            for (CommandListener listener : listeners) {
-                listener.afterExecution(operation);
+            for (int i = 0; i < listeners.length; i++) {
+                listeners[i].afterExecution(operation);
             }
         }
     }
 
+    private static CommandListener[] toArray(Iterable<CommandListener> listeners) {
+        if (listeners == null) {
+            return null;
+        }
+        List<CommandListener> list = new ArrayList<>();
+        listeners.forEach(list::add);
+        return list.toArray(new CommandListener[0]);
+    }
+
     @Override
     protected Object getFallback() {
         if (fallback == null) {
@@ -139,13 +195,7 @@ public class SimpleCommand extends BasicCommand {
     }
 
     private boolean isFailureAssignableFromAnyFailureException(Throwable failure) {
-        Class<?>[] exceptions = operation.getCircuitBreaker().<Class<?>[]> get(FAIL_ON);
-        for (Class<?> exception : exceptions) {
-            if (exception.isAssignableFrom(failure.getClass())) {
-                return true;
-            }
-        }
-        return false;
+        return operation.getCircuitBreaker().getPolicy().failsOn(failure);
     }
 
     @Override
@@ -159,10 +209,14 @@ public class SimpleCommand extends BasicCommand {
 
     private final ExecutionContextWithInvocationContext ctx;
 
-    private final Iterable<CommandListener> listeners;
+    private final CommandListener[] listeners;
 
     private final RetryContext retryContext;
 
+    private final HashedWheelTimer timer;
+
+    private final long timeoutNanos;
+
     @Override
     FaultToleranceOperation getOperation() {
         return operation;
@@ -18,25 +18,30 @@ package io.smallrye.faulttolerance;
 import static io.smallrye.faulttolerance.SynchronousCircuitBreaker.Status.CLOSED;
 import static io.smallrye.faulttolerance.SynchronousCircuitBreaker.Status.HALF_OPEN;
 import static io.smallrye.faulttolerance.SynchronousCircuitBreaker.Status.OPEN;
-import static io.smallrye.faulttolerance.config.CircuitBreakerConfig.FAIL_ON;
 
-import java.time.Instant;
-import java.time.temporal.ChronoUnit;
-import java.util.LinkedList;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.jboss.logging.Logger;
 
 import com.netflix.hystrix.HystrixCircuitBreaker;
 
 import io.smallrye.faulttolerance.config.CircuitBreakerConfig;
+import io.smallrye.faulttolerance.config.CircuitBreakerPolicy;
 
 /**
  * This is an implementation of the HystrixCircuitBreaker that is expected to be used synchronously by the HystrixCommand
  * implementation to track the state of the circuit. This is needed for the current TCK tests as monitoring circuit state
  * in a background thread does not work with the TCK expectations.
+ * <p>
+ * The implementation is lock-free. The circuit state is an immutable snapshot swapped atomically on every transition. The
+ * rolling window of a CLOSED circuit is either count-based (a ring of bits with a running failure counter) or time-based
+ * (see {@link CircuitBreakerConfig#ROLLING_WINDOW_BUCKETS}).
+ * </p>
  *
  * @see HystrixCommandInterceptor#SYNC_CIRCUIT_BREAKER_KEY
  */
@@ -50,18 +55,13 @@ public class SynchronousCircuitBreaker implements HystrixCircuitBreaker {
         HALF_OPEN;
     }
 
-    SynchronousCircuitBreaker(CircuitBreakerConfig config) {
+    public SynchronousCircuitBreaker(CircuitBreakerConfig config) {
         this.config = config;
-        this.status = new AtomicReference<>(CLOSED);
-        this.circuitOpenedAt = new AtomicLong(-1);
-        this.successCount = new AtomicInteger(0);
-        this.halfOpenAttempts = new AtomicInteger(0);
         this.id = config.getMethodInfo();
         this.openTotal = new AtomicLong();
         this.halfOpenTotal = new AtomicLong();
         this.closedTotal = new AtomicLong();
-        this.lastStatusChangeAt = new AtomicLong(System.nanoTime());
-        this.rollingWindow = new LinkedList<>();
+        this.state = new AtomicReference<>(newState(CLOSED, System.nanoTime()));
     }
 
     @Override
@@ -75,74 +75,97 @@ public class SynchronousCircuitBreaker implements HystrixCircuitBreaker {
     }
 
     @Override
-    public synchronized boolean isOpen() {
-        return circuitOpenedAt.get() >= 0;
+    public boolean isOpen() {
+        return state.get().status != CLOSED;
     }
 
     @Override
-    public synchronized boolean allowRequest() {
+    public boolean allowRequest() {
         // Allow next request if:
         // 1. circuit is CLOSED
         // 2. circuit is OPEN and specified delay passed
         // 3. circuit is HALF_OPEN and next attempt is allowed
-        switch (status.get()) {
+        State current = state.get();
+        switch (current.status) {
             case CLOSED:
                 return true;
             case HALF_OPEN:
-                return isHalfOpenAttemptAllowed();
+                return current.halfOpenAttempts.get() < getSuccessThreshold();
             case OPEN:
-                return isAfterDelay();
+                return isAfterDelay(current);
             default:
                 return false;
         }
     }
 
     @Override
-    public synchronized boolean attemptExecution() {
+    public boolean attemptExecution() {
         // Allow next execution if:
         // 1. circuit is CLOSED
         // 2. circuit is HALF_OPEN and next attempt is allowed
         // 3. circuit is OPEN and specified delay passed - transition to HALF_OPEN
-        switch (status.get()) {
-            case CLOSED:
-                return true;
-            case HALF_OPEN:
-                if (isHalfOpenAttemptAllowed()) {
-                    halfOpenAttempts.incrementAndGet();
-                    return true;
-                }
-                return false;
-            case OPEN:
-                if (isAfterDelay()) {
-                    toHalfOpen();
+        while (true) {
+            State current = state.get();
+            switch (current.status) {
+                case CLOSED:
                     return true;
+                case HALF_OPEN:
+                    return tryHalfOpenAttempt(current);
+                case OPEN:
+                    if (!isAfterDelay(current)) {
+                        return false;
+                    }
+                    if (transition(current, HALF_OPEN)) {
+                        // The transition itself is not counted as a half-open attempt, so successThreshold more
+                        // attempts are allowed after it
+                        return true;
+                    }
+                    // Lost the race, try again with the new state
+                    break;
+                default:
+                    return false;
+            }
+        }
+    }
+
+    /**
+     *
+     * @return {@code true} if the circuit transitioned to OPEN as a result of this execution
+     */
+    public boolean executionSucceeded() {
+        State current = currentWindow(state.get());
+        switch (current.status) {
+            case HALF_OPEN:
+                // Transition to CLOSED if HALF_OPEN and successThreshold reached
+                if (current.halfOpenSuccesses.incrementAndGet() >= getSuccessThreshold()) {
+                    transition(current, CLOSED);
                 }
                 return false;
+            case CLOSED:
+                current.window.record(false);
+                // Transition to OPEN if CLOSED and failure threshold reached
+                return isFailureThresholdReached(current.window) && transition(current, OPEN);
             default:
                 return false;
         }
     }
 
-    synchronized void executionSucceeded() {
-        record(true);
-        successCount.incrementAndGet();
-        Status current = status.get();
-        if (HALF_OPEN == current && isSuccessThresholdReached()) {
-            // Transition to CLOSED if HALF_OPEN and successThreshold reached
-            toClosed();
-        } else if (CLOSED == current && isFailureThresholdReached()) {
-            // Transition to OPEN if CLOSED and failure threshold reached
-            toOpen(current);
-        }
-    }
-
-    synchronized void executionFailed() {
-        record(false);
-        Status current = status.get();
-        if (HALF_OPEN == current || (CLOSED == current && isFailureThresholdReached())) {
-            // Transition to OPEN if HALF_OPEN
-            // Transition to OPEN if CLOSED and failure threshold reached
-            toOpen(current);
+    /**
+     *
+     * @return {@code true} if the circuit transitioned to OPEN as a result of this execution
+     */
+    public boolean executionFailed() {
+        State current = currentWindow(state.get());
+        switch (current.status) {
+            case HALF_OPEN:
+                // Transition to OPEN if HALF_OPEN
+                return transition(current, OPEN);
+            case CLOSED:
+                current.window.record(true);
+                // Transition to OPEN if CLOSED and failure threshold reached
+                return isFailureThresholdReached(current.window) && transition(current, OPEN);
+            default:
+                return false;
         }
     }
 
@@ -159,136 +182,335 @@ public class SynchronousCircuitBreaker implements HystrixCircuitBreaker {
     }
 
     private long getTotalVal(Status status, long sum) {
-        return status.equals(this.status.get()) ? sum + (System.nanoTime() - lastStatusChangeAt.get()) : sum;
-    }
-
-    private void toClosed() {
-        LOGGER.debugf("HALF_OPEN >> CLOSED [id:%s]", id);
-        status.set(CLOSED);
-        circuitOpenedAt.set(-1);
-        long currentTime = System.nanoTime();
-        halfOpenTotal.addAndGet(currentTime - lastStatusChangeAt.getAndSet(currentTime));
-        reset();
+        State current = state.get();
+        return status == current.status ? sum + (System.nanoTime() - current.since) : sum;
     }
 
-    private void toOpen(Status current) {
-        LOGGER.debugf("%s >> OPEN [id:%s]", current, id);
-        status.set(OPEN);
-        circuitOpenedAt.set(System.currentTimeMillis());
-        long currentTime = System.nanoTime();
-        switch (current) {
+    /**
+     *
+     * @param current
+     * @param target
+     * @return {@code true} if this thread performed the transition
+     */
+    private boolean transition(State current, Status target) {
+        long now = System.nanoTime();
+        if (!state.compareAndSet(current, newState(target, now))) {
+            return false;
+        }
+        LOGGER.debugf("%s >> %s [id:%s]", current.status, target, id);
+        long elapsed = now - current.since;
+        switch (current.status) {
             case CLOSED:
-                closedTotal.addAndGet(currentTime - lastStatusChangeAt.getAndSet(currentTime));
+                closedTotal.addAndGet(elapsed);
+                break;
+            case OPEN:
+                openTotal.addAndGet(elapsed);
                 break;
             case HALF_OPEN:
-                halfOpenTotal.addAndGet(currentTime - lastStatusChangeAt.getAndSet(currentTime));
+                halfOpenTotal.addAndGet(elapsed);
                 break;
             default:
                 break;
         }
-        reset();
+        return true;
+    }
+
+    private State newState(Status status, long now) {
+        switch (status) {
+            case CLOSED:
+                return new State(CLOSED, now, newRollingWindow());
+            default:
+                return new State(status, now, null);
+        }
     }
 
-    private void toHalfOpen() {
-        LOGGER.debugf("OPEN >> HALF_OPEN [id:%s]", id);
-        status.set(HALF_OPEN);
-        halfOpenAttempts.set(1);
-        long currentTime = System.nanoTime();
-        openTotal.addAndGet(currentTime - lastStatusChangeAt.getAndSet(currentTime));
-        reset();
+    /**
+     * The rolling window is sized by the policy, so a CLOSED circuit starts a new window once the policy is replaced
+     * with one that needs a different window.
+     *
+     * @param current
+     * @return the state to record the outcome in
+     */
+    private State currentWindow(State current) {
+        if (current.status != CLOSED || current.window.fits(config.getPolicy())) {
+            return current;
+        }
+        // The time spent in CLOSED is not interrupted
+        State resized = new State(CLOSED, current.since, newRollingWindow());
+        return state.compareAndSet(current, resized) ? resized : state.get();
     }
 
-    private boolean isAfterDelay() {
-        long openedAt = circuitOpenedAt.get();
-        long delay = config.get(CircuitBreakerConfig.DELAY);
-        if (delay == 0) {
-            return true;
+    private boolean tryHalfOpenAttempt(State current) {
+        int successThreshold = getSuccessThreshold();
+        while (true) {
+            int attempts = current.halfOpenAttempts.get();
+            if (attempts >= successThreshold) {
+                return false;
+            }
+            if (current.halfOpenAttempts.compareAndSet(attempts, attempts + 1)) {
+                return true;
+            }
         }
-        ChronoUnit delayUnit = config.get(CircuitBreakerConfig.DELAY_UNIT);
-        long elapsed;
-        if (delayUnit.equals(ChronoUnit.MILLIS)) {
-            elapsed = System.currentTimeMillis() - openedAt;
-        } else {
-            Instant start = Instant.ofEpochMilli(openedAt);
-            Instant now = Instant.now();
-            elapsed = delayUnit.between(start, now);
+    }
+
+    private boolean isAfterDelay(State current) {
+        long delayNanos = config.getPolicy().getDelayNanos();
+        return delayNanos == 0 || System.nanoTime() - current.since >= delayNanos;
+    }
+
+    private RollingWindow newRollingWindow() {
+        CircuitBreakerPolicy policy = config.getPolicy();
+        if (policy.getRollingWindowBuckets() > 0) {
+            return new TimeRollingWindow(policy.getRollingWindowBuckets(), policy.getRollingWindowBucketNanos());
         }
-        return elapsed >= delay;
+        return new CountRollingWindow(policy.getRequestVolumeThreshold());
+    }
+
+    private boolean isFailureThresholdReached(RollingWindow window) {
+        CircuitBreakerPolicy policy = config.getPolicy();
+        return window.isFailureThresholdReached(policy.getRequestVolumeThreshold(), policy.getFailureRatio());
     }
 
-    private boolean isFailureThresholdReached() {
-        int requestCount = rollingWindow.size();
-        if (!isRequestVolumeThresholdReached(requestCount)) {
+    private static boolean isFailureThresholdReached(long requestCount, long failureCount, int requestVolumeThreshold,
+            double failureRatio) {
+        if (requestCount < requestVolumeThreshold) {
             return false;
         }
-        double failureCheck = getFailureCount() / (double) requestCount;
-        double failureRatio = config.get(CircuitBreakerConfig.FAILURE_RATIO);
+        double failureCheck = failureCount / (double) requestCount;
         return (failureCheck >= failureRatio) || (failureRatio <= 0 && failureCheck == 1);
     }
 
-    private boolean isRequestVolumeThresholdReached(int requestCount) {
-        return requestCount >= config.<Integer> get(CircuitBreakerConfig.REQUEST_VOLUME_THRESHOLD);
+    private int getSuccessThreshold() {
+        return config.getPolicy().getSuccessThreshold();
     }
 
-    private boolean isSuccessThresholdReached() {
-        return successCount.get() >= config.get(CircuitBreakerConfig.SUCCESS_THRESHOLD, Integer.class);
+    public boolean failsOn(Throwable throwable) {
+        return config.getPolicy().failsOn(throwable);
     }
 
-    private boolean isHalfOpenAttemptAllowed() {
-        return halfOpenAttempts.get() < config.get(CircuitBreakerConfig.SUCCESS_THRESHOLD, Integer.class);
+    private final AtomicReference<State> state;
+
+    private final CircuitBreakerConfig config;
+
+    private final String id;
+
+    private final AtomicLong openTotal;
+    private final AtomicLong halfOpenTotal;
+    private final AtomicLong closedTotal;
+
+    /**
+     * An immutable snapshot of the circuit. Every transition replaces the whole snapshot, which also resets the rolling
+     * window and the half-open counters.
+     */
+    private static final class State {
+
+        final Status status;
+
+        // System.nanoTime() of the transition to this state
+        final long since;
+
+        // Only used if CLOSED
+        final RollingWindow window;
+
+        // Only used if HALF_OPEN
+        final AtomicInteger halfOpenAttempts;
+        final AtomicInteger halfOpenSuccesses;
+
+        State(Status status, long since, RollingWindow window) {
+            this.status = status;
+            this.since = since;
+            this.window = window;
+            this.halfOpenAttempts = new AtomicInteger();
+            this.halfOpenSuccesses = new AtomicInteger();
+        }
+
     }
 
-    private void reset() {
-        successCount.set(0);
-        halfOpenAttempts.set(0);
-        rollingWindow.clear();
+    private interface RollingWindow {
+
+        void record(boolean failure);
+
+        boolean isFailureThresholdReached(int requestVolumeThreshold, double failureRatio);
+
+        /**
+         *
+         * @param policy
+         * @return {@code true} if the window is what {@link SynchronousCircuitBreaker#newRollingWindow()} creates for the
+         *         given policy
+         */
+        boolean fits(CircuitBreakerPolicy policy);
+
     }
 
-    private int getFailureCount() {
-        int count = 0;
-        for (Boolean result : rollingWindow) {
-            if (result) {
-                count++;
+    /**
+     * A ring of the last {@code size} outcomes, one bit per outcome (failure = 1). The failure counter is updated whenever
+     * a bit actually flips, so it always matches the ring contents.
+     */
+    private static final class CountRollingWindow implements RollingWindow {
+
+        private final int size;
+
+        private final AtomicLongArray bits;
+
+        private final AtomicLong recorded = new AtomicLong();
+
+        private final AtomicInteger failures = new AtomicInteger();
+
+        CountRollingWindow(int size) {
+            this.size = Math.max(size, 1);
+            this.bits = new AtomicLongArray((this.size + 63) >>> 6);
+        }
+
+        @Override
+        public void record(boolean failure) {
+            int slot = (int) (recorded.getAndIncrement() % size);
+            int word = slot >>> 6;
+            long mask = 1L << (slot & 63);
+            while (true) {
+                long current = bits.get(word);
+                boolean wasFailure = (current & mask) != 0;
+                if (wasFailure == failure) {
+                    return;
+                }
+                if (bits.compareAndSet(word, current, failure ? current | mask : current & ~mask)) {
+                    failures.addAndGet(failure ? 1 : -1);
+                    return;
+                }
             }
         }
-        return count;
-    }
 
-    private void record(boolean requestResult) {
-        rollingWindow.addFirst(!requestResult);
-        if (rollingWindow.size() > config.<Integer> get(CircuitBreakerConfig.REQUEST_VOLUME_THRESHOLD)) {
-            rollingWindow.removeLast();
+        @Override
+        public boolean isFailureThresholdReached(int requestVolumeThreshold, double failureRatio) {
+            return SynchronousCircuitBreaker.isFailureThresholdReached(Math.min(recorded.get(), size), failures.get(),
+                    requestVolumeThreshold, failureRatio);
         }
+
+        @Override
+        public boolean fits(CircuitBreakerPolicy policy) {
+            return policy.getRollingWindowBuckets() <= 0 && size == Math.max(policy.getRequestVolumeThreshold(), 1);
+        }
+
     }
 
-    public boolean failsOn(Throwable throwable) {
-        Class<?>[] exceptions = config.get(FAIL_ON);
-        for (Class<?> exception : exceptions) {
-            if (exception.isAssignableFrom(throwable.getClass())) {
-                return true;
+    /**
+     * Outcomes recorded in {@code size} buckets of {@code bucketNanos} each. A bucket is reused once it falls out of the
+     * window, the counters of a bucket are striped so that concurrent outcomes do not contend. The totals of the other
+     * buckets are only summed when a bucket rolls and kept in the new bucket, so checking the threshold does not depend
+     * on the number of buckets. An outcome recorded into an older bucket after the roll is counted from the next roll.
+     */
+    private static final class TimeRollingWindow implements RollingWindow {
+
+        private final long bucketNanos;
+
+        private final AtomicReferenceArray<Bucket> buckets;
+
+        TimeRollingWindow(int size, long bucketNanos) {
+            this.bucketNanos = Math.max(bucketNanos, 1);
+            this.buckets = new AtomicReferenceArray<>(size);
+        }
+
+        @Override
+        public void record(boolean failure) {
+            long epoch = Math.floorDiv(System.nanoTime(), bucketNanos);
+            int slot = slot(epoch);
+            while (true) {
+                Bucket bucket = buckets.get(slot);
+                if (bucket != null && bucket.epoch >= epoch) {
+                    // A bucket from the future may only be seen by a thread delayed after reading the time
+                    bucket.record(failure);
+                    return;
+                }
+                long oldestEpoch = epoch - buckets.length() + 1;
+                Bucket fresh = new Bucket(epoch, countRequests(oldestEpoch, epoch - 1),
+                        countFailures(oldestEpoch, epoch - 1));
+                if (buckets.compareAndSet(slot, bucket, fresh)) {
+                    fresh.record(failure);
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public boolean isFailureThresholdReached(int requestVolumeThreshold, double failureRatio) {
+            long epoch = Math.floorDiv(System.nanoTime(), bucketNanos);
+            Bucket bucket = buckets.get(slot(epoch));
+            long requestCount;
+            long failureCount;
+            if (bucket != null && bucket.epoch == epoch) {
+                long failures = bucket.failures.sum();
+                requestCount = bucket.previousRequests + failures + bucket.successes.sum();
+                failureCount = bucket.previousFailures + failures;
+            } else {
+                // Nothing recorded in the current bucket yet, the time moved on since the outcome was recorded
+                long oldestEpoch = epoch - buckets.length() + 1;
+                requestCount = countRequests(oldestEpoch, epoch);
+                failureCount = countFailures(oldestEpoch, epoch);
+            }
+            return SynchronousCircuitBreaker.isFailureThresholdReached(requestCount, failureCount, requestVolumeThreshold,
+                    failureRatio);
+        }
+
+        @Override
+        public boolean fits(CircuitBreakerPolicy policy) {
+            return buckets.length() == policy.getRollingWindowBuckets()
+                    && bucketNanos == Math.max(policy.getRollingWindowBucketNanos(), 1);
+        }
+
+        private int slot(long epoch) {
+            return (int) Math.floorMod(epoch, buckets.length());
+        }
+
+        private long countRequests(long fromEpoch, long toEpoch) {
+            long count = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                Bucket bucket = buckets.get(i);
+                if (bucket != null && bucket.epoch >= fromEpoch && bucket.epoch <= toEpoch) {
+                    count += bucket.failures.sum() + bucket.successes.sum();
+                }
             }
+            return count;
         }
-        return false;
+
+        private long countFailures(long fromEpoch, long toEpoch) {
+            long count = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                Bucket bucket = buckets.get(i);
+                if (bucket != null && bucket.epoch >= fromEpoch && bucket.epoch <= toEpoch) {
+                    count += bucket.failures.sum();
+                }
+            }
+            return count;
+        }
+
     }
 
-    private final AtomicReference<Status> status;
+    private static final class Bucket {
 
-    private final AtomicLong circuitOpenedAt;
+        final long epoch;
 
-    private final CircuitBreakerConfig config;
+        // Totals of the other buckets of the window when this bucket was created
+        final long previousRequests;
 
-    private final AtomicInteger successCount;
+        final long previousFailures;
 
-    private final AtomicInteger halfOpenAttempts;
+        final LongAdder successes = new LongAdder();
 
-    // failure = true, success = false
-    private final LinkedList<Boolean> rollingWindow;
+        final LongAdder failures = new LongAdder();
 
-    private final String id;
+        Bucket(long epoch, long previousRequests, long previousFailures) {
+            this.epoch = epoch;
+            this.previousRequests = previousRequests;
+            this.previousFailures = previousFailures;
+        }
 
-    private final AtomicLong lastStatusChangeAt;
-    private final AtomicLong openTotal;
-    private final AtomicLong halfOpenTotal;
-    private final AtomicLong closedTotal;
+        void record(boolean failure) {
+            if (failure) {
+                failures.increment();
+            } else {
+                successes.increment();
+            }
+        }
+
+    }
 
 }
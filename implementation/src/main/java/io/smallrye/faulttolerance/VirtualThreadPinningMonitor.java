@@ -0,0 +1,239 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.jboss.logging.Logger;
+
+import io.smallrye.faulttolerance.metrics.MetricsRecorder;
+
+/**
+ * Reports virtual threads that are pinned to their carrier thread while executing a fault tolerance operation, for
+ * example because the operation blocks while a native frame is on the stack, or inside a {@code synchronized} block
+ * before Java 24. Such an operation occupies a carrier thread and limits the throughput of all virtual threads.
+ * <p>
+ * The monitor consumes the {@code jdk.VirtualThreadPinned} JFR event, which is emitted if a virtual thread is pinned for
+ * longer than 20 ms. The JFR API is looked up reflectively because the code is compiled for Java 8. The first pinning
+ * of each operation is logged as a warning together with the stack trace, and every pinning is counted by the
+ * {@code ft.<method>.virtualThread.pinned.total} metric. Operations are matched by the full method signature, so
+ * overloaded methods are reported separately.
+ * </p>
+ *
+ * @see HystrixCommandInterceptor#VIRTUAL_THREADS_KEY
+ */
+@ApplicationScoped
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger LOGGER = Logger.getLogger(VirtualThreadPinningMonitor.class);
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final ConcurrentMap<String, Registration> operations = new ConcurrentHashMap<>();
+
+    private volatile AutoCloseable stream;
+
+    @PostConstruct
+    void init() {
+        if (ConfigProvider.getConfig().getOptionalValue(HystrixCommandInterceptor.VIRTUAL_THREADS_KEY, Boolean.class)
+                .orElse(false) && VirtualThreads.isSupported()) {
+            start();
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        AutoCloseable stream = this.stream;
+        if (stream != null) {
+            this.stream = null;
+            try {
+                stream.close();
+            } catch (Exception e) {
+                LOGGER.debug("Unable to close the JFR stream", e);
+            }
+        }
+    }
+
+    /**
+     * Pinning is only reported for registered methods. Does nothing unless the monitor is started.
+     *
+     * @param method the method of a fault tolerance operation
+     * @param metrics
+     */
+    public void register(Method method, MetricsRecorder metrics) {
+        if (stream != null) {
+            operations.putIfAbsent(key(method.getDeclaringClass().getName(), method.getName(), descriptor(method)),
+                    new Registration(metrics));
+        }
+    }
+
+    void start() {
+        try {
+            Class<?> recordingStream = Class.forName("jdk.jfr.consumer.RecordingStream");
+            Object stream = recordingStream.getConstructor().newInstance();
+            Object settings = recordingStream.getMethod("enable", String.class).invoke(stream, PINNED_EVENT);
+            Class.forName("jdk.jfr.EventSettings").getMethod("withStackTrace").invoke(settings);
+            JfrAccessors accessors = new JfrAccessors();
+            Consumer<Object> consumer = event -> onPinned(accessors, event);
+            recordingStream.getMethod("onEvent", String.class, Consumer.class).invoke(stream, PINNED_EVENT, consumer);
+            recordingStream.getMethod("startAsync").invoke(stream);
+            this.stream = (AutoCloseable) stream;
+            LOGGER.debug("Virtual thread pinning monitor started");
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOGGER.warn("Unable to monitor pinning of virtual threads, JFR is not available", e);
+        }
+    }
+
+    boolean isStarted() {
+        return stream != null;
+    }
+
+    private void onPinned(JfrAccessors jfr, Object event) {
+        try {
+            Object stackTrace = jfr.eventStackTrace.invoke(event);
+            if (stackTrace == null) {
+                return;
+            }
+            List<?> frames = (List<?>) jfr.stackTraceFrames.invoke(stackTrace);
+            // frames are ordered from the top of the stack, the innermost operation wins
+            for (Object frame : frames) {
+                Object method = jfr.frameMethod.invoke(frame);
+                Object type = jfr.methodType.invoke(method);
+                String key = key((String) jfr.className.invoke(type), (String) jfr.methodName.invoke(method),
+                        (String) jfr.methodDescriptor.invoke(method));
+                Registration registration = operations.get(key);
+                if (registration != null) {
+                    registration.metrics.virtualThreadPinned();
+                    if (registration.reported.compareAndSet(false, true)) {
+                        Duration duration = (Duration) jfr.eventDuration.invoke(event);
+                        LOGGER.warnf("Virtual thread pinned to its carrier thread for %s ms in %s, further pinning of this "
+                                + "operation is only counted%n%s", duration.toMillis(), key, stackTrace);
+                    }
+                    return;
+                }
+            }
+        } catch (ReflectiveOperationException e) {
+            LOGGER.debug("Unable to process " + PINNED_EVENT, e);
+        }
+    }
+
+    private static String key(String className, String methodName, String descriptor) {
+        return className + "#" + methodName + descriptor;
+    }
+
+    /**
+     *
+     * @param method
+     * @return the JVM method descriptor, as returned by {@code RecordedMethod.getDescriptor()}
+     */
+    static String descriptor(Method method) {
+        StringBuilder descriptor = new StringBuilder("(");
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            appendDescriptor(descriptor, parameterType);
+        }
+        descriptor.append(')');
+        appendDescriptor(descriptor, method.getReturnType());
+        return descriptor.toString();
+    }
+
+    private static void appendDescriptor(StringBuilder descriptor, Class<?> type) {
+        while (type.isArray()) {
+            descriptor.append('[');
+            type = type.getComponentType();
+        }
+        if (type == void.class) {
+            descriptor.append('V');
+        } else if (type == boolean.class) {
+            descriptor.append('Z');
+        } else if (type == byte.class) {
+            descriptor.append('B');
+        } else if (type == char.class) {
+            descriptor.append('C');
+        } else if (type == short.class) {
+            descriptor.append('S');
+        } else if (type == int.class) {
+            descriptor.append('I');
+        } else if (type == long.class) {
+            descriptor.append('J');
+        } else if (type == float.class) {
+            descriptor.append('F');
+        } else if (type == double.class) {
+            descriptor.append('D');
+        } else {
+            descriptor.append('L').append(type.getName().replace('.', '/')).append(';');
+        }
+    }
+
+    /**
+     * The accessors of the JFR consumer API, resolved once when the monitor starts.
+     */
+    private static final class JfrAccessors {
+
+        private final Method eventStackTrace;
+
+        private final Method eventDuration;
+
+        private final Method stackTraceFrames;
+
+        private final Method frameMethod;
+
+        private final Method methodType;
+
+        private final Method methodName;
+
+        private final Method methodDescriptor;
+
+        private final Method className;
+
+        JfrAccessors() throws ReflectiveOperationException {
+            Class<?> recordedEvent = Class.forName("jdk.jfr.consumer.RecordedEvent");
+            Class<?> recordedMethod = Class.forName("jdk.jfr.consumer.RecordedMethod");
+            eventStackTrace = recordedEvent.getMethod("getStackTrace");
+            eventDuration = recordedEvent.getMethod("getDuration");
+            stackTraceFrames = Class.forName("jdk.jfr.consumer.RecordedStackTrace").getMethod("getFrames");
+            frameMethod = Class.forName("jdk.jfr.consumer.RecordedFrame").getMethod("getMethod");
+            methodType = recordedMethod.getMethod("getType");
+            methodName = recordedMethod.getMethod("getName");
+            methodDescriptor = recordedMethod.getMethod("getDescriptor");
+            className = Class.forName("jdk.jfr.consumer.RecordedClass").getMethod("getName");
+        }
+
+    }
+
+    private static final class Registration {
+
+        private final MetricsRecorder metrics;
+
+        private final AtomicBoolean reported = new AtomicBoolean();
+
+        Registration(MetricsRecorder metrics) {
+            this.metrics = metrics;
+        }
+
+    }
+
+}
@@ -19,6 +19,7 @@ import java.lang.reflect.Method;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 
 import javax.enterprise.inject.spi.AnnotatedMethod;
 
@@ -42,6 +43,22 @@ public class BulkheadConfig extends GenericConfig<Bulkhead> {
         super(Bulkhead.class, annotatedMethod);
     }
 
+    /**
+     *
+     * @return the compiled bulkhead size and queue size
+     */
+    public BulkheadPolicy getPolicy() {
+        return getPolicy(() -> new BulkheadPolicy(this));
+    }
+
+    /**
+     *
+     * @param policy replaces the bulkhead size and queue size at runtime
+     */
+    public void setPolicy(BulkheadPolicy policy) {
+        super.setPolicy(Objects.requireNonNull(policy));
+    }
+
     @Override
     public void validate() {
         if (get(VALUE, Integer.class) < 0) {
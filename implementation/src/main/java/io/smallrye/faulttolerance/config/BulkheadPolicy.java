@@ -0,0 +1,59 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.config;
+
+/**
+ * Immutable, compiled form of a {@link BulkheadConfig}.
+ *
+ * @see BulkheadConfig#getPolicy()
+ */
+public final class BulkheadPolicy {
+
+    private final int size;
+
+    private final int queueSize;
+
+    BulkheadPolicy(BulkheadConfig config) {
+        this(config.<Integer> get(BulkheadConfig.VALUE), config.<Integer> get(BulkheadConfig.WAITING_TASK_QUEUE));
+    }
+
+    public BulkheadPolicy(int size, int queueSize) {
+        this.size = size;
+        this.queueSize = queueSize;
+    }
+
+    /**
+     *
+     * @return the maximum number of concurrent executions
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     *
+     * @return the maximum number of waiting asynchronous executions
+     */
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkheadPolicy [size=" + size + ", queueSize=" + queueSize + "]";
+    }
+
+}
@@ -20,6 +20,7 @@ import java.time.temporal.ChronoUnit;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 
 import javax.enterprise.inject.spi.AnnotatedMethod;
 
@@ -48,6 +49,26 @@ public class CircuitBreakerConfig extends GenericConfig<CircuitBreaker> {
 
     public static final String SYNCHRONOUS_STATE_VALIDATION = "synchronousStateValidation";
 
+    /**
+     * The number of buckets of a time-based rolling window. This key is not a member of {@link CircuitBreaker} and can only
+     * be set through MicroProfile Config, e.g. {@code com.acme.Service/ping/CircuitBreaker/rollingWindowBuckets=10}. The
+     * default value {@code 0} means that the rolling window is count-based, i.e. it holds the outcomes of the last
+     * {@link #REQUEST_VOLUME_THRESHOLD} executions.
+     * <p>
+     * If set to a positive value, the rolling window holds the outcomes of executions completed during the last
+     * {@code rollingWindowBuckets * rollingWindowBucketDuration} milliseconds and the circuit opens once there were at least
+     * {@link #REQUEST_VOLUME_THRESHOLD} executions in the window and the failure ratio is reached.
+     * </p>
+     */
+    public static final String ROLLING_WINDOW_BUCKETS = "rollingWindowBuckets";
+
+    /**
+     * The duration of a single bucket of a time-based rolling window in milliseconds, {@code 1000} by default.
+     *
+     * @see #ROLLING_WINDOW_BUCKETS
+     */
+    public static final String ROLLING_WINDOW_BUCKET_DURATION = "rollingWindowBucketDuration";
+
     private static final Logger LOGGER = Logger.getLogger(CircuitBreakerConfig.class);
 
     public CircuitBreakerConfig(Class<?> beanClass, Method method) {
@@ -58,6 +79,22 @@ public class CircuitBreakerConfig extends GenericConfig<CircuitBreaker> {
         super(CircuitBreaker.class, annotatedMethod);
     }
 
+    /**
+     *
+     * @return the compiled circuit breaker policy, the delay and the rolling window converted to nanoseconds
+     */
+    public CircuitBreakerPolicy getPolicy() {
+        return getPolicy(() -> new CircuitBreakerPolicy(this));
+    }
+
+    /**
+     *
+     * @param policy replaces the circuit breaker policy at runtime
+     */
+    public void setPolicy(CircuitBreakerPolicy policy) {
+        super.setPolicy(Objects.requireNonNull(policy));
+    }
+
     @Override
     public void validate() {
         if (get(DELAY, Long.class) < 0) {
@@ -77,6 +114,14 @@ public class CircuitBreakerConfig extends GenericConfig<CircuitBreaker> {
             throw new FaultToleranceDefinitionException(
                     INVALID_CIRCUIT_BREAKER_ON + getMethodInfo() + " : successThreshold shouldn't be lower than 1");
         }
+        if (get(ROLLING_WINDOW_BUCKETS, Integer.class) < 0) {
+            throw new FaultToleranceDefinitionException(
+                    INVALID_CIRCUIT_BREAKER_ON + getMethodInfo() + " : rollingWindowBuckets shouldn't be lower than 0");
+        }
+        if (get(ROLLING_WINDOW_BUCKET_DURATION, Long.class) < 1) {
+            throw new FaultToleranceDefinitionException(
+                    INVALID_CIRCUIT_BREAKER_ON + getMethodInfo() + " : rollingWindowBucketDuration shouldn't be lower than 1");
+        }
         if (!getConfig().getOptionalValue(HystrixCommandInterceptor.SYNC_CIRCUIT_BREAKER_KEY, Boolean.class).orElse(true)
                 && successThreshold > 1) {
             LOGGER.warnf("Synchronous circuit breaker disabled - successThreshold of value greater than 1 is not supported: "
@@ -89,6 +134,11 @@ public class CircuitBreakerConfig extends GenericConfig<CircuitBreaker> {
         return keys2Type;
     }
 
+    @Override
+    protected Map<String, Object> getDefaults() {
+        return defaults;
+    }
+
     private static final String INVALID_CIRCUIT_BREAKER_ON = "Invalid CircuitBreaker on ";
 
     private static Map<String, Class<?>> keys2Type = initKeys();
@@ -102,7 +152,18 @@ public class CircuitBreakerConfig extends GenericConfig<CircuitBreaker> {
         keys.put(REQUEST_VOLUME_THRESHOLD, Integer.class);
         keys.put(SUCCESS_THRESHOLD, Integer.class);
         keys.put(SYNCHRONOUS_STATE_VALIDATION, Boolean.class);
+        keys.put(ROLLING_WINDOW_BUCKETS, Integer.class);
+        keys.put(ROLLING_WINDOW_BUCKET_DURATION, Long.class);
         return Collections.unmodifiableMap(keys);
     }
 
+    private static Map<String, Object> defaults = initDefaults();
+
+    private static Map<String, Object> initDefaults() {
+        Map<String, Object> defaults = new HashMap<>();
+        defaults.put(ROLLING_WINDOW_BUCKETS, 0);
+        defaults.put(ROLLING_WINDOW_BUCKET_DURATION, 1000L);
+        return Collections.unmodifiableMap(defaults);
+    }
+
 }
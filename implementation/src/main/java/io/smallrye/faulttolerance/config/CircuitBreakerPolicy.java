@@ -0,0 +1,127 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.config;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Immutable, compiled form of a {@link CircuitBreakerConfig}. Durations are converted to nanoseconds.
+ *
+ * @see CircuitBreakerConfig#getPolicy()
+ */
+public final class CircuitBreakerPolicy {
+
+    private final long delayNanos;
+
+    private final Class<?>[] failOn;
+
+    private final double failureRatio;
+
+    private final int requestVolumeThreshold;
+
+    private final int successThreshold;
+
+    private final int rollingWindowBuckets;
+
+    private final long rollingWindowBucketNanos;
+
+    CircuitBreakerPolicy(CircuitBreakerConfig config) {
+        this(Duration.of(config.get(CircuitBreakerConfig.DELAY), config.get(CircuitBreakerConfig.DELAY_UNIT)).toNanos(),
+                config.get(CircuitBreakerConfig.FAIL_ON),
+                config.<Double> get(CircuitBreakerConfig.FAILURE_RATIO),
+                config.<Integer> get(CircuitBreakerConfig.REQUEST_VOLUME_THRESHOLD),
+                config.<Integer> get(CircuitBreakerConfig.SUCCESS_THRESHOLD),
+                config.<Integer> get(CircuitBreakerConfig.ROLLING_WINDOW_BUCKETS),
+                TimeUnit.MILLISECONDS.toNanos(config.<Long> get(CircuitBreakerConfig.ROLLING_WINDOW_BUCKET_DURATION)));
+    }
+
+    public CircuitBreakerPolicy(long delayNanos, Class<?>[] failOn, double failureRatio, int requestVolumeThreshold,
+            int successThreshold, int rollingWindowBuckets, long rollingWindowBucketNanos) {
+        this.delayNanos = delayNanos;
+        this.failOn = failOn.clone();
+        this.failureRatio = failureRatio;
+        this.requestVolumeThreshold = requestVolumeThreshold;
+        this.successThreshold = successThreshold;
+        this.rollingWindowBuckets = rollingWindowBuckets;
+        this.rollingWindowBucketNanos = rollingWindowBucketNanos;
+    }
+
+    /**
+     *
+     * @return a copy of this policy with the given values, {@code null} values are not changed
+     */
+    public CircuitBreakerPolicy with(Long delayNanos, Double failureRatio, Integer requestVolumeThreshold,
+            Integer successThreshold) {
+        return new CircuitBreakerPolicy(delayNanos != null ? delayNanos : this.delayNanos, failOn,
+                failureRatio != null ? failureRatio : this.failureRatio,
+                requestVolumeThreshold != null ? requestVolumeThreshold : this.requestVolumeThreshold,
+                successThreshold != null ? successThreshold : this.successThreshold,
+                rollingWindowBuckets, rollingWindowBucketNanos);
+    }
+
+    public long getDelayNanos() {
+        return delayNanos;
+    }
+
+    public double getFailureRatio() {
+        return failureRatio;
+    }
+
+    public int getRequestVolumeThreshold() {
+        return requestVolumeThreshold;
+    }
+
+    public int getSuccessThreshold() {
+        return successThreshold;
+    }
+
+    /**
+     *
+     * @return the number of buckets of a time-based rolling window, {@code 0} if the rolling window is count-based
+     * @see CircuitBreakerConfig#ROLLING_WINDOW_BUCKETS
+     */
+    public int getRollingWindowBuckets() {
+        return rollingWindowBuckets;
+    }
+
+    public long getRollingWindowBucketNanos() {
+        return rollingWindowBucketNanos;
+    }
+
+    /**
+     *
+     * @param throwable
+     * @return {@code true} if the given failure is counted as a failure of the circuit breaker
+     */
+    public boolean failsOn(Throwable throwable) {
+        for (Class<?> exception : failOn) {
+            if (exception.isInstance(throwable)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreakerPolicy [delayNanos=" + delayNanos + ", failureRatio=" + failureRatio
+                + ", requestVolumeThreshold=" + requestVolumeThreshold + ", successThreshold=" + successThreshold
+                + ", rollingWindowBuckets=" + rollingWindowBuckets + ", rollingWindowBucketNanos="
+                + rollingWindowBucketNanos + "]";
+    }
+
+}
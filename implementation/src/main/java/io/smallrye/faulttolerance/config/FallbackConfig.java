@@ -46,6 +46,14 @@ public class FallbackConfig extends GenericConfig<Fallback> {
         super(Fallback.class, annotatedMethod);
     }
 
+    /**
+     *
+     * @return the compiled policy, either a fallback handler class or a fallback method name
+     */
+    public FallbackPolicy getPolicy() {
+        return getPolicy(() -> new FallbackPolicy(this));
+    }
+
     @Override
     public void validate() {
         if (!"".equals(get(FALLBACK_METHOD))) {
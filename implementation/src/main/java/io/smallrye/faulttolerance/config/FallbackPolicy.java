@@ -0,0 +1,65 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.config;
+
+import org.eclipse.microprofile.faulttolerance.Fallback;
+import org.eclipse.microprofile.faulttolerance.FallbackHandler;
+
+/**
+ * Immutable, compiled form of a {@link FallbackConfig}.
+ *
+ * @see FallbackConfig#getPolicy()
+ */
+public final class FallbackPolicy {
+
+    private final Class<? extends FallbackHandler<?>> handler;
+
+    private final String fallbackMethod;
+
+    FallbackPolicy(FallbackConfig config) {
+        Class<? extends FallbackHandler<?>> handler = config.get(FallbackConfig.VALUE);
+        String fallbackMethod = config.get(FallbackConfig.FALLBACK_METHOD);
+        if (Fallback.DEFAULT.class.equals(handler)) {
+            this.handler = null;
+            this.fallbackMethod = "".equals(fallbackMethod) ? null : fallbackMethod;
+        } else {
+            this.handler = handler;
+            this.fallbackMethod = null;
+        }
+    }
+
+    /**
+     *
+     * @return the fallback handler class or {@code null} if the fallback is not a handler
+     */
+    public Class<? extends FallbackHandler<?>> getHandler() {
+        return handler;
+    }
+
+    /**
+     *
+     * @return the name of the fallback method or {@code null} if the fallback is not a method
+     */
+    public String getFallbackMethod() {
+        return fallbackMethod;
+    }
+
+    @Override
+    public String toString() {
+        return "FallbackPolicy [handler=" + handler + ", fallbackMethod=" + fallbackMethod + "]";
+    }
+
+}
@@ -171,7 +171,8 @@ public class FaultToleranceOperation {
     }
 
     /**
-     * Throws {@link FaultToleranceDefinitionException} if validation fails.
+     * Throws {@link FaultToleranceDefinitionException} if validation fails. The policies of a valid operation are
+     * compiled, so that executing the operation does not need to read the configuration.
      */
     public void validate() {
         if (async && !isAcceptableAsyncReturnType(method.getReturnType())) {
@@ -180,18 +181,23 @@ public class FaultToleranceOperation {
         }
         if (bulkhead != null) {
             bulkhead.validate();
+            bulkhead.getPolicy();
         }
         if (circuitBreaker != null) {
             circuitBreaker.validate();
+            circuitBreaker.getPolicy();
         }
         if (fallback != null) {
             fallback.validate();
+            fallback.getPolicy();
         }
         if (retry != null) {
             retry.validate();
+            retry.getPolicy();
         }
         if (timeout != null) {
             timeout.validate();
+            timeout.getPolicy();
         }
     }
 
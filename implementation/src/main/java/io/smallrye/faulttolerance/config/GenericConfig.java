@@ -20,9 +20,12 @@ import java.lang.annotation.ElementType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.security.PrivilegedActionException;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 import javax.enterprise.inject.spi.AnnotatedMethod;
 
@@ -113,12 +116,52 @@ public abstract class GenericConfig<X extends Annotation> {
             // <annotation>/<parameter>
             value = config.getOptionalValue(annotationType.getSimpleName() + "/" + key, expectedType);
         }
+        if (value.isPresent()) {
+            return value.get();
+        }
+        Map<String, Object> defaults = getDefaults();
+        if (defaults.containsKey(key)) {
+            @SuppressWarnings("unchecked")
+            U defaultValue = (U) defaults.get(key);
+            return defaultValue;
+        }
         // annotation values
-        return value.isPresent() ? value.get() : getConfigFromAnnotation(key);
+        return getConfigFromAnnotation(key);
     }
 
     public abstract void validate();
 
+    /**
+     * The compiled policy is cached, unless {@link #CONFIG_PARAMS_CACHE_KEY} is disabled, in which case it is compiled
+     * every time it is needed. A policy replaced at runtime is always returned as is, even if it was set while the policy
+     * was being compiled.
+     *
+     * @param compiler compiles the policy from this config
+     * @return the policy compiled from this config
+     */
+    @SuppressWarnings("unchecked")
+    protected <P> P getPolicy(Supplier<P> compiler) {
+        Object policy = this.policy.get();
+        if (policy == null) {
+            policy = compiler.get();
+            if (values != null && !this.policy.compareAndSet(null, policy)) {
+                // replaced at runtime in the meantime
+                policy = this.policy.get();
+            }
+        }
+        return (P) policy;
+    }
+
+    /**
+     * Replaces the policy of this config at runtime. Invocations that already read the previous policy finish with it.
+     *
+     * @param policy
+     * @see #getPolicy(Supplier)
+     */
+    protected void setPolicy(Object policy) {
+        this.policy.set(policy);
+    }
+
     @SuppressWarnings("unchecked")
     private <U> U getConfigFromAnnotation(String key) {
         try {
@@ -160,6 +203,15 @@ public abstract class GenericConfig<X extends Annotation> {
 
     protected abstract Map<String, Class<?>> getKeysToType();
 
+    /**
+     * Keys that are not members of the annotation can only be set through MicroProfile Config.
+     *
+     * @return the default values of keys that are not members of the annotation
+     */
+    protected Map<String, Object> getDefaults() {
+        return Collections.emptyMap();
+    }
+
     protected final Class<?> beanClass;
 
     protected final Method method;
@@ -175,4 +227,6 @@ public abstract class GenericConfig<X extends Annotation> {
 
     private final Map<String, Object> values;
 
+    private final AtomicReference<Object> policy = new AtomicReference<>();
+
 }
@@ -20,6 +20,7 @@ import java.time.temporal.ChronoUnit;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 
 import javax.enterprise.inject.spi.AnnotatedMethod;
 
@@ -49,6 +50,67 @@ public class RetryConfig extends GenericConfig<Retry> {
 
     public static final String ABORT_ON = "abortOn";
 
+    /**
+     * The {@link Backoff} strategy used to compute the delay between retries, {@link Backoff#CONSTANT} by default. Unlike
+     * the other keys, it can only be set through MicroProfile Config, e.g.
+     * {@code com.acme.Service/hello/Retry/backoff=EXPONENTIAL}.
+     */
+    public static final String BACKOFF = "backoff";
+
+    /**
+     * The multiplier of the {@link Backoff#EXPONENTIAL} backoff, {@code 2} by default.
+     */
+    public static final String BACKOFF_FACTOR = "backoffFactor";
+
+    /**
+     * The upper limit of the delay in {@link #DELAY_UNIT}, {@code 0} by default, which means the delay is only limited
+     * by the {@link #MAX_DURATION}.
+     */
+    public static final String MAX_DELAY = "maxDelay";
+
+    /**
+     * The maximum ratio of retries to first attempts of the operation within the {@link #BUDGET_WINDOW}, e.g. {@code 0.1}.
+     * The default value {@code 0} disables the retry budget. When the budget is spent, a failure is not retried and is
+     * handled by the fallback or propagated to the caller.
+     *
+     * @see io.smallrye.faulttolerance.RetryBudget
+     */
+    public static final String BUDGET_RATIO = "budgetRatio";
+
+    /**
+     * The number of retries allowed within the {@link #BUDGET_WINDOW} regardless of the {@link #BUDGET_RATIO}, {@code 10}
+     * by default.
+     */
+    public static final String BUDGET_MIN_RETRIES = "budgetMinRetries";
+
+    /**
+     * The duration of the sliding window of the retry budget in milliseconds, {@code 10000} by default.
+     */
+    public static final String BUDGET_WINDOW = "budgetWindow";
+
+    /**
+     * Backoff strategies, the delay is always limited by {@link #MAX_DELAY}.
+     */
+    public enum Backoff {
+        /**
+         * The delay is always the same, with the jitter applied.
+         */
+        CONSTANT,
+        /**
+         * The delay is multiplied by the {@link #BACKOFF_FACTOR} after each retry, with the jitter applied.
+         */
+        EXPONENTIAL,
+        /**
+         * The delay grows as the Fibonacci sequence (1, 1, 2, 3, 5, ... times the delay), with the jitter applied.
+         */
+        FIBONACCI,
+        /**
+         * The delay is a random value between the delay and three times the previous delay. The jitter is not applied,
+         * the randomness makes sure that clients do not retry in lockstep.
+         */
+        DECORRELATED_JITTER
+    }
+
     public RetryConfig(Class<?> beanClass, Method method) {
         super(Retry.class, beanClass, method);
     }
@@ -57,6 +119,23 @@ public class RetryConfig extends GenericConfig<Retry> {
         super(Retry.class, annotatedMethod);
     }
 
+    /**
+     * The policy is compiled when the operation is validated, see {@link FaultToleranceOperation#validate()}.
+     *
+     * @return the compiled retry policy
+     */
+    public RetryPolicy getPolicy() {
+        return getPolicy(() -> new RetryPolicy(this));
+    }
+
+    /**
+     *
+     * @param policy replaces the retry policy at runtime
+     */
+    public void setPolicy(RetryPolicy policy) {
+        super.setPolicy(Objects.requireNonNull(policy));
+    }
+
     @Override
     public void validate() {
         if (get(MAX_RETRIES, Integer.class) < -1) {
@@ -79,6 +158,26 @@ public class RetryConfig extends GenericConfig<Retry> {
             throw new FaultToleranceDefinitionException(
                     INVALID_RETRY_ON + getMethodInfo() + " : jitter shouldn't be lower than 0");
         }
+        if (get(BACKOFF_FACTOR, Integer.class) < 1) {
+            throw new FaultToleranceDefinitionException(
+                    INVALID_RETRY_ON + getMethodInfo() + " : backoffFactor shouldn't be lower than 1");
+        }
+        if (get(MAX_DELAY, Long.class) < 0) {
+            throw new FaultToleranceDefinitionException(
+                    INVALID_RETRY_ON + getMethodInfo() + " : maxDelay shouldn't be lower than 0");
+        }
+        if (get(BUDGET_RATIO, Double.class) < 0) {
+            throw new FaultToleranceDefinitionException(
+                    INVALID_RETRY_ON + getMethodInfo() + " : budgetRatio shouldn't be lower than 0");
+        }
+        if (get(BUDGET_MIN_RETRIES, Integer.class) < 0) {
+            throw new FaultToleranceDefinitionException(
+                    INVALID_RETRY_ON + getMethodInfo() + " : budgetMinRetries shouldn't be lower than 0");
+        }
+        if (get(BUDGET_WINDOW, Long.class) < 1) {
+            throw new FaultToleranceDefinitionException(
+                    INVALID_RETRY_ON + getMethodInfo() + " : budgetWindow shouldn't be lower than 1");
+        }
     }
 
     public Class<?>[] getAbortOn() {
@@ -102,6 +201,11 @@ public class RetryConfig extends GenericConfig<Retry> {
         return keys2Type;
     }
 
+    @Override
+    protected Map<String, Object> getDefaults() {
+        return defaults;
+    }
+
     private static final String INVALID_RETRY_ON = "Invalid @Retry on ";
 
     private static Map<String, Class<?>> keys2Type = initKeys();
@@ -117,7 +221,26 @@ public class RetryConfig extends GenericConfig<Retry> {
         keys.put(JITTER_DELAY_UNIT, ChronoUnit.class);
         keys.put(RETRY_ON, Class[].class);
         keys.put(ABORT_ON, Class[].class);
+        keys.put(BACKOFF, Backoff.class);
+        keys.put(BACKOFF_FACTOR, Integer.class);
+        keys.put(MAX_DELAY, Long.class);
+        keys.put(BUDGET_RATIO, Double.class);
+        keys.put(BUDGET_MIN_RETRIES, Integer.class);
+        keys.put(BUDGET_WINDOW, Long.class);
         return Collections.unmodifiableMap(keys);
     }
 
+    private static Map<String, Object> defaults = initDefaults();
+
+    private static Map<String, Object> initDefaults() {
+        Map<String, Object> defaults = new HashMap<>();
+        defaults.put(BACKOFF, Backoff.CONSTANT);
+        defaults.put(BACKOFF_FACTOR, 2);
+        defaults.put(MAX_DELAY, 0L);
+        defaults.put(BUDGET_RATIO, 0.0);
+        defaults.put(BUDGET_MIN_RETRIES, 10);
+        defaults.put(BUDGET_WINDOW, 10000L);
+        return Collections.unmodifiableMap(defaults);
+    }
+
 }
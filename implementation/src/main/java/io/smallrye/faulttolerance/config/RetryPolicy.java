@@ -0,0 +1,188 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.config;
+
+import java.time.Duration;
+
+import io.smallrye.faulttolerance.config.RetryConfig.Backoff;
+
+/**
+ * Immutable, compiled form of a {@link RetryConfig}. Durations are converted to nanoseconds.
+ *
+ * @see RetryConfig#getPolicy()
+ */
+public final class RetryPolicy {
+
+    private final int maxRetries;
+
+    private final long delayNanos;
+
+    private final long maxDurationNanos;
+
+    private final long jitterNanos;
+
+    private final Class<?>[] retryOn;
+
+    private final Class<?>[] abortOn;
+
+    private final Backoff backoff;
+
+    private final int backoffFactor;
+
+    private final long maxDelayNanos;
+
+    private final double budgetRatio;
+
+    private final int budgetMinRetries;
+
+    private final long budgetWindowMillis;
+
+    private RetryPolicy(RetryPolicy policy, int maxRetries, long delayNanos, long maxDurationNanos, long jitterNanos) {
+        this.maxRetries = maxRetries;
+        this.delayNanos = delayNanos;
+        this.maxDurationNanos = maxDurationNanos;
+        this.jitterNanos = jitterNanos;
+        this.retryOn = policy.retryOn;
+        this.abortOn = policy.abortOn;
+        this.backoff = policy.backoff;
+        this.backoffFactor = policy.backoffFactor;
+        this.maxDelayNanos = policy.maxDelayNanos;
+        this.budgetRatio = policy.budgetRatio;
+        this.budgetMinRetries = policy.budgetMinRetries;
+        this.budgetWindowMillis = policy.budgetWindowMillis;
+    }
+
+    RetryPolicy(RetryConfig config) {
+        this.maxRetries = config.get(RetryConfig.MAX_RETRIES);
+        this.delayNanos = Duration.of(config.get(RetryConfig.DELAY), config.get(RetryConfig.DELAY_UNIT)).toNanos();
+        this.maxDurationNanos = Duration.of(config.get(RetryConfig.MAX_DURATION), config.get(RetryConfig.DURATION_UNIT))
+                .toNanos();
+        this.jitterNanos = Duration.of(config.getJitter(), config.getJitterDelayUnit()).toNanos();
+        this.retryOn = config.getRetryOn();
+        this.abortOn = config.getAbortOn();
+        this.backoff = config.get(RetryConfig.BACKOFF);
+        this.backoffFactor = config.get(RetryConfig.BACKOFF_FACTOR);
+        this.maxDelayNanos = Duration.of(config.get(RetryConfig.MAX_DELAY), config.get(RetryConfig.DELAY_UNIT)).toNanos();
+        this.budgetRatio = config.get(RetryConfig.BUDGET_RATIO);
+        this.budgetMinRetries = config.get(RetryConfig.BUDGET_MIN_RETRIES);
+        this.budgetWindowMillis = config.get(RetryConfig.BUDGET_WINDOW);
+    }
+
+    /**
+     *
+     * @return a copy of this policy with the given values, {@code null} values are not changed
+     */
+    public RetryPolicy with(Integer maxRetries, Long delayNanos, Long maxDurationNanos, Long jitterNanos) {
+        return new RetryPolicy(this, maxRetries != null ? maxRetries : this.maxRetries,
+                delayNanos != null ? delayNanos : this.delayNanos,
+                maxDurationNanos != null ? maxDurationNanos : this.maxDurationNanos,
+                jitterNanos != null ? jitterNanos : this.jitterNanos);
+    }
+
+    /**
+     *
+     * @return the maximum number of retries, {@code -1} means no limit
+     */
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public long getDelayNanos() {
+        return delayNanos;
+    }
+
+    /**
+     *
+     * @return the maximum duration of all attempts, always greater than the delay
+     */
+    public long getMaxDurationNanos() {
+        return maxDurationNanos;
+    }
+
+    public long getJitterNanos() {
+        return jitterNanos;
+    }
+
+    public Backoff getBackoff() {
+        return backoff;
+    }
+
+    public int getBackoffFactor() {
+        return backoffFactor;
+    }
+
+    /**
+     *
+     * @return the upper limit of the delay, {@code 0} means the delay is only limited by the max duration
+     */
+    public long getMaxDelayNanos() {
+        return maxDelayNanos;
+    }
+
+    public double getBudgetRatio() {
+        return budgetRatio;
+    }
+
+    public int getBudgetMinRetries() {
+        return budgetMinRetries;
+    }
+
+    public long getBudgetWindowMillis() {
+        return budgetWindowMillis;
+    }
+
+    /**
+     *
+     * @return the number of exception types the operation is retried on
+     */
+    public int getRetryOnCount() {
+        return retryOn.length;
+    }
+
+    /**
+     *
+     * @param throwable
+     * @return {@code true} if the given failure is one of {@link RetryConfig#RETRY_ON}
+     */
+    public boolean retriesOn(Throwable throwable) {
+        return matches(retryOn, throwable);
+    }
+
+    /**
+     *
+     * @param throwable
+     * @return {@code true} if the given failure is one of {@link RetryConfig#ABORT_ON}
+     */
+    public boolean abortsOn(Throwable throwable) {
+        return matches(abortOn, throwable);
+    }
+
+    private static boolean matches(Class<?>[] exceptions, Throwable throwable) {
+        for (Class<?> exception : exceptions) {
+            if (exception.isInstance(throwable)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "RetryPolicy [maxRetries=" + maxRetries + ", delayNanos=" + delayNanos + ", maxDurationNanos="
+                + maxDurationNanos + ", jitterNanos=" + jitterNanos + ", backoff=" + backoff + "]";
+    }
+
+}
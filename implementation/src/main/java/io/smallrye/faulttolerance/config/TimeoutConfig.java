@@ -20,6 +20,7 @@ import java.time.temporal.ChronoUnit;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 
 import javax.enterprise.inject.spi.AnnotatedMethod;
 
@@ -43,6 +44,22 @@ public class TimeoutConfig extends GenericConfig<Timeout> {
         super(Timeout.class, annotatedMethod);
     }
 
+    /**
+     *
+     * @return the compiled timeout in nanoseconds
+     */
+    public TimeoutPolicy getPolicy() {
+        return getPolicy(() -> new TimeoutPolicy(this));
+    }
+
+    /**
+     *
+     * @param policy replaces the timeout at runtime
+     */
+    public void setPolicy(TimeoutPolicy policy) {
+        super.setPolicy(Objects.requireNonNull(policy));
+    }
+
     @Override
     public void validate() {
         if (get(VALUE, Long.class) < 0) {
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.config;
+
+import java.time.Duration;
+
+/**
+ * Immutable, compiled form of a {@link TimeoutConfig}.
+ *
+ * @see TimeoutConfig#getPolicy()
+ */
+public final class TimeoutPolicy {
+
+    private final long timeoutNanos;
+
+    TimeoutPolicy(TimeoutConfig config) {
+        this(Duration.of(config.get(TimeoutConfig.VALUE), config.get(TimeoutConfig.UNIT)).toNanos());
+    }
+
+    public TimeoutPolicy(long timeoutNanos) {
+        this.timeoutNanos = timeoutNanos;
+    }
+
+    public long getTimeoutNanos() {
+        return timeoutNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "TimeoutPolicy [timeoutNanos=" + timeoutNanos + "]";
+    }
+
+}
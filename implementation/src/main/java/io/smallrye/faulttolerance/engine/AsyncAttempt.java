@@ -0,0 +1,298 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.engine;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.microprofile.faulttolerance.exceptions.BulkheadException;
+import org.eclipse.microprofile.faulttolerance.exceptions.CircuitBreakerOpenException;
+import org.eclipse.microprofile.faulttolerance.exceptions.TimeoutException;
+
+import io.smallrye.faulttolerance.SynchronousCircuitBreaker;
+import io.smallrye.faulttolerance.config.TimeoutConfig;
+import io.smallrye.faulttolerance.metrics.MetricsRecorder;
+import io.smallrye.faulttolerance.timer.HashedWheelTimer;
+import io.smallrye.faulttolerance.timer.TimerTask;
+
+/**
+ * A single attempt of an asynchronous invocation, guarded by the circuit breaker, timeout and bulkhead of the operation
+ * (from the outermost to the innermost). Unlike the synchronous strategies, no thread waits for anything: the circuit
+ * breaker and the bulkhead are consulted on the thread that starts the attempt, an attempt waiting for a bulkhead permit
+ * is queued by the {@link AsyncBulkhead}, the guarded method is executed on the shared executor and the timeout is
+ * enforced by the {@link HashedWheelTimer} of the engine. An attempt that times out completes immediately, even if the
+ * guarded method ignores the interruption; its bulkhead permit is only released once the method returns. If the method
+ * returns {@link CompletionStage}, the attempt lasts until the returned stage completes and no thread waits for it.
+ * <p>
+ * The outcome is always delivered on a thread of the shared executor, never on the thread that starts the attempt or
+ * on the timer thread.
+ * </p>
+ */
+final class AsyncAttempt {
+
+    private final FaultToleranceStrategy<Object> invocation;
+
+    private final boolean completionStage;
+
+    private final String description;
+
+    private final String methodName;
+
+    private final SynchronousCircuitBreaker circuitBreaker;
+
+    private final TimeoutConfig timeoutConfig;
+
+    private final AsyncBulkhead bulkhead;
+
+    private final ExecutorService executor;
+
+    private final HashedWheelTimer timer;
+
+    private final MetricsRecorder metrics;
+
+    /**
+     *
+     * @param invocation invokes the guarded method
+     * @param completionStage {@code true} if the invocation returns {@link CompletionStage}
+     * @param description
+     * @param methodName
+     * @param circuitBreaker {@code null} if the operation does not use circuit breaker
+     * @param timeoutConfig {@code null} if the operation does not use timeout
+     * @param bulkhead {@code null} if the operation does not use bulkhead
+     * @param executor
+     * @param timer
+     * @param metrics
+     */
+    AsyncAttempt(FaultToleranceStrategy<Object> invocation, boolean completionStage, String description,
+            String methodName, SynchronousCircuitBreaker circuitBreaker, TimeoutConfig timeoutConfig,
+            AsyncBulkhead bulkhead, ExecutorService executor, HashedWheelTimer timer, MetricsRecorder metrics) {
+        this.invocation = invocation;
+        this.completionStage = completionStage;
+        this.description = description;
+        this.methodName = methodName;
+        this.circuitBreaker = circuitBreaker;
+        this.timeoutConfig = timeoutConfig;
+        this.bulkhead = bulkhead;
+        this.executor = executor;
+        this.timer = timer;
+        this.metrics = metrics;
+        if (circuitBreaker != null) {
+            metrics.circuitBreakerGauges(circuitBreaker);
+        }
+    }
+
+    /**
+     *
+     * @param ctx
+     * @param attempt completed with the outcome of the attempt
+     */
+    void start(FaultToleranceContext<Object> ctx, AttemptFuture attempt) {
+        if (circuitBreaker != null && !circuitBreaker.attemptExecution()) {
+            metrics.circuitBreakerPrevented();
+            later(() -> attempt.completeExceptionally(new CircuitBreakerOpenException(methodName)));
+            return;
+        }
+        attempt.startedAt = System.nanoTime();
+        long timeoutNanos = timeoutConfig != null ? timeoutConfig.getPolicy().getTimeoutNanos() : 0;
+        if (timeoutNanos > 0) {
+            AttemptTimeout timeout = new AttemptTimeout(attempt);
+            attempt.timeout = timeout;
+            try {
+                timer.schedule(timeout, timeoutNanos);
+            } catch (IllegalStateException e) {
+                later(() -> finish(attempt, null, e, false));
+                return;
+            }
+        }
+        if (bulkhead == null) {
+            execute(ctx, attempt);
+            return;
+        }
+        try {
+            // an attempt completed while waiting, e.g. cancelled by the caller, still holds its circuit breaker slot
+            bulkhead.enter(attempt, () -> execute(ctx, attempt),
+                    () -> finish(attempt, null, new CancellationException(), false));
+        } catch (BulkheadException e) {
+            later(() -> finish(attempt, null, e, false));
+        }
+    }
+
+    private void execute(FaultToleranceContext<Object> ctx, AttemptFuture attempt) {
+        // the permit is released once the method returns, or by the task if it is cancelled before it starts
+        AtomicBoolean started = new AtomicBoolean();
+        FutureTask<Void> task = new FutureTask<Void>(() -> {
+            if (!started.compareAndSet(false, true)) {
+                return;
+            }
+            long start = System.nanoTime();
+            Object value;
+            try {
+                value = invocation.apply(ctx);
+            } catch (Throwable e) {
+                exit(start);
+                finish(attempt, null, e, false);
+                return;
+            }
+            if (completionStage && value != null) {
+                ((CompletionStage<?>) value).whenComplete((result, failure) -> {
+                    exit(start);
+                    later(() -> finish(attempt, result, failure != null ? Exceptions.unwrapCompletion(failure) : null,
+                            false));
+                });
+                return;
+            }
+            exit(start);
+            finish(attempt, value, null, false);
+        }, null) {
+            @Override
+            protected void done() {
+                if (started.compareAndSet(false, true)) {
+                    if (bulkhead != null) {
+                        bulkhead.abort();
+                    }
+                    finish(attempt, null, new CancellationException(), false);
+                }
+            }
+        };
+        attempt.setWork(task);
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            if (started.compareAndSet(false, true) && bulkhead != null) {
+                bulkhead.abort();
+            }
+            finish(attempt, null, e, false);
+        }
+    }
+
+    private void exit(long start) {
+        if (bulkhead != null) {
+            bulkhead.exit(System.nanoTime() - start);
+        }
+    }
+
+    private void timedOut(AttemptFuture attempt) {
+        if (finish(attempt, null, new TimeoutException(description + " timed out"), true)) {
+            attempt.cancelWork();
+        }
+    }
+
+    /**
+     * Records the outcome and completes the attempt. Only the first outcome counts, the execution and the timeout race.
+     *
+     * @return {@code true} if the outcome was accepted
+     */
+    private boolean finish(AttemptFuture attempt, Object value, Throwable failure, boolean timedOut) {
+        if (!attempt.finished.compareAndSet(false, true)) {
+            return false;
+        }
+        TimerTask timeout = attempt.timeout;
+        if (timeout != null) {
+            if (!timedOut) {
+                // unlinks the task from the wheel, the success path does not allocate anything
+                timeout.cancel();
+            }
+            metrics.timeoutFinished(timedOut, System.nanoTime() - attempt.startedAt);
+        }
+        if (circuitBreaker != null) {
+            boolean failed = failure != null && circuitBreaker.failsOn(failure);
+            boolean opened = failed ? circuitBreaker.executionFailed() : circuitBreaker.executionSucceeded();
+            metrics.circuitBreakerFinished(failed);
+            if (opened) {
+                metrics.circuitBreakerOpened();
+            }
+        }
+        // dependent actions run after the outcome is recorded
+        return failure == null ? attempt.complete(value) : attempt.completeExceptionally(failure);
+    }
+
+    private void later(Runnable action) {
+        try {
+            executor.execute(action);
+        } catch (RejectedExecutionException e) {
+            action.run();
+        }
+    }
+
+    /**
+     * Runs on the timer thread, which must not be blocked, so the timeout is processed on the executor.
+     */
+    private final class AttemptTimeout extends TimerTask {
+
+        private final AttemptFuture attempt;
+
+        AttemptTimeout(AttemptFuture attempt) {
+            this.attempt = attempt;
+        }
+
+        @Override
+        public void run() {
+            later(() -> timedOut(attempt));
+        }
+
+    }
+
+    /**
+     * The outcome of a single attempt. Cancellation is propagated to the execution of the guarded method.
+     */
+    static final class AttemptFuture extends CompletableFuture<Object> {
+
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        private volatile long startedAt;
+
+        private volatile TimerTask timeout;
+
+        private volatile Future<?> work;
+
+        void setWork(Future<?> work) {
+            this.work = work;
+            if (isDone()) {
+                // timed out or cancelled while waiting for a bulkhead permit
+                work.cancel(false);
+            }
+        }
+
+        void cancelWork() {
+            Future<?> work = this.work;
+            if (work != null) {
+                work.cancel(true);
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            TimerTask timeout = this.timeout;
+            if (timeout != null) {
+                timeout.cancel();
+            }
+            Future<?> work = this.work;
+            if (work != null) {
+                work.cancel(mayInterruptIfRunning);
+            }
+            return cancelled;
+        }
+
+    }
+
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.engine;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.microprofile.faulttolerance.exceptions.BulkheadException;
+
+import io.smallrye.faulttolerance.config.BulkheadConfig;
+import io.smallrye.faulttolerance.config.BulkheadPolicy;
+import io.smallrye.faulttolerance.metrics.MetricsRecorder;
+
+/**
+ * Bulkhead for asynchronous invocations. Up to {@code size} attempts are executed concurrently and up to
+ * {@code queueSize} attempts wait for a free permit, the rest is rejected.
+ * <p>
+ * Unlike a dedicated thread pool, a waiting attempt does not occupy any thread. It is only submitted to the shared
+ * executor once a permit is released, in the order the attempts arrived.
+ * </p>
+ */
+final class AsyncBulkhead {
+
+    private final String description;
+
+    private final BulkheadPermits permits;
+
+    private final Queue<Waiting> queue = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final MetricsRecorder metrics;
+
+    AsyncBulkhead(String description, BulkheadConfig config, MetricsRecorder metrics) {
+        this.description = description;
+        this.permits = new BulkheadPermits(config);
+        this.metrics = metrics;
+        metrics.bulkheadGauges(permits::getRunning, queued::get);
+    }
+
+    /**
+     * Runs the given action once a permit is acquired, either immediately on the calling thread or later on the thread
+     * that releases a permit. The action must not block. The permit is released by {@link #exit(long)} once the attempt
+     * finishes, or by {@link #abort()} if the attempt never starts.
+     *
+     * @param attempt the attempt leaves the queue if it is completed while waiting, e.g. because it timed out
+     * @param start starts the attempt
+     * @param abandon runs if the attempt leaves the queue without being started, so that its outcome is still recorded
+     * @throws BulkheadException if there is neither a free permit nor a free slot in the queue
+     */
+    void enter(CompletableFuture<?> attempt, Runnable start, Runnable abandon) throws BulkheadException {
+        BulkheadPolicy policy = permits.refresh();
+        // do not overtake attempts that are already waiting
+        if (queue.isEmpty() && permits.tryAcquire()) {
+            metrics.bulkheadAccepted();
+            metrics.bulkheadWaitingFinished(0);
+            start.run();
+            return;
+        }
+        int current;
+        do {
+            current = queued.get();
+            if (current >= policy.getQueueSize()) {
+                metrics.bulkheadRejected();
+                throw new BulkheadException(description + " rejected from bulkhead [size: " + policy.getSize()
+                        + ", queue size: " + policy.getQueueSize() + "]");
+            }
+        } while (!queued.compareAndSet(current, current + 1));
+        metrics.bulkheadAccepted();
+        Waiting waiting = new Waiting(attempt, start, abandon);
+        queue.add(waiting);
+        attempt.whenComplete((value, failure) -> leave(waiting));
+        // a permit may have been released, or added by a resize, before the attempt was queued
+        drain();
+    }
+
+    /**
+     * Releases the permit held by an attempt and starts the next waiting attempt, if any.
+     *
+     * @param executionNanos the duration of the attempt
+     */
+    void exit(long executionNanos) {
+        metrics.bulkheadExecutionFinished(executionNanos);
+        permits.release();
+        drain();
+    }
+
+    /**
+     * Releases the permit held by an attempt that never started, for example because it was cancelled.
+     */
+    void abort() {
+        permits.release();
+        drain();
+    }
+
+    private void leave(Waiting waiting) {
+        if (waiting.claimed.compareAndSet(false, true)) {
+            queue.remove(waiting);
+            queued.decrementAndGet();
+            metrics.bulkheadWaitingFinished(System.nanoTime() - waiting.enqueuedAt);
+            waiting.abandon.run();
+        }
+    }
+
+    private void drain() {
+        while (!queue.isEmpty() && permits.tryAcquire()) {
+            Waiting waiting = queue.poll();
+            if (waiting == null || !waiting.claimed.compareAndSet(false, true)) {
+                // taken by a concurrent drain or completed while waiting
+                permits.release();
+                continue;
+            }
+            queued.decrementAndGet();
+            if (waiting.attempt.isDone()) {
+                permits.release();
+                waiting.abandon.run();
+                continue;
+            }
+            metrics.bulkheadWaitingFinished(System.nanoTime() - waiting.enqueuedAt);
+            waiting.start.run();
+        }
+    }
+
+    private static final class Waiting {
+
+        private final CompletableFuture<?> attempt;
+
+        private final Runnable start;
+
+        private final Runnable abandon;
+
+        private final long enqueuedAt = System.nanoTime();
+
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        Waiting(CompletableFuture<?> attempt, Runnable start, Runnable abandon) {
+            this.attempt = attempt;
+            this.start = start;
+            this.abandon = abandon;
+        }
+
+    }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.engine;
+
+import java.util.concurrent.Semaphore;
+
+import io.smallrye.faulttolerance.config.BulkheadConfig;
+import io.smallrye.faulttolerance.config.BulkheadPolicy;
+
+/**
+ * The permits of a bulkhead. The number of permits follows the {@link BulkheadPolicy} of the operation, so that the
+ * bulkhead can be resized at runtime. Permits held by running executions are not revoked when the bulkhead shrinks,
+ * the number of available permits is negative until enough of them are released.
+ */
+final class BulkheadPermits extends Semaphore {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient BulkheadConfig config;
+
+    private transient volatile BulkheadPolicy policy;
+
+    BulkheadPermits(BulkheadConfig config) {
+        this(config, config.getPolicy());
+    }
+
+    private BulkheadPermits(BulkheadConfig config, BulkheadPolicy policy) {
+        super(policy.getSize());
+        this.config = config;
+        this.policy = policy;
+    }
+
+    /**
+     * Applies a policy that was replaced at runtime. Lock-free unless the size actually changes.
+     *
+     * @return the current policy
+     */
+    BulkheadPolicy refresh() {
+        BulkheadPolicy current = config.getPolicy();
+        BulkheadPolicy applied = this.policy;
+        if (current == applied
+                || (current.getSize() == applied.getSize() && current.getQueueSize() == applied.getQueueSize())) {
+            return applied;
+        }
+        return resize();
+    }
+
+    private synchronized BulkheadPolicy resize() {
+        // read the policy again, a concurrent resize may have already applied a newer one
+        BulkheadPolicy current = config.getPolicy();
+        int delta = current.getSize() - policy.getSize();
+        if (delta > 0) {
+            release(delta);
+        } else if (delta < 0) {
+            reducePermits(-delta);
+        }
+        policy = current;
+        return current;
+    }
+
+    /**
+     *
+     * @return the number of running executions
+     */
+    int getRunning() {
+        return Math.max(policy.getSize() - availablePermits(), 0);
+    }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.engine;
+
+import org.eclipse.microprofile.faulttolerance.exceptions.CircuitBreakerOpenException;
+
+import io.smallrye.faulttolerance.SynchronousCircuitBreaker;
+import io.smallrye.faulttolerance.metrics.MetricsRecorder;
+
+/**
+ * Every invocation outcome is recorded synchronously, the circuit state machine itself is implemented by
+ * {@link SynchronousCircuitBreaker}.
+ */
+final class CircuitBreaker<V> implements FaultToleranceStrategy<V> {
+
+    private final FaultToleranceStrategy<V> delegate;
+
+    private final String methodName;
+
+    private final SynchronousCircuitBreaker circuitBreaker;
+
+    private final MetricsRecorder metrics;
+
+    CircuitBreaker(FaultToleranceStrategy<V> delegate, String methodName, SynchronousCircuitBreaker circuitBreaker,
+            MetricsRecorder metrics) {
+        this.delegate = delegate;
+        this.methodName = methodName;
+        this.circuitBreaker = circuitBreaker;
+        this.metrics = metrics;
+        metrics.circuitBreakerGauges(circuitBreaker);
+    }
+
+    @Override
+    public V apply(FaultToleranceContext<V> ctx) throws Exception {
+        if (!circuitBreaker.attemptExecution()) {
+            metrics.circuitBreakerPrevented();
+            throw new CircuitBreakerOpenException(methodName);
+        }
+        V result;
+        try {
+            result = delegate.apply(ctx);
+        } catch (Throwable e) {
+            boolean failed = circuitBreaker.failsOn(e);
+            finished(failed, failed ? circuitBreaker.executionFailed() : circuitBreaker.executionSucceeded());
+            throw e;
+        }
+        finished(false, circuitBreaker.executionSucceeded());
+        return result;
+    }
+
+    private void finished(boolean failed, boolean opened) {
+        metrics.circuitBreakerFinished(failed);
+        if (opened) {
+            metrics.circuitBreakerOpened();
+        }
+    }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.engine;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+
+import org.eclipse.microprofile.faulttolerance.exceptions.FaultToleranceException;
+
+final class Exceptions {
+
+    private Exceptions() {
+    }
+
+    /**
+     *
+     * @param e
+     * @return the cause of the given exception, errors are rethrown
+     */
+    static Exception unwrap(ExecutionException e) {
+        return rethrow(e.getCause());
+    }
+
+    /**
+     *
+     * @param failure the failure of a {@link CompletionStage}
+     * @return the failure without the {@link CompletionException} added by dependent stages
+     */
+    static Throwable unwrapCompletion(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
+    /**
+     *
+     * @param cause
+     * @return the given exception, errors are rethrown
+     */
+    static Exception rethrow(Throwable cause) {
+        if (cause instanceof Exception) {
+            return (Exception) cause;
+        } else if (cause instanceof Error) {
+            throw (Error) cause;
+        } else {
+            // Business method interceptors may only throw exceptions
+            return new FaultToleranceException(cause);
+        }
+    }
+
+}
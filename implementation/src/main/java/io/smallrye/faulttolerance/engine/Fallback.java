@@ -0,0 +1,88 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.engine;
+
+import org.eclipse.microprofile.faulttolerance.exceptions.BulkheadException;
+import org.eclipse.microprofile.faulttolerance.exceptions.CircuitBreakerOpenException;
+import org.eclipse.microprofile.faulttolerance.exceptions.TimeoutException;
+
+import io.smallrye.faulttolerance.config.CircuitBreakerPolicy;
+import io.smallrye.faulttolerance.metrics.MetricsRecorder;
+
+/**
+ * The outermost strategy, invokes the fallback function if the delegate fails.
+ */
+final class Fallback<V> implements FaultToleranceStrategy<V> {
+
+    private final FaultToleranceStrategy<V> delegate;
+
+    private final FallbackFunction<V> fallback;
+
+    private final CircuitBreakerPolicy circuitBreaker;
+
+    private final MetricsRecorder metrics;
+
+    /**
+     *
+     * @param delegate
+     * @param fallback
+     * @param circuitBreaker {@code null} if the operation does not use a circuit breaker
+     * @param metrics
+     */
+    Fallback(FaultToleranceStrategy<V> delegate, FallbackFunction<V> fallback, CircuitBreakerPolicy circuitBreaker,
+            MetricsRecorder metrics) {
+        this.delegate = delegate;
+        this.fallback = fallback;
+        this.circuitBreaker = circuitBreaker;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public V apply(FaultToleranceContext<V> ctx) throws Exception {
+        try {
+            return delegate.apply(ctx);
+        } catch (Throwable e) {
+            return recover(ctx, e);
+        }
+    }
+
+    /**
+     * Invokes the fallback function for the given failure, or rethrows the failure if the fallback should not be used.
+     *
+     * @param ctx
+     * @param failure
+     * @return the fallback result
+     * @throws Exception
+     */
+    V recover(FaultToleranceContext<V> ctx, Throwable failure) throws Exception {
+        if (ctx.isCancelled() || !isHandled(failure)) {
+            throw Exceptions.rethrow(failure);
+        }
+        ctx.setFailure(failure);
+        metrics.fallbackCalled();
+        return fallback.call(ctx);
+    }
+
+    private boolean isHandled(Throwable failure) {
+        if (circuitBreaker == null || failure instanceof CircuitBreakerOpenException
+                || failure instanceof BulkheadException || failure instanceof TimeoutException) {
+            return true;
+        }
+        // Command failed but the fallback should not be used, see also SimpleCommand#getFallback()
+        return circuitBreaker.failsOn(failure);
+    }
+
+}
@@ -0,0 +1,361 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.engine;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.interceptor.InvocationContext;
+
+import io.smallrye.faulttolerance.CommandListener;
+import io.smallrye.faulttolerance.FallbackHandlerProvider;
+import io.smallrye.faulttolerance.config.FaultToleranceOperation;
+import io.smallrye.faulttolerance.engine.AsyncAttempt.AttemptFuture;
+import io.smallrye.faulttolerance.metrics.MetricsRecorder;
+
+/**
+ * The composed strategies of a single fault tolerance operation. Asynchronous invocations are executed on the shared
+ * executor. If the method returns {@link CompletionStage}, the strategies work with the value it is completed with. If
+ * the method returns {@link Future}, the strategies work with the returned {@link Future} and only an exception thrown
+ * by the method is considered a failure.
+ * <p>
+ * Each attempt of an asynchronous invocation is started separately. If the attempt fails and should be retried, the next
+ * attempt is scheduled on the shared timer after the retry delay, so that no thread is occupied between attempts.
+ * </p>
+ * <p>
+ * A single attempt is an {@link AsyncAttempt}, it does not occupy any thread while waiting for a bulkhead permit or for
+ * a timeout either.
+ * </p>
+ * <p>
+ * A synchronous invocation without a timeout never leaves the calling thread, so its {@link FaultToleranceContext} is
+ * reused by the next invocation of the operation on the same thread and the invocation does not allocate any state of
+ * its own. A nested invocation of the same operation, e.g. from a fallback, gets a new context. The thread-local holders
+ * of the contexts are cleared by {@link #destroy()}, so that pooled threads do not retain the deployment.
+ * </p>
+ *
+ * @see FaultToleranceEngine
+ */
+public final class FaultToleranceChain {
+
+    private final FaultToleranceOperation operation;
+
+    private final FaultToleranceStrategy<Object> strategy;
+
+    private final AsyncAttempt asyncAttempt;
+
+    private final Retry<Object> retry;
+
+    private final Fallback<Object> fallback;
+
+    private final ScheduledExecutorService timer;
+
+    private final MetricsRecorder metrics;
+
+    // null if the context cannot be reused
+    private final ThreadLocal<AtomicReference<FaultToleranceContext<Object>>> contexts;
+
+    // the holders of live threads, a holder is only a JDK object once cleared
+    private final Set<AtomicReference<FaultToleranceContext<Object>>> contextHolders;
+
+    /**
+     *
+     * @param operation
+     * @param strategy all the strategies, used for synchronous invocations
+     * @param asyncAttempt a single attempt of an asynchronous invocation, {@code null} if the operation is not
+     *        asynchronous
+     * @param retry {@code null} if the operation does not use retry
+     * @param fallback {@code null} if the operation does not use fallback
+     * @param timer
+     * @param metrics
+     */
+    FaultToleranceChain(FaultToleranceOperation operation, FaultToleranceStrategy<Object> strategy,
+            AsyncAttempt asyncAttempt, Retry<Object> retry, Fallback<Object> fallback, ScheduledExecutorService timer,
+            MetricsRecorder metrics) {
+        this.operation = operation;
+        this.strategy = strategy;
+        this.asyncAttempt = asyncAttempt;
+        this.retry = retry;
+        this.fallback = fallback;
+        this.timer = timer;
+        this.metrics = metrics;
+        this.contexts = !operation.isAsync() && !operation.hasTimeout() ? new ThreadLocal<>() : null;
+        this.contextHolders = contexts != null
+                ? Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()))
+                : null;
+    }
+
+    /**
+     * Clears the contexts reused by synchronous invocations on all threads.
+     */
+    void destroy() {
+        if (contextHolders == null) {
+            return;
+        }
+        synchronized (contextHolders) {
+            for (AtomicReference<FaultToleranceContext<Object>> holder : contextHolders) {
+                holder.set(null);
+            }
+            contextHolders.clear();
+        }
+    }
+
+    /**
+     *
+     * @param invocationContext the intercepted invocation
+     * @param listeners the command listeners, {@code null} if there are no listeners
+     * @param fallbackHandlerProvider provides the fallback handler, may be {@code null}
+     * @return the result of the invocation
+     * @throws Exception
+     */
+    public Object call(InvocationContext invocationContext, CommandListener[] listeners,
+            FallbackHandlerProvider fallbackHandlerProvider) throws Exception {
+        metrics.invocationStarted();
+        if (!operation.isAsync()) {
+            FaultToleranceContext<Object> ctx = contexts != null
+                    ? acquireContext(invocationContext, listeners, fallbackHandlerProvider)
+                    : new FaultToleranceContext<>(invocationContext, listeners, fallbackHandlerProvider);
+            try {
+                return strategy.apply(ctx);
+            } catch (Throwable e) {
+                metrics.invocationFailed();
+                throw e;
+            } finally {
+                if (contexts != null) {
+                    ctx.release();
+                }
+            }
+        }
+        Retry.Plan retryPlan = retry != null ? retry.invocationStarted() : null;
+        if (operation.returnsCompletionStage()) {
+            FaultToleranceContext<Object> ctx = new FaultToleranceContext<>(invocationContext,
+                    () -> stageOf(invocationContext.proceed()), listeners,
+                    fallbackHandlerProvider);
+            AsyncCompletableFuture result = new AsyncCompletableFuture(ctx, retryPlan);
+            submit(result, 0, System.nanoTime(), 0);
+            return result;
+        } else {
+            FaultToleranceContext<Object> ctx = new FaultToleranceContext<>(invocationContext, listeners,
+                    fallbackHandlerProvider);
+            AsyncCompletableFuture result = new AsyncCompletableFuture(ctx, retryPlan);
+            submit(result, 0, System.nanoTime(), 0);
+            return new AsyncFuture(result);
+        }
+    }
+
+    private FaultToleranceContext<Object> acquireContext(InvocationContext invocationContext,
+            CommandListener[] listeners, FallbackHandlerProvider fallbackHandlerProvider) {
+        AtomicReference<FaultToleranceContext<Object>> holder = contexts.get();
+        if (holder == null) {
+            holder = new AtomicReference<>();
+            contexts.set(holder);
+            contextHolders.add(holder);
+        }
+        FaultToleranceContext<Object> ctx = holder.get();
+        if (ctx == null) {
+            ctx = new FaultToleranceContext<>(null, null, null);
+            holder.set(ctx);
+        }
+        if (ctx.acquire(invocationContext, listeners, fallbackHandlerProvider)) {
+            return ctx;
+        }
+        // a nested invocation of this operation
+        return new FaultToleranceContext<>(invocationContext, listeners, fallbackHandlerProvider);
+    }
+
+    /**
+     *
+     * @param result
+     * @param attempt the number of retries performed so far
+     * @param start the {@link System#nanoTime()} of the first attempt
+     * @param delay the delay before this attempt
+     */
+    private void submit(AsyncCompletableFuture result, int attempt, long start, long delay) {
+        AttemptFuture attemptFuture = new AttemptFuture();
+        // completed on a thread of the shared executor
+        attemptFuture.whenComplete((value, failure) -> {
+            if (failure != null) {
+                attemptFailed(result, failure, attempt, start, delay);
+                return;
+            }
+            if (retry != null) {
+                metrics.retrySucceeded(attempt > 0);
+            }
+            result.complete(value);
+        });
+        result.setTask(attemptFuture);
+        asyncAttempt.start(result.ctx, attemptFuture);
+    }
+
+    private void attemptFailed(AsyncCompletableFuture result, Throwable failure, int attempt, long start, long delay) {
+        FaultToleranceContext<Object> ctx = result.ctx;
+        if (ctx.isCancelled()) {
+            fail(result, failure);
+            return;
+        }
+        if (retry != null) {
+            if (retry.shouldRetry(result.retryPlan, failure, attempt, start)) {
+                scheduleRetry(result, attempt + 1, start, delay);
+                return;
+            }
+            metrics.retryFailed();
+        }
+        if (fallback == null) {
+            fail(result, failure);
+            return;
+        }
+        Object value;
+        try {
+            value = fallback.recover(ctx, failure);
+            if (operation.returnsCompletionStage()) {
+                stageOf(value).whenComplete((fallbackValue, fallbackFailure) -> {
+                    if (fallbackFailure != null) {
+                        fail(result, Exceptions.unwrapCompletion(fallbackFailure));
+                    } else {
+                        result.complete(fallbackValue);
+                    }
+                });
+                return;
+            }
+        } catch (Throwable fallbackFailure) {
+            fail(result, fallbackFailure);
+            return;
+        }
+        result.complete(value);
+    }
+
+    private void scheduleRetry(AsyncCompletableFuture result, int attempt, long start, long previousDelay) {
+        long delay = retry.nextDelayNanos(result.retryPlan, attempt, previousDelay);
+        Runnable next = () -> {
+            metrics.retryRetried();
+            submit(result, attempt, start, delay);
+        };
+        if (delay == 0) {
+            next.run();
+            return;
+        }
+        try {
+            result.setTask(timer.schedule(next, delay, TimeUnit.NANOSECONDS));
+        } catch (RejectedExecutionException e) {
+            fail(result, e);
+        }
+    }
+
+    private void fail(AsyncCompletableFuture result, Throwable failure) {
+        metrics.invocationFailed();
+        result.completeExceptionally(failure);
+    }
+
+    /**
+     * The stage is composed with the result of the invocation, no thread waits for it.
+     *
+     * @param value the value returned by an asynchronous method or a fallback
+     * @return the stage
+     */
+    static CompletionStage<?> stageOf(Object value) {
+        if (value == null) {
+            throw new NullPointerException("An asynchronous method returned null instead of CompletionStage");
+        }
+        return (CompletionStage<?>) value;
+    }
+
+    /**
+     * The result of an asynchronous method returning {@link Future}, completed with the {@link Future} returned by the
+     * method and unwrapped on {@link #get()}.
+     */
+    static final class AsyncFuture implements Future<Object> {
+
+        private final AsyncCompletableFuture result;
+
+        AsyncFuture(AsyncCompletableFuture result) {
+            this.result = result;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return result.cancel(mayInterruptIfRunning);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return result.isCancelled();
+        }
+
+        @Override
+        public boolean isDone() {
+            return result.isDone();
+        }
+
+        @Override
+        public Object get() throws InterruptedException, ExecutionException {
+            Future<?> future = (Future<?>) result.get();
+            return future != null ? future.get() : null;
+        }
+
+        @Override
+        public Object get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            Future<?> future = (Future<?>) result.get(timeout, unit);
+            return future != null ? future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS) : null;
+        }
+
+    }
+
+    static final class AsyncCompletableFuture extends CompletableFuture<Object> {
+
+        private final FaultToleranceContext<Object> ctx;
+
+        // null if the operation does not use retry
+        private final Retry.Plan retryPlan;
+
+        // the current attempt, or the scheduled next attempt
+        private volatile Future<?> task;
+
+        AsyncCompletableFuture(FaultToleranceContext<Object> ctx, Retry.Plan retryPlan) {
+            this.ctx = ctx;
+            this.retryPlan = retryPlan;
+        }
+
+        void setTask(Future<?> task) {
+            this.task = task;
+            if (isCancelled()) {
+                task.cancel(true);
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            ctx.cancel();
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            Future<?> task = this.task;
+            if (task != null) {
+                task.cancel(mayInterruptIfRunning);
+            }
+            return cancelled;
+        }
+
+    }
+
+}
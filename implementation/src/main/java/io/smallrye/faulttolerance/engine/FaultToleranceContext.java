@@ -0,0 +1,208 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.engine;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+
+import javax.interceptor.InvocationContext;
+
+import org.eclipse.microprofile.faulttolerance.ExecutionContext;
+
+import io.smallrye.faulttolerance.CommandListener;
+import io.smallrye.faulttolerance.FallbackHandlerProvider;
+
+/**
+ * The state of a single invocation of a fault tolerance operation. The context of a synchronous invocation may be reused
+ * by a later invocation on the same thread, see {@link FaultToleranceChain}.
+ *
+ * @param <V> the type of the result
+ */
+public class FaultToleranceContext<V> implements ExecutionContext {
+
+    private InvocationContext invocationContext;
+
+    private final Callable<V> delegate;
+
+    // null if there are no listeners
+    private CommandListener[] listeners;
+
+    private FallbackHandlerProvider fallbackHandlerProvider;
+
+    private volatile Throwable failure;
+
+    private volatile boolean cancelled;
+
+    // only used by the thread that reuses this context
+    private boolean inUse;
+
+    /**
+     * The result of the intercepted invocation is the result of the operation.
+     *
+     * @param invocationContext the intercepted invocation
+     * @param listeners the command listeners of each attempt, may be {@code null}
+     * @param fallbackHandlerProvider provides the fallback handler, may be {@code null}
+     */
+    public FaultToleranceContext(InvocationContext invocationContext, CommandListener[] listeners,
+            FallbackHandlerProvider fallbackHandlerProvider) {
+        this(invocationContext, null, listeners, fallbackHandlerProvider);
+    }
+
+    /**
+     *
+     * @param invocationContext the intercepted invocation
+     * @param delegate invokes the guarded method and produces the result, {@code null} to proceed with the intercepted
+     *        invocation
+     * @param listeners the command listeners of each attempt, may be {@code null}
+     * @param fallbackHandlerProvider provides the fallback handler, may be {@code null}
+     */
+    public FaultToleranceContext(InvocationContext invocationContext, Callable<V> delegate,
+            CommandListener[] listeners, FallbackHandlerProvider fallbackHandlerProvider) {
+        this.invocationContext = invocationContext;
+        this.delegate = delegate;
+        this.listeners = listeners;
+        this.fallbackHandlerProvider = fallbackHandlerProvider;
+    }
+
+    @Override
+    public Method getMethod() {
+        return invocationContext.getMethod();
+    }
+
+    @Override
+    public Object[] getParameters() {
+        return invocationContext.getParameters();
+    }
+
+    @Override
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    void setFailure(Throwable failure) {
+        this.failure = failure;
+    }
+
+    public Object getTarget() {
+        return invocationContext.getTarget();
+    }
+
+    /**
+     * A reused context is cleared once the invocation finishes, so an object that may outlive the invocation, e.g. a
+     * fallback handler, gets a view that does not depend on this context.
+     *
+     * @return the method, parameters and failure of the current invocation
+     */
+    public ExecutionContext detach() {
+        return new DetachedExecutionContext(invocationContext.getMethod(), invocationContext.getParameters(), failure);
+    }
+
+    /**
+     * The chain of an operation is shared by all interceptor instances, so the fallback handler is resolved by the
+     * provider of the intercepted invocation.
+     *
+     * @return the fallback handler provider, may be {@code null}
+     */
+    public FallbackHandlerProvider getFallbackHandlerProvider() {
+        return fallbackHandlerProvider;
+    }
+
+    /**
+     * The listeners are obtained once per invocation by the interceptor, the same array is used for every attempt.
+     *
+     * @return the command listeners for an attempt, {@code null} if there are no listeners
+     */
+    CommandListener[] getListeners() {
+        return listeners;
+    }
+
+    @SuppressWarnings("unchecked")
+    V proceed() throws Exception {
+        // no delegate is needed for synchronous invocations, which avoids allocating a lambda per call
+        return delegate != null ? delegate.call() : (V) invocationContext.proceed();
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     *
+     * @param invocationContext
+     * @param listeners
+     * @param fallbackHandlerProvider
+     * @return {@code false} if the context is in use by an invocation on the same thread already
+     */
+    boolean acquire(InvocationContext invocationContext, CommandListener[] listeners,
+            FallbackHandlerProvider fallbackHandlerProvider) {
+        if (inUse) {
+            return false;
+        }
+        inUse = true;
+        this.invocationContext = invocationContext;
+        this.listeners = listeners;
+        this.fallbackHandlerProvider = fallbackHandlerProvider;
+        return true;
+    }
+
+    /**
+     * Clears the state of the finished invocation, so that it does not retain the intercepted invocation.
+     */
+    void release() {
+        invocationContext = null;
+        listeners = null;
+        fallbackHandlerProvider = null;
+        failure = null;
+        cancelled = false;
+        inUse = false;
+    }
+
+    private static final class DetachedExecutionContext implements ExecutionContext {
+
+        private final Method method;
+
+        private final Object[] parameters;
+
+        private final Throwable failure;
+
+        DetachedExecutionContext(Method method, Object[] parameters, Throwable failure) {
+            this.method = method;
+            this.parameters = parameters;
+            this.failure = failure;
+        }
+
+        @Override
+        public Method getMethod() {
+            return method;
+        }
+
+        @Override
+        public Object[] getParameters() {
+            return parameters;
+        }
+
+        @Override
+        public Throwable getFailure() {
+            return failure;
+        }
+
+    }
+
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.engine;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+
+import io.smallrye.faulttolerance.AsyncExecutorProvider;
+import io.smallrye.faulttolerance.HystrixCommandInterceptor;
+import io.smallrye.faulttolerance.RetryBudgets;
+import io.smallrye.faulttolerance.SynchronousCircuitBreaker;
+import io.smallrye.faulttolerance.VirtualThreadPinningMonitor;
+import io.smallrye.faulttolerance.config.CircuitBreakerConfig;
+import io.smallrye.faulttolerance.config.CircuitBreakerPolicy;
+import io.smallrye.faulttolerance.config.FaultToleranceOperation;
+import io.smallrye.faulttolerance.config.TimeoutConfig;
+import io.smallrye.faulttolerance.metrics.MetricsCollectorFactory;
+import io.smallrye.faulttolerance.metrics.MetricsRecorder;
+import io.smallrye.faulttolerance.timer.HashedWheelTimer;
+
+/**
+ * Fault tolerance engine that does not depend on Hystrix. The strategies of a fault tolerance operation are composed
+ * once, in the order bulkhead, timeout, circuit breaker, retry and fallback (from the innermost to the outermost), and
+ * the resulting chain is shared by all interceptor instances.
+ * <p>
+ * All asynchronous invocations are executed on the single executor of the {@link AsyncExecutorProvider}, there are no
+ * thread pools per operation. A single attempt of an asynchronous invocation is an {@link AsyncAttempt}, its bulkhead is
+ * a set of permits with a wait queue instead. Synchronous invocations with a timeout are executed on the separate
+ * timeout executor of the provider, so they never wait behind queued asynchronous work.
+ * </p>
+ *
+ * @see io.smallrye.faulttolerance.HystrixCommandInterceptor#NATIVE_ENGINE_KEY
+ */
+@ApplicationScoped
+public class FaultToleranceEngine {
+
+    // one millisecond, the same precision as Hystrix timeouts
+    static final long DEFAULT_TIMER_TICK = 1000;
+
+    // with the default tick, timeouts up to about 1 second are found on the first rotation of the wheel
+    private static final int TIMER_WHEEL_SIZE = 1024;
+
+    @Inject
+    AsyncExecutorProvider asyncExecutorProvider;
+
+    @Inject
+    MetricsCollectorFactory metricsCollectorFactory;
+
+    @Inject
+    RetryBudgets retryBudgets;
+
+    @Inject
+    VirtualThreadPinningMonitor pinningMonitor;
+
+    private final ConcurrentMap<String, FaultToleranceChain> chains = new ConcurrentHashMap<>();
+
+    private HashedWheelTimer timeoutTimer;
+
+    private boolean sameThreadTimeout;
+
+    @PostConstruct
+    void init() {
+        Config config = ConfigProvider.getConfig();
+        long tick = config.getOptionalValue(HystrixCommandInterceptor.TIMER_TICK_KEY, Long.class)
+                .orElse(DEFAULT_TIMER_TICK);
+        sameThreadTimeout = config.getOptionalValue(HystrixCommandInterceptor.SAME_THREAD_TIMEOUT_KEY, Boolean.class)
+                .orElse(false);
+        timeoutTimer = new HashedWheelTimer(r -> {
+            Thread thread = new Thread(r, "smallrye-fault-tolerance-timer");
+            thread.setDaemon(true);
+            return thread;
+        }, TimeUnit.MICROSECONDS.toNanos(tick), TIMER_WHEEL_SIZE);
+    }
+
+    @PreDestroy
+    void destroy() {
+        timeoutTimer.stop();
+        for (FaultToleranceChain chain : chains.values()) {
+            chain.destroy();
+        }
+    }
+
+    /**
+     *
+     * @return the timer that enforces timeouts
+     */
+    public HashedWheelTimer getTimeoutTimer() {
+        return timeoutTimer;
+    }
+
+    /**
+     *
+     * @param operation Fault tolerance operation
+     * @param fallback Supplies the fallback function, only used if the operation declares a fallback
+     * @return the chain for the given operation
+     */
+    public FaultToleranceChain getChain(FaultToleranceOperation operation, Supplier<FallbackFunction<Object>> fallback) {
+        return chains.computeIfAbsent(operation.getBeanClass().getName() + "::" + operation.getMethod().toGenericString(),
+                key -> createChain(operation, fallback));
+    }
+
+    private FaultToleranceChain createChain(FaultToleranceOperation operation,
+            Supplier<FallbackFunction<Object>> fallback) {
+        ExecutorService executor = asyncExecutorProvider.getExecutorService();
+        ScheduledExecutorService timer = asyncExecutorProvider.getScheduledExecutorService();
+        MetricsRecorder metrics = metricsCollectorFactory.createRecorder(operation);
+        pinningMonitor.register(operation.getMethod(), metrics);
+        String description = operation.getMethod().getDeclaringClass().getName() + "#" + operation.getMethod().getName();
+
+        FaultToleranceStrategy<Object> strategy = new Invocation<>(operation);
+
+        SynchronousCircuitBreaker circuitBreaker = null;
+        CircuitBreakerPolicy circuitBreakerPolicy = null;
+        if (operation.hasCircuitBreaker()) {
+            CircuitBreakerConfig config = operation.getCircuitBreaker();
+            circuitBreaker = new SynchronousCircuitBreaker(config);
+            circuitBreakerPolicy = config.getPolicy();
+        }
+
+        TimeoutConfig timeout = operation.hasTimeout() ? operation.getTimeout() : null;
+
+        AsyncAttempt asyncAttempt = null;
+        if (operation.isAsync()) {
+            AsyncBulkhead bulkhead = null;
+            if (operation.hasBulkhead()) {
+                bulkhead = new AsyncBulkhead(description, operation.getBulkhead(), metrics);
+            }
+            asyncAttempt = new AsyncAttempt(strategy, operation.returnsCompletionStage(), description,
+                    operation.getMethod().getName(), circuitBreaker, timeout, bulkhead, executor, timeoutTimer, metrics);
+        } else {
+            if (operation.hasBulkhead()) {
+                strategy = new SemaphoreBulkhead<>(strategy, description, operation.getBulkhead(), metrics);
+            }
+            if (operation.hasTimeout()) {
+                strategy = sameThreadTimeout
+                        ? new SameThreadTimeout<>(strategy, description, timeout, timeoutTimer, metrics)
+                        : new Timeout<>(strategy, description, timeout,
+                                asyncExecutorProvider.getTimeoutExecutorService(), metrics);
+            }
+            if (circuitBreaker != null) {
+                strategy = new CircuitBreaker<>(strategy, operation.getMethod().getName(), circuitBreaker, metrics);
+            }
+        }
+
+        Retry<Object> retry = null;
+        if (operation.hasRetry()) {
+            retry = new Retry<>(strategy, operation.getRetry(), retryBudgets.get(operation), metrics);
+            strategy = retry;
+        }
+
+        Fallback<Object> fallbackStrategy = null;
+        if (operation.hasFallback()) {
+            fallbackStrategy = new Fallback<>(strategy, fallback.get(), circuitBreakerPolicy, metrics);
+            strategy = fallbackStrategy;
+        }
+
+        return new FaultToleranceChain(operation, strategy, asyncAttempt, retry, fallbackStrategy, timer, metrics);
+    }
+
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.engine;
+
+/**
+ * A single fault tolerance strategy. Strategies are composed into a chain where each strategy delegates to the next one
+ * and the innermost strategy invokes the guarded method. A strategy instance is created once per fault tolerance
+ * operation and is shared by all its invocations.
+ *
+ * @param <V> the type of the result
+ */
+@FunctionalInterface
+public interface FaultToleranceStrategy<V> {
+
+    V apply(FaultToleranceContext<V> ctx) throws Exception;
+
+}
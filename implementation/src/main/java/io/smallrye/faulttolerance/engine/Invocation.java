@@ -0,0 +1,53 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.engine;
+
+import io.smallrye.faulttolerance.CommandListener;
+import io.smallrye.faulttolerance.config.FaultToleranceOperation;
+
+/**
+ * The innermost strategy, invokes the guarded method.
+ */
+final class Invocation<V> implements FaultToleranceStrategy<V> {
+
+    private final FaultToleranceOperation operation;
+
+    Invocation(FaultToleranceOperation operation) {
+        this.operation = operation;
+    }
+
+    @Override
+    public V apply(FaultToleranceContext<V> ctx) throws Exception {
+        if (ctx.isCancelled()) {
+            return null;
+        }
+        CommandListener[] listeners = ctx.getListeners();
+        if (listeners == null) {
+            return ctx.proceed();
+        }
+        try {
+            for (CommandListener listener : listeners) {
+                listener.beforeExecution(operation);
+            }
+            return ctx.proceed();
+        } finally {
+            for (CommandListener listener : listeners) {
+                listener.afterExecution(operation);
+            }
+        }
+    }
+
+}
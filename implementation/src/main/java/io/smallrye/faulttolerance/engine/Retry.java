@@ -0,0 +1,165 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.engine;
+
+import java.util.concurrent.TimeUnit;
+
+import io.smallrye.faulttolerance.BackoffPolicy;
+import io.smallrye.faulttolerance.RetryBudget;
+import io.smallrye.faulttolerance.config.RetryConfig;
+import io.smallrye.faulttolerance.config.RetryPolicy;
+import io.smallrye.faulttolerance.metrics.MetricsRecorder;
+
+/**
+ * Retries the delegate on the current thread. The {@link RetryPolicy} is read once when an invocation starts, so an
+ * invocation finishes with the same policy even if the policy is replaced at runtime.
+ * <p>
+ * Asynchronous invocations do not use {@link #apply(FaultToleranceContext)}, the {@link FaultToleranceChain} schedules
+ * the next attempt on the shared timer instead, using {@link #shouldRetry(Plan, Throwable, int, long)} and
+ * {@link #nextDelayNanos(Plan, int, long)}.
+ * </p>
+ */
+final class Retry<V> implements FaultToleranceStrategy<V> {
+
+    private final FaultToleranceStrategy<V> delegate;
+
+    private final RetryConfig config;
+
+    private final RetryBudget budget;
+
+    private final MetricsRecorder metrics;
+
+    private volatile Plan plan;
+
+    /**
+     *
+     * @param delegate
+     * @param config
+     * @param budget may be {@code null}
+     * @param metrics
+     */
+    Retry(FaultToleranceStrategy<V> delegate, RetryConfig config, RetryBudget budget, MetricsRecorder metrics) {
+        this.delegate = delegate;
+        this.config = config;
+        this.budget = budget;
+        this.metrics = metrics;
+        this.plan = new Plan(config.getPolicy());
+    }
+
+    @Override
+    public V apply(FaultToleranceContext<V> ctx) throws Exception {
+        Plan plan = invocationStarted();
+        long start = System.nanoTime();
+        int attempt = 0;
+        long delay = 0;
+        while (true) {
+            V result;
+            try {
+                result = delegate.apply(ctx);
+            } catch (Throwable e) {
+                if (ctx.isCancelled() || !shouldRetry(plan, e, attempt, start)) {
+                    metrics.retryFailed();
+                    throw e;
+                }
+                attempt++;
+                delay = nextDelayNanos(plan, attempt, delay);
+                if (delay > 0) {
+                    try {
+                        TimeUnit.NANOSECONDS.sleep(delay);
+                    } catch (InterruptedException interrupted) {
+                        metrics.retryFailed();
+                        throw interrupted;
+                    }
+                }
+                metrics.retryRetried();
+                continue;
+            }
+            metrics.retrySucceeded(attempt > 0);
+            return result;
+        }
+    }
+
+    /**
+     * Must be called once for each invocation, before the first attempt.
+     *
+     * @return the plan of the invocation
+     */
+    Plan invocationStarted() {
+        if (budget != null) {
+            budget.attemptStarted();
+        }
+        RetryPolicy policy = config.getPolicy();
+        Plan plan = this.plan;
+        if (plan.policy != policy) {
+            // the policy was replaced at runtime, or it is not cached
+            plan = new Plan(policy);
+            this.plan = plan;
+        }
+        return plan;
+    }
+
+    /**
+     *
+     * @param plan
+     * @param failure
+     * @param attempt the number of retries performed so far
+     * @param start the {@link System#nanoTime()} of the first attempt
+     * @return {@code true} if the operation should be retried
+     */
+    boolean shouldRetry(Plan plan, Throwable failure, int attempt, long start) {
+        RetryPolicy policy = plan.policy;
+        int maxRetries = policy.getMaxRetries();
+        return (maxRetries < 0 || attempt < maxRetries)
+                // The given exception should not abort execution
+                && !policy.abortsOn(failure)
+                // We should retry on the given exception
+                && policy.retriesOn(failure)
+                // Once the duration is reached, no more retries should be performed
+                && (System.nanoTime() - start <= policy.getMaxDurationNanos())
+                // Must be the last condition, a retry is withdrawn from the budget
+                && (budget == null || budget.tryAcquireRetry());
+    }
+
+    /**
+     *
+     * @param plan
+     * @param retry the number of the upcoming retry, starting with 1
+     * @param previousDelayNanos the delay before the previous retry
+     * @return the delay in nanoseconds before the given retry
+     */
+    long nextDelayNanos(Plan plan, int retry, long previousDelayNanos) {
+        long delay = plan.backoff.nextDelayNanos(retry, previousDelayNanos);
+        metrics.retryDelayed(delay);
+        return delay;
+    }
+
+    /**
+     * The policy of an invocation together with its backoff.
+     */
+    static final class Plan {
+
+        private final RetryPolicy policy;
+
+        private final BackoffPolicy backoff;
+
+        Plan(RetryPolicy policy) {
+            this.policy = policy;
+            this.backoff = new BackoffPolicy(policy);
+        }
+
+    }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.engine;
+
+import org.eclipse.microprofile.faulttolerance.exceptions.TimeoutException;
+
+import io.smallrye.faulttolerance.config.TimeoutConfig;
+import io.smallrye.faulttolerance.metrics.MetricsRecorder;
+import io.smallrye.faulttolerance.timer.HashedWheelTimer;
+import io.smallrye.faulttolerance.timer.Watchdog;
+
+/**
+ * The guarded invocation is executed on the calling thread, a {@link Watchdog} interrupts the thread once the timeout
+ * elapses. The invocation fails with {@link TimeoutException} if the timeout elapsed, even if the guarded method ignores
+ * the interruption and completes normally.
+ */
+final class SameThreadTimeout<V> implements FaultToleranceStrategy<V> {
+
+    private final FaultToleranceStrategy<V> delegate;
+
+    private final String description;
+
+    private final TimeoutConfig config;
+
+    private final HashedWheelTimer timer;
+
+    private final MetricsRecorder metrics;
+
+    SameThreadTimeout(FaultToleranceStrategy<V> delegate, String description, TimeoutConfig config, HashedWheelTimer timer,
+            MetricsRecorder metrics) {
+        this.delegate = delegate;
+        this.description = description;
+        this.config = config;
+        this.timer = timer;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public V apply(FaultToleranceContext<V> ctx) throws Exception {
+        long timeoutNanos = config.getPolicy().getTimeoutNanos();
+        long start = System.nanoTime();
+        Watchdog watchdog = new Watchdog();
+        watchdog.arm(timer, timeoutNanos);
+        V result;
+        try {
+            result = delegate.apply(ctx);
+        } catch (Throwable e) {
+            if (watchdog.disarm()) {
+                metrics.timeoutFinished(true, System.nanoTime() - start);
+                throw new TimeoutException(description + " timed out");
+            }
+            metrics.timeoutFinished(false, System.nanoTime() - start);
+            throw e;
+        }
+        boolean timedOut = watchdog.disarm();
+        metrics.timeoutFinished(timedOut, System.nanoTime() - start);
+        if (timedOut) {
+            throw new TimeoutException(description + " timed out");
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.engine;
+
+import org.eclipse.microprofile.faulttolerance.exceptions.BulkheadException;
+
+import io.smallrye.faulttolerance.config.BulkheadConfig;
+import io.smallrye.faulttolerance.config.BulkheadPolicy;
+import io.smallrye.faulttolerance.metrics.MetricsRecorder;
+
+/**
+ * Bulkhead for synchronous invocations, an invocation is rejected immediately if there are no free permits.
+ */
+final class SemaphoreBulkhead<V> implements FaultToleranceStrategy<V> {
+
+    private final FaultToleranceStrategy<V> delegate;
+
+    private final String description;
+
+    private final BulkheadPermits permits;
+
+    private final MetricsRecorder metrics;
+
+    SemaphoreBulkhead(FaultToleranceStrategy<V> delegate, String description, BulkheadConfig config,
+            MetricsRecorder metrics) {
+        this.delegate = delegate;
+        this.description = description;
+        this.permits = new BulkheadPermits(config);
+        this.metrics = metrics;
+        metrics.bulkheadGauges(permits::getRunning, null);
+    }
+
+    @Override
+    public V apply(FaultToleranceContext<V> ctx) throws Exception {
+        BulkheadPolicy policy = permits.refresh();
+        if (!permits.tryAcquire()) {
+            metrics.bulkheadRejected();
+            throw new BulkheadException(description + " rejected from bulkhead [size: " + policy.getSize() + "]");
+        }
+        metrics.bulkheadAccepted();
+        long start = System.nanoTime();
+        try {
+            return delegate.apply(ctx);
+        } finally {
+            permits.release();
+            metrics.bulkheadExecutionFinished(System.nanoTime() - start);
+        }
+    }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.engine;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.faulttolerance.exceptions.TimeoutException;
+
+import io.smallrye.faulttolerance.config.TimeoutConfig;
+import io.smallrye.faulttolerance.metrics.MetricsRecorder;
+
+/**
+ * The guarded invocation is executed on the timeout executor so that the calling thread can give up waiting once the
+ * timeout elapses. The execution thread is interrupted on timeout.
+ *
+ * @see io.smallrye.faulttolerance.AsyncExecutorProvider#getTimeoutExecutorService()
+ */
+final class Timeout<V> implements FaultToleranceStrategy<V> {
+
+    private final FaultToleranceStrategy<V> delegate;
+
+    private final String description;
+
+    private final TimeoutConfig config;
+
+    private final ExecutorService executor;
+
+    private final MetricsRecorder metrics;
+
+    Timeout(FaultToleranceStrategy<V> delegate, String description, TimeoutConfig config, ExecutorService executor,
+            MetricsRecorder metrics) {
+        this.delegate = delegate;
+        this.description = description;
+        this.config = config;
+        this.executor = executor;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public V apply(FaultToleranceContext<V> ctx) throws Exception {
+        long timeoutNanos = config.getPolicy().getTimeoutNanos();
+        long start = System.nanoTime();
+        Future<V> future = executor.submit(() -> delegate.apply(ctx));
+        try {
+            V result = future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+            metrics.timeoutFinished(false, System.nanoTime() - start);
+            return result;
+        } catch (java.util.concurrent.TimeoutException e) {
+            future.cancel(true);
+            metrics.timeoutFinished(true, System.nanoTime() - start);
+            throw new TimeoutException(description + " timed out");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            metrics.timeoutFinished(false, System.nanoTime() - start);
+            throw Exceptions.unwrap(e);
+        }
+    }
+
+}
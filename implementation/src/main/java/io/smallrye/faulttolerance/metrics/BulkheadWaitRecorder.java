@@ -15,12 +15,6 @@
  */
 package io.smallrye.faulttolerance.metrics;
 
-import org.eclipse.microprofile.metrics.Histogram;
-import org.eclipse.microprofile.metrics.MetricID;
-import org.eclipse.microprofile.metrics.MetricRegistry;
-import org.eclipse.microprofile.metrics.MetricType;
-import org.jboss.logging.Logger;
-
 import io.smallrye.faulttolerance.CommandListener;
 import io.smallrye.faulttolerance.config.FaultToleranceOperation;
 
@@ -29,38 +23,17 @@ import io.smallrye.faulttolerance.config.FaultToleranceOperation;
  */
 public class BulkheadWaitRecorder implements CommandListener {
 
-    private static final Logger LOGGER = Logger.getLogger(BulkheadWaitRecorder.class);
-
     private final long enqueuedTime;
-    private final MetricRegistry registry;
+    private final MetricsRecorder metrics;
 
-    public BulkheadWaitRecorder(MetricRegistry registry) {
-        this.registry = registry;
+    public BulkheadWaitRecorder(MetricsRecorder metrics) {
+        this.metrics = metrics;
         enqueuedTime = System.nanoTime();
     }
 
     @Override
     public void beforeExecution(FaultToleranceOperation operation) {
-        try {
-            histogramOf(operation)
-                    .update(System.nanoTime() - enqueuedTime);
-        } catch (Exception any) {
-            LOGGER.warn("Failed to update metrics", any);
-        }
+        metrics.bulkheadWaitingFinished(System.nanoTime() - enqueuedTime);
     }
 
-    private Histogram histogramOf(FaultToleranceOperation operation) {
-        String name = MetricNames.metricsPrefix(operation.getMethod()) + MetricNames.BULKHEAD_WAITING_DURATION;
-        MetricID metricID = new MetricID(name);
-        Histogram histogram = registry.getHistograms().get(metricID);
-        if (histogram == null) {
-            synchronized (operation) {
-                histogram = registry.getHistograms().get(metricID);
-                if (histogram == null) {
-                    histogram = registry.histogram(MetricsCollectorFactory.metadataOf(name, MetricType.HISTOGRAM));
-                }
-            }
-        }
-        return histogram;
-    }
 }
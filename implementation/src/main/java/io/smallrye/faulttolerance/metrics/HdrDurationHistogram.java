@@ -0,0 +1,215 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.metrics;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.HdrHistogram.AbstractHistogram;
+import org.HdrHistogram.HistogramIterationValue;
+import org.HdrHistogram.IntCountsHistogram;
+import org.HdrHistogram.Recorder;
+import org.eclipse.microprofile.metrics.Histogram;
+import org.eclipse.microprofile.metrics.Snapshot;
+
+/**
+ * A histogram of durations in nanoseconds backed by an HdrHistogram {@link Recorder}. Recording a value is wait-free
+ * and takes constant time. Recorded values are moved to a window of {@value #WINDOW_BUCKETS} buckets of
+ * {@value #BUCKET_SECONDS} seconds each when the histogram is read, so the percentiles and the maximum are computed
+ * from all values recorded in about the last two minutes rather than from a sample, and a recent change of the latency
+ * is not hidden by older values. The count includes all recorded values.
+ * <p>
+ * Values are recorded with two significant digits and a resolution of about one microsecond, durations longer than one
+ * hour are recorded as one hour. The memory used by the histogram is therefore bounded.
+ * </p>
+ *
+ * @see io.smallrye.faulttolerance.HystrixCommandInterceptor#HDR_HISTOGRAMS_KEY
+ */
+final class HdrDurationHistogram implements Histogram {
+
+    private static final long LOWEST_DISCERNIBLE_VALUE = TimeUnit.MICROSECONDS.toNanos(1);
+
+    private static final long HIGHEST_TRACKABLE_VALUE = TimeUnit.HOURS.toNanos(1);
+
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    static final int WINDOW_BUCKETS = 4;
+
+    static final long BUCKET_SECONDS = 30;
+
+    private static final long BUCKET_NANOS = TimeUnit.SECONDS.toNanos(BUCKET_SECONDS);
+
+    private final Recorder recorder = new Recorder(LOWEST_DISCERNIBLE_VALUE, HIGHEST_TRACKABLE_VALUE,
+            SIGNIFICANT_DIGITS);
+
+    private final LongSupplier nanoTime;
+
+    // guarded by this, values are moved to the bucket of the time they are collected
+    private final AbstractHistogram[] buckets = new AbstractHistogram[WINDOW_BUCKETS];
+
+    // guarded by this
+    private final long[] bucketEpochs = new long[WINDOW_BUCKETS];
+
+    // guarded by this
+    private long count;
+
+    // guarded by this, recycled by the recorder
+    private org.HdrHistogram.Histogram interval;
+
+    HdrDurationHistogram() {
+        this(System::nanoTime);
+    }
+
+    /**
+     *
+     * @param nanoTime the source of {@link System#nanoTime()}
+     */
+    HdrDurationHistogram(LongSupplier nanoTime) {
+        this.nanoTime = nanoTime;
+        for (int i = 0; i < WINDOW_BUCKETS; i++) {
+            // a bucket only holds the values of a few seconds
+            buckets[i] = new IntCountsHistogram(LOWEST_DISCERNIBLE_VALUE, HIGHEST_TRACKABLE_VALUE, SIGNIFICANT_DIGITS);
+            bucketEpochs[i] = Long.MIN_VALUE;
+        }
+    }
+
+    @Override
+    public void update(int value) {
+        update((long) value);
+    }
+
+    @Override
+    public void update(long value) {
+        recorder.recordValue(Math.max(0, Math.min(value, HIGHEST_TRACKABLE_VALUE)));
+    }
+
+    @Override
+    public synchronized long getCount() {
+        collect();
+        return count;
+    }
+
+    @Override
+    public synchronized Snapshot getSnapshot() {
+        long epoch = collect();
+        org.HdrHistogram.Histogram window = new org.HdrHistogram.Histogram(LOWEST_DISCERNIBLE_VALUE,
+                HIGHEST_TRACKABLE_VALUE, SIGNIFICANT_DIGITS);
+        for (int i = 0; i < WINDOW_BUCKETS; i++) {
+            if (bucketEpochs[i] > epoch - WINDOW_BUCKETS) {
+                window.add(buckets[i]);
+            }
+        }
+        return new HdrSnapshot(window);
+    }
+
+    /**
+     *
+     * @return the epoch of the current bucket
+     */
+    private long collect() {
+        long epoch = Math.floorDiv(nanoTime.getAsLong(), BUCKET_NANOS);
+        int slot = (int) Math.floorMod(epoch, (long) WINDOW_BUCKETS);
+        if (bucketEpochs[slot] != epoch) {
+            // the bucket fell out of the window
+            buckets[slot].reset();
+            bucketEpochs[slot] = epoch;
+        }
+        interval = recorder.getIntervalHistogram(interval);
+        buckets[slot].add(interval);
+        count += interval.getTotalCount();
+        return epoch;
+    }
+
+    private static final class HdrSnapshot extends Snapshot {
+
+        private final org.HdrHistogram.Histogram histogram;
+
+        HdrSnapshot(org.HdrHistogram.Histogram histogram) {
+            this.histogram = histogram;
+        }
+
+        @Override
+        public double getValue(double quantile) {
+            return histogram.getValueAtPercentile(quantile * 100);
+        }
+
+        /**
+         * HdrHistogram does not keep individual values, so each distinct recorded value is only returned once.
+         */
+        @Override
+        public long[] getValues() {
+            long[] values = new long[countDistinctValues()];
+            int i = 0;
+            for (HistogramIterationValue value : histogram.recordedValues()) {
+                values[i++] = value.getValueIteratedTo();
+            }
+            return values;
+        }
+
+        /**
+         * The number of distinct recorded values, i.e. the length of {@link #getValues()}. The number of recorded values
+         * is the count of the histogram.
+         */
+        @Override
+        public int size() {
+            return countDistinctValues();
+        }
+
+        @Override
+        public long getMax() {
+            return histogram.getMaxValue();
+        }
+
+        @Override
+        public double getMean() {
+            return histogram.getMean();
+        }
+
+        @Override
+        public long getMin() {
+            return histogram.getMinValue();
+        }
+
+        @Override
+        public double getStdDev() {
+            return histogram.getStdDeviation();
+        }
+
+        @Override
+        public void dump(OutputStream output) {
+            // the stream is owned by the caller, so it is only flushed
+            PrintWriter out = new PrintWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            for (long value : getValues()) {
+                out.printf("%d%n", value);
+            }
+            out.flush();
+        }
+
+        private int countDistinctValues() {
+            int count = 0;
+            for (HistogramIterationValue ignored : histogram.recordedValues()) {
+                count++;
+            }
+            return count;
+        }
+
+    }
+
+}
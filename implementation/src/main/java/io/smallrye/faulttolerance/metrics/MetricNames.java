@@ -18,6 +18,8 @@ public final class MetricNames {
     public static final String RETRY_CALLS_SUCCEEDED_RETRIED_TOTAL = ".retry.callsSucceededRetried.total";
     public static final String RETRY_CALLS_SUCCEEDED_NOT_RETRIED_TOTAL = ".retry.callsSucceededNotRetried.total";
     public static final String RETRY_CALLS_FAILED_TOTAL = ".retry.callsFailed.total";
+    public static final String RETRY_DELAY = ".retry.delay";
+    public static final String RETRY_RETRIES_DENIED_TOTAL = ".retry.retriesDenied.total";
 
     static final String TIMEOUT_CALLS_NOT_TIMED_OUT_TOTAL = ".timeout.callsNotTimedOut.total";
     static final String TIMEOUT_CALLS_TIMED_OUT_TOTAL = ".timeout.callsTimedOut.total";
@@ -40,4 +42,6 @@ public final class MetricNames {
 
     static final String FALLBACK_CALLS_TOTAL = ".fallback.calls.total";
 
+    static final String VIRTUAL_THREAD_PINNED_TOTAL = ".virtualThread.pinned.total";
+
 }
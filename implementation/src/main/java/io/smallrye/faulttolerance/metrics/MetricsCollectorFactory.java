@@ -1,5 +1,8 @@
 package io.smallrye.faulttolerance.metrics;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
 import java.util.function.Supplier;
 
 import javax.enterprise.context.ApplicationScoped;
@@ -42,15 +45,50 @@ public class MetricsCollectorFactory {
     @ConfigProperty(name = "MP_Fault_Tolerance_Metrics_Enabled", defaultValue = "true")
     Boolean metricsEnabled;
 
-    public MetricsCollector createCollector(FaultToleranceOperation operation, RetryContext retryContext,
-            HystrixThreadPoolKey threadPoolKey) {
-        if (metricsEnabled) {
-            return new MetricsCollectorImpl(operation, retryContext, threadPoolKey);
+    @Inject
+    @ConfigProperty(name = HystrixCommandInterceptor.STRIPED_COUNTERS_KEY, defaultValue = "false")
+    Boolean stripedCounters;
+
+    @Inject
+    @ConfigProperty(name = HystrixCommandInterceptor.HDR_HISTOGRAMS_KEY, defaultValue = "true")
+    Boolean hdrHistograms;
+
+    private final ConcurrentMap<String, MetricsRecorderImpl> recorders = new ConcurrentHashMap<>();
+
+    /**
+     *
+     * @param operation
+     * @param recorder the recorder of the operation, see {@link #createRecorder(FaultToleranceOperation)}
+     * @param retryContext
+     * @param threadPoolKey
+     * @return a collector for a single invocation of the given operation executed by Hystrix
+     */
+    public MetricsCollector createCollector(FaultToleranceOperation operation, MetricsRecorder recorder,
+            RetryContext retryContext, HystrixThreadPoolKey threadPoolKey) {
+        if (recorder instanceof MetricsRecorderImpl) {
+            return new MetricsCollectorImpl(operation, (MetricsRecorderImpl) recorder, retryContext, threadPoolKey);
         } else {
             return MetricsCollector.NOOP;
         }
     }
 
+    /**
+     * The metrics of an operation are resolved once, when they are first used, and the recorder is shared by all
+     * invocations of the operation. Callers should keep the recorder, so that recording a metric is a field read plus
+     * an update.
+     *
+     * @param operation
+     * @return the recorder of the given operation
+     */
+    public MetricsRecorder createRecorder(FaultToleranceOperation operation) {
+        if (metricsEnabled) {
+            return recorders.computeIfAbsent(MetricNames.metricsPrefix(operation.getMethod()),
+                    prefix -> new MetricsRecorderImpl(operation, prefix));
+        } else {
+            return MetricsRecorder.NOOP;
+        }
+    }
+
     public MetricRegistry getRegistry() {
         return registry;
     }
@@ -59,14 +97,11 @@ public class MetricsCollectorFactory {
         return metricsEnabled;
     }
 
-    /**
-     * TODO: SmallRye MetricRegistry is not thread-safe and so we synchronize on FaultToleranceOperation
-     */
     class MetricsCollectorImpl implements MetricsCollector {
 
         private final FaultToleranceOperation operation;
 
-        private final String metricsPrefix;
+        private final MetricsRecorderImpl metrics;
 
         private final RetryContext retryContext;
 
@@ -76,76 +111,71 @@ public class MetricsCollectorFactory {
 
         private long start;
 
-        MetricsCollectorImpl(FaultToleranceOperation operation, RetryContext retryContext, HystrixThreadPoolKey threadPoolKey) {
+        MetricsCollectorImpl(FaultToleranceOperation operation, MetricsRecorderImpl metrics, RetryContext retryContext,
+                HystrixThreadPoolKey threadPoolKey) {
             this.operation = operation;
+            this.metrics = metrics;
             this.retryContext = retryContext;
             this.threadPoolKey = threadPoolKey;
-            this.metricsPrefix = MetricNames.metricsPrefix(operation.getMethod());
         }
 
         @Override
         public void init(SynchronousCircuitBreaker circuitBreaker) {
-            runSafely(() -> {
-                counterInc(metricsPrefix + MetricNames.INVOCATIONS_TOTAL);
-                start = 0;
-                if (circuitBreaker != null) {
-                    gaugeRegister(metricsPrefix + MetricNames.CB_OPEN_TOTAL, circuitBreaker::getOpenTotal);
-                    gaugeRegister(metricsPrefix + MetricNames.CB_CLOSED_TOTAL, circuitBreaker::getClosedTotal);
-                    gaugeRegister(metricsPrefix + MetricNames.CB_HALF_OPEN_TOTAL, circuitBreaker::getHalfOpenTotal);
-                }
-            });
+            metrics.invocationsTotal.inc();
+            start = 0;
+            if (circuitBreaker != null) {
+                metrics.circuitBreakerGauges(circuitBreaker);
+            }
         }
 
         @Override
         public void beforeExecute(SimpleCommand command) {
-            runSafely(() -> {
-                start = System.nanoTime();
-                if (retryContext != null && retryContext.hasBeenRetried()) {
-                    counterInc(metricsPrefix + MetricNames.RETRY_RETRIES_TOTAL);
-                }
-                if (operation.hasBulkhead()) {
+            start = System.nanoTime();
+            if (retryContext != null && retryContext.hasBeenRetried()) {
+                metrics.retryRetriesTotal.inc();
+                metrics.retryDelay.update(retryContext.getLastDelay());
+            }
+            if (operation.hasBulkhead() && !metrics.bulkheadGaugesRegistered) {
+                runSafely(() -> {
+                    LongSupplier waitingQueuePopulation = null;
                     if (operation.isAsync()) {
                         HystrixThreadPoolMetrics threadPoolMetrics = HystrixThreadPoolMetrics.getInstance(threadPoolKey);
-                        gaugeRegister(metricsPrefix + MetricNames.BULKHEAD_WAITING_QUEUE_POPULATION,
-                                () -> threadPoolMetrics.getCurrentQueueSize().longValue());
+                        waitingQueuePopulation = () -> threadPoolMetrics.getCurrentQueueSize().longValue();
                     }
                     HystrixCommandMetrics hcm = command.getMetrics();
-                    gaugeRegister(metricsPrefix + MetricNames.BULKHEAD_CONCURRENT_EXECUTIONS,
-                            () -> (long) hcm.getCurrentConcurrentExecutionCount());
-                }
-            });
+                    metrics.bulkheadGauges(() -> (long) hcm.getCurrentConcurrentExecutionCount(), waitingQueuePopulation);
+                });
+            }
         }
 
         @Override
         public void afterSuccess(SimpleCommand command) {
-            runSafely(() -> {
-                if (retryContext != null) {
-                    if (retryContext.hasBeenRetried()) {
-                        counterInc(metricsPrefix + MetricNames.RETRY_CALLS_SUCCEEDED_RETRIED_TOTAL);
-                    } else {
-                        counterInc(metricsPrefix + MetricNames.RETRY_CALLS_SUCCEEDED_NOT_RETRIED_TOTAL);
-                    }
-                }
-                if (operation.hasTimeout()) {
-                    counterInc(metricsPrefix + MetricNames.TIMEOUT_CALLS_NOT_TIMED_OUT_TOTAL);
-                }
-                if (operation.hasCircuitBreaker()) {
-                    counterInc(metricsPrefix + MetricNames.CB_CALLS_SUCCEEDED_TOTAL);
+            if (retryContext != null) {
+                if (retryContext.hasBeenRetried()) {
+                    metrics.retryCallsSucceededRetriedTotal.inc();
+                } else {
+                    metrics.retryCallsSucceededNotRetriedTotal.inc();
                 }
-                if (operation.hasBulkhead()) {
-                    counterInc(metricsPrefix + MetricNames.BULKHEAD_CALLS_ACCEPTED_TOTAL);
-                    if (start != 0) {
-                        histogramUpdate(metricsPrefix + MetricNames.BULKHEAD_EXECUTION_DURATION, System.nanoTime() - start);
-                    }
-                    // TODO: I have no idea where to take this value
-                    // HystrixCommandMetrics hcm = command.getMetrics();
-                    // long execution = hcm.getExecutionTimePercentile(50) * 1000000;
-                    // histogramUpdate(metricsPrefix + MetricNames.BULKHEAD_EXECUTION_DURATION, execution);
-                    // if (operation.isAsync()) {
-                    // histogramUpdate(metricsPrefix + MetricNames.BULKHEAD_WAITING_DURATION, hcm.getTotalTimePercentile(50) * 1000000 - execution);
-                    // }
+            }
+            if (operation.hasTimeout()) {
+                metrics.timeoutCallsNotTimedOutTotal.inc();
+            }
+            if (operation.hasCircuitBreaker()) {
+                metrics.circuitBreakerCallsSucceededTotal.inc();
+            }
+            if (operation.hasBulkhead()) {
+                metrics.bulkheadCallsAcceptedTotal.inc();
+                if (start != 0) {
+                    metrics.bulkheadExecutionDuration.update(System.nanoTime() - start);
                 }
-            });
+                // TODO: I have no idea where to take this value
+                // HystrixCommandMetrics hcm = command.getMetrics();
+                // long execution = hcm.getExecutionTimePercentile(50) * 1000000;
+                // histogramUpdate(metricsPrefix + MetricNames.BULKHEAD_EXECUTION_DURATION, execution);
+                // if (operation.isAsync()) {
+                // histogramUpdate(metricsPrefix + MetricNames.BULKHEAD_WAITING_DURATION, hcm.getTotalTimePercentile(50) * 1000000 - execution);
+                // }
+            }
         }
 
         @Override
@@ -154,33 +184,33 @@ public class MetricsCollectorFactory {
                 if (operation.hasBulkhead()
                         && (FailureType.REJECTED_THREAD_EXECUTION == e.getFailureType()
                                 || FailureType.REJECTED_SEMAPHORE_EXECUTION == e.getFailureType())) {
-                    counterInc(metricsPrefix + MetricNames.BULKHEAD_CALLS_REJECTED_TOTAL);
+                    metrics.bulkheadCallsRejectedTotal.inc();
                 }
 
                 if (operation.hasCircuitBreaker()) {
                     if (e.getFailureType() == FailureType.SHORTCIRCUIT) {
-                        counterInc(metricsPrefix + MetricNames.CB_CALLS_PREVENTED_TOTAL);
+                        metrics.circuitBreakerCallsPreventedTotal.inc();
                     } else {
                         if (circuitBreakerFailsOn(e, command)) {
-                            counterInc(metricsPrefix + MetricNames.CB_CALLS_FAILED_TOTAL);
+                            metrics.circuitBreakerCallsFailedTotal.inc();
                         } else {
-                            counterInc(metricsPrefix + MetricNames.CB_CALLS_SUCCEEDED_TOTAL);
+                            metrics.circuitBreakerCallsSucceededTotal.inc();
                         }
                     }
                     isCircuitBreakerOpenBeforeExceptionProcessing = command.getCircuitBreaker().isOpen();
                 }
 
                 if (e.getFallbackException() != null && (retryContext == null || retryContext.isLastAttempt())) {
-                    counterInc(metricsPrefix + MetricNames.FALLBACK_CALLS_TOTAL);
+                    metrics.fallbackCallsTotal.inc();
                 }
 
                 if (retryContext != null) {
                     if (retryContext.isLastAttempt()) {
-                        counterInc(metricsPrefix + MetricNames.RETRY_CALLS_FAILED_TOTAL);
-                        counterInc(metricsPrefix + MetricNames.INVOCATIONS_FAILED_TOTAL);
+                        metrics.retryCallsFailedTotal.inc();
+                        metrics.invocationsFailedTotal.inc();
                     }
                 } else {
-                    counterInc(metricsPrefix + MetricNames.INVOCATIONS_FAILED_TOTAL);
+                    metrics.invocationsFailedTotal.inc();
                 }
             });
         }
@@ -202,75 +232,319 @@ public class MetricsCollectorFactory {
             runSafely(() -> {
                 HystrixCircuitBreaker cb = command.getCircuitBreaker();
                 if (cb != null && cb.isOpen() && !isCircuitBreakerOpenBeforeExceptionProcessing) {
-                    counterInc(metricsPrefix + MetricNames.CB_OPENED_TOTAL);
+                    metrics.circuitBreakerOpenedTotal.inc();
                 }
                 if (exception != null && TimeoutException.class.equals(exception.getClass())) {
-                    counterInc(metricsPrefix + MetricNames.TIMEOUT_CALLS_TIMED_OUT_TOTAL);
+                    metrics.timeoutCallsTimedOutTotal.inc();
                 }
             });
         }
 
         @Override
         public void afterExecute(SimpleCommand command) {
+            if (start != 0 && operation.hasTimeout()) {
+                metrics.timeoutExecutionDuration.update(System.nanoTime() - start);
+            }
+            if (command.isResponseFromFallback()) {
+                metrics.fallbackCallsTotal.inc();
+            }
+        }
+
+    }
+
+    /**
+     * The metrics of one operation. Each metric is looked up in the registry, and registered if needed, the first time
+     * it is updated; the metrics of an operation are only registered if the operation uses them.
+     */
+    class MetricsRecorderImpl implements MetricsRecorder {
+
+        private final FaultToleranceOperation operation;
+
+        final CounterHandle invocationsTotal;
+        final CounterHandle invocationsFailedTotal;
+        final CounterHandle retryRetriesTotal;
+        final CounterHandle retryRetriesDeniedTotal;
+        final CounterHandle retryCallsSucceededRetriedTotal;
+        final CounterHandle retryCallsSucceededNotRetriedTotal;
+        final CounterHandle retryCallsFailedTotal;
+        final HistogramHandle retryDelay;
+        final CounterHandle timeoutCallsTimedOutTotal;
+        final CounterHandle timeoutCallsNotTimedOutTotal;
+        final HistogramHandle timeoutExecutionDuration;
+        final CounterHandle circuitBreakerCallsSucceededTotal;
+        final CounterHandle circuitBreakerCallsFailedTotal;
+        final CounterHandle circuitBreakerCallsPreventedTotal;
+        final CounterHandle circuitBreakerOpenedTotal;
+        final CounterHandle bulkheadCallsAcceptedTotal;
+        final CounterHandle bulkheadCallsRejectedTotal;
+        final HistogramHandle bulkheadWaitingDuration;
+        final HistogramHandle bulkheadExecutionDuration;
+        final CounterHandle fallbackCallsTotal;
+        final CounterHandle virtualThreadPinnedTotal;
+
+        private final String metricsPrefix;
+
+        private volatile boolean circuitBreakerGaugesRegistered;
+
+        volatile boolean bulkheadGaugesRegistered;
+
+        MetricsRecorderImpl(FaultToleranceOperation operation, String metricsPrefix) {
+            this.operation = operation;
+            this.metricsPrefix = metricsPrefix;
+            this.invocationsTotal = counter(MetricNames.INVOCATIONS_TOTAL);
+            this.invocationsFailedTotal = counter(MetricNames.INVOCATIONS_FAILED_TOTAL);
+            this.retryRetriesTotal = counter(MetricNames.RETRY_RETRIES_TOTAL);
+            this.retryRetriesDeniedTotal = counter(MetricNames.RETRY_RETRIES_DENIED_TOTAL);
+            this.retryCallsSucceededRetriedTotal = counter(MetricNames.RETRY_CALLS_SUCCEEDED_RETRIED_TOTAL);
+            this.retryCallsSucceededNotRetriedTotal = counter(MetricNames.RETRY_CALLS_SUCCEEDED_NOT_RETRIED_TOTAL);
+            this.retryCallsFailedTotal = counter(MetricNames.RETRY_CALLS_FAILED_TOTAL);
+            this.retryDelay = histogram(MetricNames.RETRY_DELAY);
+            this.timeoutCallsTimedOutTotal = counter(MetricNames.TIMEOUT_CALLS_TIMED_OUT_TOTAL);
+            this.timeoutCallsNotTimedOutTotal = counter(MetricNames.TIMEOUT_CALLS_NOT_TIMED_OUT_TOTAL);
+            this.timeoutExecutionDuration = histogram(MetricNames.TIMEOUT_EXECUTION_DURATION);
+            this.circuitBreakerCallsSucceededTotal = counter(MetricNames.CB_CALLS_SUCCEEDED_TOTAL);
+            this.circuitBreakerCallsFailedTotal = counter(MetricNames.CB_CALLS_FAILED_TOTAL);
+            this.circuitBreakerCallsPreventedTotal = counter(MetricNames.CB_CALLS_PREVENTED_TOTAL);
+            this.circuitBreakerOpenedTotal = counter(MetricNames.CB_OPENED_TOTAL);
+            this.bulkheadCallsAcceptedTotal = counter(MetricNames.BULKHEAD_CALLS_ACCEPTED_TOTAL);
+            this.bulkheadCallsRejectedTotal = counter(MetricNames.BULKHEAD_CALLS_REJECTED_TOTAL);
+            this.bulkheadWaitingDuration = histogram(MetricNames.BULKHEAD_WAITING_DURATION);
+            this.bulkheadExecutionDuration = histogram(MetricNames.BULKHEAD_EXECUTION_DURATION);
+            this.fallbackCallsTotal = counter(MetricNames.FALLBACK_CALLS_TOTAL);
+            this.virtualThreadPinnedTotal = counter(MetricNames.VIRTUAL_THREAD_PINNED_TOTAL);
+        }
+
+        @Override
+        public void circuitBreakerGauges(SynchronousCircuitBreaker circuitBreaker) {
+            if (circuitBreakerGaugesRegistered) {
+                return;
+            }
             runSafely(() -> {
-                if (start != 0 && operation.hasTimeout()) {
-                    histogramUpdate(metricsPrefix + MetricNames.TIMEOUT_EXECUTION_DURATION, System.nanoTime() - start);
-                }
-                if (command.isResponseFromFallback()) {
-                    counterInc(metricsPrefix + MetricNames.FALLBACK_CALLS_TOTAL);
+                gaugeRegister(operation, metricsPrefix + MetricNames.CB_OPEN_TOTAL, circuitBreaker::getOpenTotal);
+                gaugeRegister(operation, metricsPrefix + MetricNames.CB_CLOSED_TOTAL, circuitBreaker::getClosedTotal);
+                gaugeRegister(operation, metricsPrefix + MetricNames.CB_HALF_OPEN_TOTAL, circuitBreaker::getHalfOpenTotal);
+            });
+            circuitBreakerGaugesRegistered = true;
+        }
+
+        @Override
+        public void bulkheadGauges(LongSupplier concurrentExecutions, LongSupplier waitingQueuePopulation) {
+            if (bulkheadGaugesRegistered) {
+                return;
+            }
+            runSafely(() -> {
+                gaugeRegister(operation, metricsPrefix + MetricNames.BULKHEAD_CONCURRENT_EXECUTIONS,
+                        concurrentExecutions::getAsLong);
+                if (waitingQueuePopulation != null) {
+                    gaugeRegister(operation, metricsPrefix + MetricNames.BULKHEAD_WAITING_QUEUE_POPULATION,
+                            waitingQueuePopulation::getAsLong);
                 }
             });
+            bulkheadGaugesRegistered = true;
         }
 
-        private void counterInc(String name) {
-            counterOf(name).inc();
+        @Override
+        public void invocationStarted() {
+            invocationsTotal.inc();
         }
 
-        private void gaugeRegister(String name, Supplier<Long> supplier) {
-            MetricID metricID = new MetricID(name);
-            Gauge<?> gauge = registry.getGauges().get(metricID);
-            if (gauge == null) {
-                synchronized (operation) {
-                    gauge = registry.getGauges().get(metricID);
-                    if (gauge == null) {
-                        registry.register(name, (Gauge<Long>) supplier::get);
-                    }
+        @Override
+        public void invocationFailed() {
+            invocationsFailedTotal.inc();
+        }
+
+        @Override
+        public void retryRetried() {
+            retryRetriesTotal.inc();
+        }
+
+        @Override
+        public void retryDelayed(long delayNanos) {
+            retryDelay.update(delayNanos);
+        }
+
+        @Override
+        public void retryDenied() {
+            retryRetriesDeniedTotal.inc();
+        }
+
+        @Override
+        public void retrySucceeded(boolean retried) {
+            (retried ? retryCallsSucceededRetriedTotal : retryCallsSucceededNotRetriedTotal).inc();
+        }
+
+        @Override
+        public void retryFailed() {
+            retryCallsFailedTotal.inc();
+        }
+
+        @Override
+        public void timeoutFinished(boolean timedOut, long executionNanos) {
+            (timedOut ? timeoutCallsTimedOutTotal : timeoutCallsNotTimedOutTotal).inc();
+            timeoutExecutionDuration.update(executionNanos);
+        }
+
+        @Override
+        public void circuitBreakerFinished(boolean failed) {
+            (failed ? circuitBreakerCallsFailedTotal : circuitBreakerCallsSucceededTotal).inc();
+        }
+
+        @Override
+        public void circuitBreakerPrevented() {
+            circuitBreakerCallsPreventedTotal.inc();
+        }
+
+        @Override
+        public void circuitBreakerOpened() {
+            circuitBreakerOpenedTotal.inc();
+        }
+
+        @Override
+        public void bulkheadAccepted() {
+            bulkheadCallsAcceptedTotal.inc();
+        }
+
+        @Override
+        public void bulkheadRejected() {
+            bulkheadCallsRejectedTotal.inc();
+        }
+
+        @Override
+        public void bulkheadWaitingFinished(long waitingNanos) {
+            bulkheadWaitingDuration.update(waitingNanos);
+        }
+
+        @Override
+        public void bulkheadExecutionFinished(long executionNanos) {
+            bulkheadExecutionDuration.update(executionNanos);
+        }
+
+        @Override
+        public void fallbackCalled() {
+            fallbackCallsTotal.inc();
+        }
+
+        @Override
+        public void virtualThreadPinned() {
+            virtualThreadPinnedTotal.inc();
+        }
+
+        private CounterHandle counter(String suffix) {
+            return new CounterHandle(operation, metricsPrefix + suffix);
+        }
+
+        private HistogramHandle histogram(String suffix) {
+            return new HistogramHandle(operation, metricsPrefix + suffix);
+        }
+
+    }
+
+    /**
+     * A counter that is resolved on first use.
+     */
+    final class CounterHandle {
+
+        private final FaultToleranceOperation operation;
+
+        private final String name;
+
+        private volatile Counter counter;
+
+        CounterHandle(FaultToleranceOperation operation, String name) {
+            this.operation = operation;
+            this.name = name;
+        }
+
+        void inc() {
+            try {
+                Counter counter = this.counter;
+                if (counter == null) {
+                    counter = counterOf(operation, name);
+                    this.counter = counter;
                 }
+                counter.inc();
+            } catch (RuntimeException any) {
+                LOGGER.warn("Collecting metrics failed", any);
             }
         }
 
-        private void histogramUpdate(String name, long value) {
-            histogramOf(name).update(value);
+    }
+
+    /**
+     * A histogram that is resolved on first use.
+     */
+    final class HistogramHandle {
+
+        private final FaultToleranceOperation operation;
+
+        private final String name;
+
+        private volatile Histogram histogram;
+
+        HistogramHandle(FaultToleranceOperation operation, String name) {
+            this.operation = operation;
+            this.name = name;
         }
 
-        private Counter counterOf(String name) {
-            MetricID metricID = new MetricID(name);
-            Counter counter = registry.getCounters().get(metricID);
-            if (counter == null) {
-                synchronized (operation) {
-                    counter = registry.getCounters().get(metricID);
-                    if (counter == null) {
-                        counter = registry.counter(metadataOf(name, MetricType.COUNTER));
-                    }
+        void update(long value) {
+            try {
+                Histogram histogram = this.histogram;
+                if (histogram == null) {
+                    histogram = histogramOf(operation, name);
+                    this.histogram = histogram;
                 }
+                histogram.update(value);
+            } catch (RuntimeException any) {
+                LOGGER.warn("Collecting metrics failed", any);
             }
-            return counter;
         }
 
-        private Histogram histogramOf(String name) {
-            MetricID metricID = new MetricID(name);
-            Histogram histogram = registry.getHistograms().get(metricID);
-            if (histogram == null) {
-                synchronized (operation) {
-                    histogram = registry.getHistograms().get(metricID);
-                    if (histogram == null) {
-                        histogram = registry.histogram(metadataOf(name, MetricType.HISTOGRAM));
-                    }
+    }
+
+    private void gaugeRegister(FaultToleranceOperation operation, String name, Supplier<Long> supplier) {
+        MetricID metricID = new MetricID(name);
+        Gauge<?> gauge = registry.getGauges().get(metricID);
+        if (gauge == null) {
+            synchronized (operation) {
+                gauge = registry.getGauges().get(metricID);
+                if (gauge == null) {
+                    registry.register(name, (Gauge<Long>) supplier::get);
                 }
             }
-            return histogram;
         }
+    }
 
+    // TODO: SmallRye MetricRegistry is not thread-safe and so we synchronize on FaultToleranceOperation
+    private Counter counterOf(FaultToleranceOperation operation, String name) {
+        MetricID metricID = new MetricID(name);
+        Counter counter = registry.getCounters().get(metricID);
+        if (counter == null) {
+            synchronized (operation) {
+                counter = registry.getCounters().get(metricID);
+                if (counter == null) {
+                    counter = stripedCounters
+                            ? registry.register(metadataOf(name, MetricType.COUNTER), new StripedCounter())
+                            : registry.counter(metadataOf(name, MetricType.COUNTER));
+                }
+            }
+        }
+        return counter;
+    }
+
+    private Histogram histogramOf(FaultToleranceOperation operation, String name) {
+        MetricID metricID = new MetricID(name);
+        Histogram histogram = registry.getHistograms().get(metricID);
+        if (histogram == null) {
+            synchronized (operation) {
+                histogram = registry.getHistograms().get(metricID);
+                if (histogram == null) {
+                    histogram = hdrHistograms
+                            ? registry.register(metadataOf(name, MetricType.HISTOGRAM), new HdrDurationHistogram())
+                            : registry.histogram(metadataOf(name, MetricType.HISTOGRAM));
+                }
+            }
+        }
+        return histogram;
     }
 
     private void runSafely(Runnable runnable) {
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.metrics;
+
+import java.util.function.LongSupplier;
+
+import io.smallrye.faulttolerance.SynchronousCircuitBreaker;
+
+/**
+ * Records metrics of a single fault tolerance operation. Unlike {@link MetricsCollector}, an instance is created once
+ * per operation and shared by all invocations, so implementations must be thread-safe. The Hystrix based execution
+ * records through the recorder of the operation as well, see {@link MetricsCollectorFactory#createCollector}.
+ *
+ * @see io.smallrye.faulttolerance.engine.FaultToleranceEngine
+ */
+public interface MetricsRecorder {
+
+    MetricsRecorder NOOP = new MetricsRecorder() {
+
+        @Override
+        public void circuitBreakerGauges(SynchronousCircuitBreaker circuitBreaker) {
+        }
+
+        @Override
+        public void bulkheadGauges(LongSupplier concurrentExecutions, LongSupplier waitingQueuePopulation) {
+        }
+
+        @Override
+        public void invocationStarted() {
+        }
+
+        @Override
+        public void invocationFailed() {
+        }
+
+        @Override
+        public void retryRetried() {
+        }
+
+        @Override
+        public void retryDelayed(long delayNanos) {
+        }
+
+        @Override
+        public void retryDenied() {
+        }
+
+        @Override
+        public void retrySucceeded(boolean retried) {
+        }
+
+        @Override
+        public void retryFailed() {
+        }
+
+        @Override
+        public void timeoutFinished(boolean timedOut, long executionNanos) {
+        }
+
+        @Override
+        public void circuitBreakerFinished(boolean failed) {
+        }
+
+        @Override
+        public void circuitBreakerPrevented() {
+        }
+
+        @Override
+        public void circuitBreakerOpened() {
+        }
+
+        @Override
+        public void bulkheadAccepted() {
+        }
+
+        @Override
+        public void bulkheadRejected() {
+        }
+
+        @Override
+        public void bulkheadWaitingFinished(long waitingNanos) {
+        }
+
+        @Override
+        public void bulkheadExecutionFinished(long executionNanos) {
+        }
+
+        @Override
+        public void fallbackCalled() {
+        }
+
+        @Override
+        public void virtualThreadPinned() {
+        }
+
+    };
+
+    /**
+     * Register the circuit breaker state gauges.
+     *
+     * @param circuitBreaker
+     */
+    void circuitBreakerGauges(SynchronousCircuitBreaker circuitBreaker);
+
+    /**
+     * Register the bulkhead gauges.
+     *
+     * @param concurrentExecutions
+     * @param waitingQueuePopulation May be null if the bulkhead has no waiting queue
+     */
+    void bulkheadGauges(LongSupplier concurrentExecutions, LongSupplier waitingQueuePopulation);
+
+    void invocationStarted();
+
+    /**
+     * The invocation failed, i.e. an exception was propagated to the caller.
+     */
+    void invocationFailed();
+
+    void retryRetried();
+
+    /**
+     *
+     * @param delayNanos the delay before the next retry, as computed by the backoff strategy
+     */
+    void retryDelayed(long delayNanos);
+
+    /**
+     * A retry was not allowed because the retry budget is spent.
+     *
+     * @see io.smallrye.faulttolerance.RetryBudget
+     */
+    void retryDenied();
+
+    void retrySucceeded(boolean retried);
+
+    void retryFailed();
+
+    void timeoutFinished(boolean timedOut, long executionNanos);
+
+    /**
+     *
+     * @param failed {@code true} if the outcome was recorded as a failure by the circuit breaker
+     */
+    void circuitBreakerFinished(boolean failed);
+
+    void circuitBreakerPrevented();
+
+    void circuitBreakerOpened();
+
+    void bulkheadAccepted();
+
+    void bulkheadRejected();
+
+    void bulkheadWaitingFinished(long waitingNanos);
+
+    void bulkheadExecutionFinished(long executionNanos);
+
+    void fallbackCalled();
+
+    /**
+     * A virtual thread executing the operation was pinned to its carrier thread while blocked.
+     *
+     * @see io.smallrye.faulttolerance.VirtualThreadPinningMonitor
+     */
+    void virtualThreadPinned();
+
+}
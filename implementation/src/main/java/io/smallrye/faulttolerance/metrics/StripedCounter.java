@@ -0,0 +1,48 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.microprofile.metrics.Counter;
+
+/**
+ * A counter that spreads concurrent increments over several cells, so that threads updating the same counter do not
+ * contend on a single memory location. The cells are only summed when the count is read, for example when the metrics
+ * are scraped.
+ *
+ * @see io.smallrye.faulttolerance.HystrixCommandInterceptor#STRIPED_COUNTERS_KEY
+ */
+final class StripedCounter implements Counter {
+
+    private final LongAdder adder = new LongAdder();
+
+    @Override
+    public void inc() {
+        adder.increment();
+    }
+
+    @Override
+    public void inc(long n) {
+        adder.add(n);
+    }
+
+    @Override
+    public long getCount() {
+        return adder.sum();
+    }
+
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.timer;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.jboss.logging.Logger;
+
+/**
+ * Timer for timeouts. Deadlines are kept with nanosecond resolution and a task runs on the first tick at or after its
+ * deadline, so the precision is the tick duration. Scheduling and cancelling a task is O(1) and does not allocate, the
+ * task is linked directly into one of the buckets of the wheel.
+ * <p>
+ * Tasks run on the single timer thread and must not block. The timer thread only wakes up on every tick while there is
+ * a scheduled task, an idle timer does not consume any CPU.
+ * </p>
+ */
+public final class HashedWheelTimer {
+
+    private static final Logger LOGGER = Logger.getLogger(HashedWheelTimer.class);
+
+    private final long tickNanos;
+
+    private final Bucket[] wheel;
+
+    private final int mask;
+
+    private final long startTime;
+
+    private final AtomicInteger scheduled = new AtomicInteger();
+
+    private final Thread worker;
+
+    // the last tick processed by the worker
+    private volatile long tick;
+
+    private volatile boolean stopped;
+
+    /**
+     *
+     * @param threadFactory creates the timer thread
+     * @param tickNanos the duration of a tick
+     * @param wheelSize the number of buckets, rounded up to a power of two
+     */
+    public HashedWheelTimer(ThreadFactory threadFactory, long tickNanos, int wheelSize) {
+        if (tickNanos <= 0) {
+            throw new IllegalArgumentException("Tick duration must be greater than 0: " + tickNanos);
+        }
+        if (wheelSize <= 0 || wheelSize > 1 << 30) {
+            throw new IllegalArgumentException("Wheel size must be between 1 and 2^30: " + wheelSize);
+        }
+        int size = Integer.highestOneBit(wheelSize - 1) << 1;
+        if (size == 0) {
+            size = 1;
+        }
+        this.tickNanos = tickNanos;
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.startTime = System.nanoTime();
+        this.worker = threadFactory.newThread(this::work);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Schedules the task to run once the delay elapses.
+     *
+     * @param task
+     * @param delayNanos
+     * @throws IllegalStateException if the task is already scheduled or the timer is stopped
+     */
+    public void schedule(TimerTask task, long delayNanos) {
+        if (stopped) {
+            throw new IllegalStateException("Timer is stopped");
+        }
+        long deadline = System.nanoTime() + Math.max(delayNanos, 0);
+        // the first tick at or after the deadline
+        long target = ceilDiv(deadline - startTime, tickNanos);
+        while (true) {
+            long current = tick;
+            if (target <= current) {
+                // already passed, run on the next tick
+                target = current + 1;
+            }
+            if (wheel[(int) (target & mask)].add(task, deadline, target)) {
+                break;
+            }
+            // the worker processed the target tick in the meantime
+            target = tick + 1;
+        }
+        if (scheduled.getAndIncrement() == 0) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    /**
+     * Stops the timer thread, scheduled tasks never run.
+     */
+    public void stop() {
+        stopped = true;
+        LockSupport.unpark(worker);
+    }
+
+    /**
+     *
+     * @return the duration of a tick
+     */
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    private void work() {
+        while (!stopped) {
+            if (scheduled.get() == 0) {
+                LockSupport.park(this);
+                continue;
+            }
+            long now = System.nanoTime();
+            long currentTick = (now - startTime) / tickNanos;
+            if (currentTick <= tick) {
+                LockSupport.parkNanos(this, startTime + (tick + 1) * tickNanos - now);
+                continue;
+            }
+            // after an idle period it is enough to process every bucket once, with the latest tick
+            for (long next = Math.max(tick + 1, currentTick - mask); next <= currentTick && !stopped; next++) {
+                TimerTask expired = wheel[(int) (next & mask)].expire(next);
+                tick = next;
+                while (expired != null) {
+                    TimerTask task = expired;
+                    expired = task.nextExpired;
+                    task.nextExpired = null;
+                    scheduled.decrementAndGet();
+                    try {
+                        task.run();
+                    } catch (Throwable e) {
+                        LOGGER.warn("Timer task failed", e);
+                    }
+                }
+            }
+        }
+    }
+
+    private static long ceilDiv(long x, long y) {
+        long q = x / y;
+        return q * y == x ? q : q + 1;
+    }
+
+    final class Bucket {
+
+        private TimerTask head;
+
+        // the last tick this bucket was processed for
+        private long processed = -1;
+
+        synchronized boolean add(TimerTask task, long deadline, long target) {
+            if (target <= processed) {
+                return false;
+            }
+            if (task.bucket != null) {
+                throw new IllegalStateException("Task is already scheduled");
+            }
+            task.deadline = deadline;
+            task.tick = target;
+            task.prev = null;
+            task.next = head;
+            if (head != null) {
+                head.prev = task;
+            }
+            head = task;
+            task.bucket = this;
+            return true;
+        }
+
+        synchronized boolean remove(TimerTask task) {
+            if (task.bucket != this) {
+                return false;
+            }
+            unlink(task);
+            scheduled.decrementAndGet();
+            return true;
+        }
+
+        /**
+         *
+         * @param tick
+         * @return the tasks that expire on the given tick, linked through {@link TimerTask#nextExpired}
+         */
+        synchronized TimerTask expire(long tick) {
+            processed = tick;
+            TimerTask expired = null;
+            TimerTask task = head;
+            while (task != null) {
+                TimerTask next = task.next;
+                if (task.tick <= tick) {
+                    unlink(task);
+                    task.nextExpired = expired;
+                    expired = task;
+                }
+                task = next;
+            }
+            return expired;
+        }
+
+        private void unlink(TimerTask task) {
+            if (task.prev != null) {
+                task.prev.next = task.next;
+            } else {
+                head = task.next;
+            }
+            if (task.next != null) {
+                task.next.prev = task.prev;
+            }
+            task.prev = null;
+            task.next = null;
+            task.bucket = null;
+        }
+
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.timer;
+
+/**
+ * A task that can be scheduled on a {@link HashedWheelTimer}. The task is itself the entry of the timer wheel, so that
+ * scheduling and cancelling the task does not allocate. A task can be scheduled again once it was cancelled or once it
+ * has started to run, but it can be scheduled on one timer at a time only.
+ */
+public abstract class TimerTask implements Runnable {
+
+    // all the fields are guarded by the lock of the bucket the task belongs to
+
+    volatile HashedWheelTimer.Bucket bucket;
+
+    TimerTask prev;
+
+    TimerTask next;
+
+    volatile long deadline;
+
+    long tick;
+
+    // only used by the timer thread
+    TimerTask nextExpired;
+
+    /**
+     * Cancels the task if it is scheduled and has not started to run yet.
+     *
+     * @return {@code true} if the task was cancelled
+     */
+    public boolean cancel() {
+        HashedWheelTimer.Bucket bucket = this.bucket;
+        return bucket != null && bucket.remove(this);
+    }
+
+    /**
+     *
+     * @return {@code true} if the task is scheduled and has not started to run yet
+     */
+    public boolean isScheduled() {
+        return bucket != null;
+    }
+
+    /**
+     *
+     * @return the {@link System#nanoTime()} the task is scheduled at, or the last time it was scheduled at
+     */
+    public long getDeadline() {
+        return deadline;
+    }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.timer;
+
+/**
+ * Interrupts a thread once a timeout elapses, so that a synchronous operation can be timed out on the calling thread.
+ * The interruption never outlives the watchdog: once {@link #disarm()} returns, the watched thread is no longer
+ * interrupted by the watchdog.
+ */
+public final class Watchdog extends TimerTask {
+
+    private final Thread thread;
+
+    // guarded by this
+    private boolean armed;
+
+    // guarded by this
+    private boolean fired;
+
+    /**
+     * Creates a watchdog for the current thread.
+     */
+    public Watchdog() {
+        this.thread = Thread.currentThread();
+    }
+
+    /**
+     *
+     * @param timer
+     * @param timeoutNanos
+     */
+    public void arm(HashedWheelTimer timer, long timeoutNanos) {
+        synchronized (this) {
+            armed = true;
+        }
+        timer.schedule(this, timeoutNanos);
+    }
+
+    /**
+     * Must be called on the watched thread. Clears the interrupted status of the thread if the watchdog fired.
+     *
+     * @return {@code true} if the timeout elapsed
+     */
+    public boolean disarm() {
+        cancel();
+        synchronized (this) {
+            armed = false;
+            if (fired) {
+                Thread.interrupted();
+            }
+            return fired;
+        }
+    }
+
+    @Override
+    public void run() {
+        synchronized (this) {
+            if (armed) {
+                fired = true;
+                thread.interrupt();
+            }
+        }
+    }
+
+}
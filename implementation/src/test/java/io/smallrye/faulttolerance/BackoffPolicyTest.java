@@ -0,0 +1,98 @@
+package io.smallrye.faulttolerance;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.faulttolerance.Retry;
+import org.junit.Test;
+
+import io.smallrye.faulttolerance.config.RetryConfig;
+
+public class BackoffPolicyTest {
+
+    @Test
+    public void testConstant() throws Exception {
+        BackoffPolicy backoff = new BackoffPolicy(config("constant"));
+        long previous = 0;
+        for (int retry = 1; retry <= 5; retry++) {
+            previous = backoff.nextDelayNanos(retry, previous);
+            assertEquals(millis(100), previous);
+        }
+    }
+
+    @Test
+    public void testExponential() throws Exception {
+        BackoffPolicy backoff = new BackoffPolicy(config("exponential"));
+        assertEquals(millis(100), backoff.nextDelayNanos(1, 0));
+        assertEquals(millis(200), backoff.nextDelayNanos(2, 0));
+        assertEquals(millis(400), backoff.nextDelayNanos(3, 0));
+        // capped by maxDelay
+        assertEquals(millis(500), backoff.nextDelayNanos(4, 0));
+        assertEquals(millis(500), backoff.nextDelayNanos(Integer.MAX_VALUE, 0));
+    }
+
+    @Test
+    public void testFibonacci() throws Exception {
+        BackoffPolicy backoff = new BackoffPolicy(config("fibonacci"));
+        long[] expected = { 100, 100, 200, 300, 500, 800 };
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(millis(expected[i]), backoff.nextDelayNanos(i + 1, 0));
+        }
+        // capped by maxDuration
+        assertEquals(millis(10000), backoff.nextDelayNanos(Integer.MAX_VALUE, 0));
+    }
+
+    @Test
+    public void testDecorrelatedJitter() throws Exception {
+        BackoffPolicy backoff = new BackoffPolicy(config("decorrelatedJitter"));
+        long previous = 0;
+        for (int retry = 1; retry <= 100; retry++) {
+            long delay = backoff.nextDelayNanos(retry, previous);
+            assertTrue(delay >= millis(100));
+            assertTrue(delay <= Math.min(millis(1000), 3 * Math.max(millis(100), previous)));
+            previous = delay;
+        }
+    }
+
+    @Test
+    public void testJitter() throws Exception {
+        BackoffPolicy backoff = new BackoffPolicy(config("jitter"));
+        for (int retry = 1; retry <= 100; retry++) {
+            long delay = backoff.nextDelayNanos(retry, 0);
+            assertTrue(delay >= millis(50));
+            assertTrue(delay <= millis(150));
+        }
+    }
+
+    private static long millis(long value) {
+        return TimeUnit.MILLISECONDS.toNanos(value);
+    }
+
+    private static RetryConfig config(String method) throws NoSuchMethodException {
+        RetryConfig config = new RetryConfig(Service.class, Service.class.getMethod(method));
+        config.validate();
+        return config;
+    }
+
+    interface Service {
+
+        @Retry(delay = 100, jitter = 0)
+        void constant();
+
+        @Retry(delay = 100, jitter = 0)
+        void exponential();
+
+        @Retry(delay = 100, jitter = 0, maxDuration = 10000)
+        void fibonacci();
+
+        @Retry(delay = 100, jitter = 0)
+        void decorrelatedJitter();
+
+        @Retry(delay = 100, jitter = 50)
+        void jitter();
+
+    }
+
+}
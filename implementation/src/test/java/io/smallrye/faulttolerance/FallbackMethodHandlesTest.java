@@ -0,0 +1,114 @@
+package io.smallrye.faulttolerance;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+
+public class FallbackMethodHandlesTest {
+
+    @Test
+    public void testInstanceMethod() throws Throwable {
+        MethodHandle handle = create(Service.class, "hello", String.class, int.class);
+        assertEquals("hello world 2", (Object) handle.invokeExact((Object) new Service(), new Object[] { "world", 2 }));
+    }
+
+    @Test
+    public void testOverriddenMethod() throws Throwable {
+        MethodHandle handle = create(Service.class, "hello", String.class, int.class);
+        assertEquals("hi world 2", (Object) handle.invokeExact((Object) new SubService(), new Object[] { "world", 2 }));
+    }
+
+    @Test
+    public void testPrimitiveAndVoid() throws Throwable {
+        MethodHandle count = create(Service.class, "count");
+        assertEquals(42, (Object) count.invokeExact((Object) new Service(), new Object[0]));
+        MethodHandle nothing = create(Service.class, "nothing");
+        assertNull((Object) nothing.invokeExact((Object) new Service(), new Object[0]));
+    }
+
+    @Test
+    public void testVarargsMethod() throws Throwable {
+        MethodHandle handle = create(Service.class, "join", String[].class);
+        assertEquals("a,b", (Object) handle.invokeExact((Object) new Service(), new Object[] { new String[] { "a", "b" } }));
+    }
+
+    @Test
+    public void testStaticMethod() throws Throwable {
+        MethodHandle handle = create(Service.class, "staticHello", String.class);
+        assertEquals("static world", (Object) handle.invokeExact((Object) new Service(), new Object[] { "world" }));
+    }
+
+    @Test
+    public void testDefaultMethod() throws Throwable {
+        MethodHandle handle = create(Greeting.class, "greet", String.class);
+        assertEquals("default world", (Object) handle.invokeExact((Object) new Greeting() {
+        }, new Object[] { "world" }));
+    }
+
+    @Test
+    public void testExceptionIsNotWrapped() throws Throwable {
+        MethodHandle handle = create(Service.class, "fail");
+        try {
+            Object ignored = (Object) handle.invokeExact((Object) new Service(), new Object[0]);
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    private static MethodHandle create(Class<?> clazz, String name, Class<?>... parameterTypes)
+            throws ReflectiveOperationException {
+        Method method = clazz.getDeclaredMethod(name, parameterTypes);
+        method.setAccessible(true);
+        return FallbackMethodHandles.create(method);
+    }
+
+    public interface Greeting {
+
+        default String greet(String name) {
+            return "default " + name;
+        }
+
+    }
+
+    static class Service {
+
+        String hello(String name, int times) {
+            return "hello " + name + " " + times;
+        }
+
+        private int count() {
+            return 42;
+        }
+
+        private void nothing() {
+        }
+
+        String join(String... values) {
+            return String.join(",", values);
+        }
+
+        private static String staticHello(String name) {
+            return "static " + name;
+        }
+
+        private String fail() {
+            throw new IllegalStateException();
+        }
+
+    }
+
+    static class SubService extends Service {
+
+        @Override
+        String hello(String name, int times) {
+            return "hi " + name + " " + times;
+        }
+
+    }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class FaultToleranceOperationIndexTest {
+
+    @Test
+    public void testRead() throws IOException {
+        Map<String, Set<String>> operations = new HashMap<>();
+        FaultToleranceOperationIndex.read(new BufferedReader(new StringReader(
+                "com.acme.HelloService\n\thello(java.lang.String)\n\tping()\ncom.acme.PlainService\n")), operations);
+        FaultToleranceOperationIndex.read(new BufferedReader(new StringReader(
+                "com.acme.HelloService\n\tlist(java.util.List)\n")), operations);
+
+        assertEquals(new HashSet<>(Arrays.asList("hello(java.lang.String)", "ping()", "list(java.util.List)")),
+                operations.get("com.acme.HelloService"));
+        assertTrue(operations.get("com.acme.PlainService").isEmpty());
+    }
+
+    @Test
+    public void testGetOperations() throws NoSuchMethodException {
+        Map<String, Set<String>> operations = new HashMap<>();
+        operations.put(Service.class.getName(), new HashSet<>(Arrays.asList("ping(java.lang.String[],int)")));
+        FaultToleranceOperationIndex index = new FaultToleranceOperationIndex(operations);
+
+        assertTrue(index.getOperations(Service.class).contains(FaultToleranceOperationIndex
+                .getSignature(Service.class.getMethod("ping", String[].class, int.class))));
+        assertEquals("nested(io.smallrye.faulttolerance.FaultToleranceOperationIndexTest$Service)",
+                FaultToleranceOperationIndex.getSignature(Service.class.getMethod("nested", Service.class)));
+        assertNull(index.getOperations(FaultToleranceOperationIndexTest.class));
+    }
+
+    static class Service {
+
+        public void ping(String[] values, int count) {
+        }
+
+        public void nested(Service service) {
+        }
+
+    }
+
+}
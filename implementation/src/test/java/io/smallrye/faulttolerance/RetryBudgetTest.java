@@ -0,0 +1,80 @@
+package io.smallrye.faulttolerance;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import io.smallrye.faulttolerance.metrics.MetricsRecorder;
+
+public class RetryBudgetTest {
+
+    @Test
+    public void testRatioOfFirstAttempts() {
+        RetryBudget budget = new RetryBudget(0.5, 2, 10000, MetricsRecorder.NOOP);
+        // min retries are always allowed
+        assertTrue(budget.tryAcquireRetry());
+        assertTrue(budget.tryAcquireRetry());
+        assertFalse(budget.tryAcquireRetry());
+        for (int i = 0; i < 4; i++) {
+            budget.attemptStarted();
+        }
+        assertTrue(budget.tryAcquireRetry());
+        assertTrue(budget.tryAcquireRetry());
+        assertFalse(budget.tryAcquireRetry());
+    }
+
+    @Test
+    public void testWindowExpires() throws Exception {
+        RetryBudget budget = new RetryBudget(1, 0, 100, MetricsRecorder.NOOP);
+        budget.attemptStarted();
+        assertTrue(budget.tryAcquireRetry());
+        assertFalse(budget.tryAcquireRetry());
+        TimeUnit.MILLISECONDS.sleep(150);
+        // both the deposit and the withdrawal left the window
+        assertFalse(budget.tryAcquireRetry());
+        budget.attemptStarted();
+        assertTrue(budget.tryAcquireRetry());
+    }
+
+    @Test
+    public void testConcurrentRetriesDoNotOverspend() throws Exception {
+        RetryBudget budget = new RetryBudget(0.1, 0, 60000, MetricsRecorder.NOOP);
+        for (int i = 0; i < 1000; i++) {
+            budget.attemptStarted();
+        }
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger granted = new AtomicInteger();
+        try {
+            for (int i = 0; i < threads; i++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int j = 0; j < 100; j++) {
+                        if (budget.tryAcquireRetry()) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+        assertEquals(100, granted.get());
+    }
+
+}
@@ -0,0 +1,180 @@
+package io.smallrye.faulttolerance;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.microprofile.faulttolerance.CircuitBreaker;
+import org.junit.Test;
+
+import io.smallrye.faulttolerance.config.CircuitBreakerConfig;
+
+public class SynchronousCircuitBreakerTest {
+
+    @Test
+    public void testTransitions() throws Exception {
+        SynchronousCircuitBreaker breaker = new SynchronousCircuitBreaker(config("ping"));
+
+        // CLOSED, 4 requests in the window, 2 failures are not enough
+        assertFalse(breaker.executionSucceeded());
+        assertFalse(breaker.executionFailed());
+        assertFalse(breaker.executionSucceeded());
+        assertFalse(breaker.executionFailed());
+        assertFalse(breaker.isOpen());
+        // The oldest success leaves the window, 3 of 4 failed now
+        assertTrue(breaker.executionFailed());
+        assertTrue(breaker.isOpen());
+        assertFalse(breaker.attemptExecution());
+
+        TimeUnit.MILLISECONDS.sleep(60);
+
+        // HALF_OPEN, the execution that transitions the circuit and two trial executions allowed
+        assertTrue(breaker.attemptExecution());
+        assertTrue(breaker.attemptExecution());
+        assertTrue(breaker.attemptExecution());
+        assertFalse(breaker.attemptExecution());
+        assertFalse(breaker.executionSucceeded());
+        assertFalse(breaker.executionSucceeded());
+
+        // CLOSED again
+        assertFalse(breaker.isOpen());
+        assertTrue(breaker.attemptExecution());
+        assertTrue(breaker.getOpenTotal() > 0);
+        assertTrue(breaker.getHalfOpenTotal() > 0);
+    }
+
+    @Test
+    public void testFailureInHalfOpen() throws Exception {
+        SynchronousCircuitBreaker breaker = new SynchronousCircuitBreaker(config("ping"));
+        for (int i = 0; i < 4; i++) {
+            breaker.executionFailed();
+        }
+        assertTrue(breaker.isOpen());
+        TimeUnit.MILLISECONDS.sleep(60);
+        assertTrue(breaker.attemptExecution());
+        assertTrue(breaker.executionFailed());
+        assertFalse(breaker.attemptExecution());
+    }
+
+    @Test
+    public void testConcurrentOutcomesOpenExactlyOnce() throws Exception {
+        SynchronousCircuitBreaker breaker = new SynchronousCircuitBreaker(config("ping"));
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger opened = new AtomicInteger();
+        try {
+            for (int i = 0; i < threads; i++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int j = 0; j < 1000; j++) {
+                        if (breaker.executionFailed()) {
+                            opened.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+        assertEquals(1, opened.get());
+        assertTrue(breaker.isOpen());
+    }
+
+    @Test
+    public void testTimeRollingWindow() throws Exception {
+        CircuitBreakerConfig config = config("timeWindow");
+        assertEquals(Integer.valueOf(5), config.get(CircuitBreakerConfig.ROLLING_WINDOW_BUCKETS));
+        SynchronousCircuitBreaker breaker = new SynchronousCircuitBreaker(config);
+
+        // More failures than requestVolumeThreshold, but older than the window (5 x 20 ms)
+        for (int i = 0; i < 3; i++) {
+            assertFalse(breaker.executionFailed());
+        }
+        TimeUnit.MILLISECONDS.sleep(150);
+        assertFalse(breaker.executionSucceeded());
+        assertFalse(breaker.executionFailed());
+        assertFalse(breaker.executionFailed());
+        assertFalse(breaker.isOpen());
+
+        // 3 failures of 4 executions within the window
+        assertTrue(breaker.executionFailed());
+        assertTrue(breaker.isOpen());
+    }
+
+    @Test
+    public void testTimeRollingWindowAcrossBuckets() throws Exception {
+        SynchronousCircuitBreaker breaker = new SynchronousCircuitBreaker(config("timeWindow"));
+
+        assertFalse(breaker.executionFailed());
+        assertFalse(breaker.executionFailed());
+        // The next outcomes are recorded in a later bucket (20 ms each), the earlier ones are still within the window
+        TimeUnit.MILLISECONDS.sleep(25);
+        assertFalse(breaker.executionSucceeded());
+        assertFalse(breaker.isOpen());
+
+        // 3 failures of 4 executions within the window
+        assertTrue(breaker.executionFailed());
+        assertTrue(breaker.isOpen());
+    }
+
+    @Test
+    public void testRequestVolumeThresholdChanged() throws Exception {
+        CircuitBreakerConfig config = config("ping");
+        SynchronousCircuitBreaker breaker = new SynchronousCircuitBreaker(config);
+        assertFalse(breaker.executionSucceeded());
+        assertFalse(breaker.executionFailed());
+
+        // A new window of 8 outcomes
+        config.setPolicy(config.getPolicy().with(null, null, 8, null));
+        for (int i = 0; i < 7; i++) {
+            assertFalse(breaker.executionFailed());
+        }
+        assertTrue(breaker.executionFailed());
+        assertTrue(breaker.isOpen());
+
+        // A new window of 2 outcomes, the earlier successes do not count
+        config = config("ping");
+        breaker = new SynchronousCircuitBreaker(config);
+        assertFalse(breaker.executionSucceeded());
+        assertFalse(breaker.executionSucceeded());
+        config.setPolicy(config.getPolicy().with(null, null, 2, null));
+        assertFalse(breaker.executionFailed());
+        assertTrue(breaker.executionFailed());
+        assertTrue(breaker.isOpen());
+    }
+
+    @Test
+    public void testDefaultRollingWindowIsCountBased() throws Exception {
+        CircuitBreakerConfig config = config("ping");
+        assertEquals(Integer.valueOf(0), config.get(CircuitBreakerConfig.ROLLING_WINDOW_BUCKETS));
+        assertEquals(Long.valueOf(1000), config.get(CircuitBreakerConfig.ROLLING_WINDOW_BUCKET_DURATION));
+    }
+
+    private static CircuitBreakerConfig config(String method) throws NoSuchMethodException {
+        return new CircuitBreakerConfig(Service.class, Service.class.getMethod(method));
+    }
+
+    interface Service {
+
+        @CircuitBreaker(requestVolumeThreshold = 4, failureRatio = 0.75, delay = 50, successThreshold = 2)
+        void ping();
+
+        @CircuitBreaker(requestVolumeThreshold = 4, failureRatio = 0.75)
+        void timeWindow();
+
+    }
+
+}
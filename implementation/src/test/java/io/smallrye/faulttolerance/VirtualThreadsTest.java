@@ -0,0 +1,98 @@
+package io.smallrye.faulttolerance;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import io.smallrye.faulttolerance.metrics.MetricsRecorder;
+
+public class VirtualThreadsTest {
+
+    @Test
+    public void testExecutor() throws Exception {
+        assumeTrue(VirtualThreads.isSupported());
+        ExecutorService executor = VirtualThreads.newExecutor();
+        try {
+            assertTrue(executor.submit(() -> VirtualThreads.isVirtual(Thread.currentThread())).get());
+        } finally {
+            executor.shutdown();
+        }
+        assertFalse(VirtualThreads.isVirtual(Thread.currentThread()));
+    }
+
+    @Test
+    public void testThreadFactory() throws InterruptedException {
+        assumeTrue(VirtualThreads.isSupported());
+        Thread thread = VirtualThreads.newThreadFactory("ft-test-").newThread(() -> {
+        });
+        assertTrue(VirtualThreads.isVirtual(thread));
+        assertEquals("ft-test-0", thread.getName());
+    }
+
+    @Test
+    public void testPinningReported() throws Exception {
+        assumeTrue(VirtualThreads.isSupported());
+        // since Java 24 (JEP 491), a virtual thread is no longer pinned inside synchronized
+        assumeTrue(Integer.parseInt(System.getProperty("java.specification.version")) < 24);
+        AtomicInteger pinned = new AtomicInteger();
+        MetricsRecorder metrics = (MetricsRecorder) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { MetricsRecorder.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("virtualThreadPinned")) {
+                        pinned.incrementAndGet();
+                    }
+                    return null;
+                });
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor();
+        monitor.start();
+        assumeTrue(monitor.isStarted());
+        try {
+            monitor.register(VirtualThreadsTest.class.getDeclaredMethod("pinned"), metrics);
+            ExecutorService executor = VirtualThreads.newExecutor();
+            try {
+                executor.submit(VirtualThreadsTest::pinned).get();
+            } finally {
+                executor.shutdown();
+            }
+            // events are delivered asynchronously, usually within a second
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (pinned.get() == 0 && System.nanoTime() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(50);
+            }
+            assertEquals(1, pinned.get());
+        } finally {
+            monitor.stop();
+        }
+    }
+
+    @Test
+    public void testDescriptor() throws NoSuchMethodException {
+        assertEquals("()Ljava/lang/Void;",
+                VirtualThreadPinningMonitor.descriptor(VirtualThreadsTest.class.getDeclaredMethod("pinned")));
+        // overloaded methods are told apart
+        assertEquals("(I[Ljava/lang/String;)V", VirtualThreadPinningMonitor
+                .descriptor(VirtualThreadsTest.class.getDeclaredMethod("overloaded", int.class, String[].class)));
+        assertEquals("([[JZ)V", VirtualThreadPinningMonitor
+                .descriptor(VirtualThreadsTest.class.getDeclaredMethod("overloaded", long[][].class, boolean.class)));
+    }
+
+    private static synchronized Void pinned() throws InterruptedException {
+        // a virtual thread cannot unmount while holding a monitor
+        TimeUnit.MILLISECONDS.sleep(100);
+        return null;
+    }
+
+    private static void overloaded(int count, String[] names) {
+    }
+
+    private static void overloaded(long[][] values, boolean flag) {
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.faulttolerance.Bulkhead;
+import org.eclipse.microprofile.faulttolerance.CircuitBreaker;
+import org.eclipse.microprofile.faulttolerance.Fallback;
+import org.eclipse.microprofile.faulttolerance.Retry;
+import org.eclipse.microprofile.faulttolerance.Timeout;
+import org.junit.Test;
+
+public class PoliciesTest {
+
+    @Test
+    public void testPolicies() throws NoSuchMethodException {
+        FaultToleranceOperation operation = FaultToleranceOperation.of(Service.class, Service.class.getMethod("ping"));
+        operation.validate();
+
+        BulkheadPolicy bulkhead = operation.getBulkhead().getPolicy();
+        assertEquals(5, bulkhead.getSize());
+        assertEquals(10, bulkhead.getQueueSize());
+
+        CircuitBreakerPolicy circuitBreaker = operation.getCircuitBreaker().getPolicy();
+        assertEquals(TimeUnit.SECONDS.toNanos(2), circuitBreaker.getDelayNanos());
+        assertEquals(0.75, circuitBreaker.getFailureRatio(), 0);
+        assertEquals(4, circuitBreaker.getRequestVolumeThreshold());
+        assertTrue(circuitBreaker.failsOn(new IOException()));
+        assertFalse(circuitBreaker.failsOn(new IllegalStateException()));
+
+        RetryPolicy retry = operation.getRetry().getPolicy();
+        assertEquals(3, retry.getMaxRetries());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), retry.getDelayNanos());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(180000), retry.getMaxDurationNanos());
+        assertTrue(retry.retriesOn(new IOException()));
+        assertFalse(retry.retriesOn(new IllegalStateException()));
+        assertTrue(retry.abortsOn(new IllegalArgumentException()));
+
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), operation.getTimeout().getPolicy().getTimeoutNanos());
+
+        FallbackPolicy fallback = operation.getFallback().getPolicy();
+        assertNull(fallback.getHandler());
+        assertEquals("fallback", fallback.getFallbackMethod());
+    }
+
+    @Test
+    public void testPolicyIsCompiledOnce() throws NoSuchMethodException {
+        FaultToleranceOperation operation = FaultToleranceOperation.of(Service.class, Service.class.getMethod("ping"));
+        operation.validate();
+        assertSame(operation.getRetry().getPolicy(), operation.getRetry().getPolicy());
+        assertSame(operation.getCircuitBreaker().getPolicy(), operation.getCircuitBreaker().getPolicy());
+    }
+
+    static class Service {
+
+        @Bulkhead(value = 5, waitingTaskQueue = 10)
+        @CircuitBreaker(delay = 2, delayUnit = ChronoUnit.SECONDS, failureRatio = 0.75, requestVolumeThreshold = 4, failOn = IOException.class)
+        @Retry(maxRetries = 3, delay = 100, retryOn = IOException.class, abortOn = IllegalArgumentException.class)
+        @Timeout(500)
+        @Fallback(fallbackMethod = "fallback")
+        public String ping() {
+            return "pong";
+        }
+
+        public String fallback() {
+            return "fallback";
+        }
+
+    }
+
+}
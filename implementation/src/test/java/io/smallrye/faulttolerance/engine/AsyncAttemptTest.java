@@ -0,0 +1,94 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.engine;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.faulttolerance.Asynchronous;
+import org.eclipse.microprofile.faulttolerance.Bulkhead;
+import org.eclipse.microprofile.faulttolerance.CircuitBreaker;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.smallrye.faulttolerance.SynchronousCircuitBreaker;
+import io.smallrye.faulttolerance.config.BulkheadConfig;
+import io.smallrye.faulttolerance.config.CircuitBreakerConfig;
+import io.smallrye.faulttolerance.engine.AsyncAttempt.AttemptFuture;
+import io.smallrye.faulttolerance.metrics.MetricsRecorder;
+
+public class AsyncAttemptTest {
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testCancelQueuedAttemptInHalfOpen() throws Exception {
+        SynchronousCircuitBreaker breaker = new SynchronousCircuitBreaker(
+                new CircuitBreakerConfig(Service.class, Service.class.getMethod("ping")));
+        AsyncBulkhead bulkhead = new AsyncBulkhead("ping",
+                new BulkheadConfig(Service.class, Service.class.getMethod("ping")), MetricsRecorder.NOOP);
+        AsyncAttempt asyncAttempt = new AsyncAttempt(ctx -> null, false, "ping", "ping", breaker, null, bulkhead,
+                executor, null, MetricsRecorder.NOOP);
+
+        // the only permit is taken, attempts have to wait
+        bulkhead.enter(new CompletableFuture<>(), () -> {
+        }, () -> {
+        });
+        assertTrue(breaker.executionFailed());
+        TimeUnit.MILLISECONDS.sleep(60);
+
+        // the first attempt transitions the circuit to HALF_OPEN, the second one takes the only trial slot
+        AttemptFuture transition = new AttemptFuture();
+        asyncAttempt.start(null, transition);
+        AttemptFuture trial = new AttemptFuture();
+        asyncAttempt.start(null, trial);
+        assertFalse(breaker.allowRequest());
+
+        assertTrue(trial.cancel(true));
+        assertTrue(transition.cancel(true));
+
+        // the cancelled attempts are recorded, the circuit is OPEN and transitions to HALF_OPEN after the delay again
+        TimeUnit.MILLISECONDS.sleep(60);
+        assertTrue(breaker.attemptExecution());
+    }
+
+    interface Service {
+
+        @Asynchronous
+        @Bulkhead(value = 1, waitingTaskQueue = 2)
+        @CircuitBreaker(requestVolumeThreshold = 1, failureRatio = 1, delay = 50, successThreshold = 1)
+        void ping();
+
+    }
+
+}
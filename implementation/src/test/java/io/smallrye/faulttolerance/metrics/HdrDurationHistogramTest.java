@@ -0,0 +1,124 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.metrics;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.metrics.Snapshot;
+import org.junit.Test;
+
+public class HdrDurationHistogramTest {
+
+    @Test
+    public void testPercentiles() {
+        HdrDurationHistogram histogram = new HdrDurationHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.update(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+        assertEquals(1000, histogram.getCount());
+        Snapshot snapshot = histogram.getSnapshot();
+        assertWithinOnePercent(TimeUnit.MILLISECONDS.toNanos(500), snapshot.getMedian());
+        assertWithinOnePercent(TimeUnit.MILLISECONDS.toNanos(990), snapshot.get99thPercentile());
+        assertWithinOnePercent(TimeUnit.MILLISECONDS.toNanos(999), snapshot.get999thPercentile());
+        assertWithinOnePercent(TimeUnit.MILLISECONDS.toNanos(1000), snapshot.getMax());
+        assertWithinOnePercent(TimeUnit.MILLISECONDS.toNanos(1), snapshot.getMin());
+    }
+
+    @Test
+    public void testValuesAreCumulative() {
+        HdrDurationHistogram histogram = new HdrDurationHistogram();
+        histogram.update(TimeUnit.MILLISECONDS.toNanos(10));
+        assertEquals(1, histogram.getCount());
+        histogram.update(TimeUnit.MILLISECONDS.toNanos(20));
+        assertEquals(2, histogram.getCount());
+        assertWithinOnePercent(TimeUnit.MILLISECONDS.toNanos(20), histogram.getSnapshot().getMax());
+    }
+
+    @Test
+    public void testOldValuesLeaveWindow() {
+        long[] now = { 0 };
+        HdrDurationHistogram histogram = new HdrDurationHistogram(() -> now[0]);
+        histogram.update(TimeUnit.MILLISECONDS.toNanos(500));
+        assertWithinOnePercent(TimeUnit.MILLISECONDS.toNanos(500), histogram.getSnapshot().getMax());
+
+        // still within the window
+        long bucket = TimeUnit.SECONDS.toNanos(HdrDurationHistogram.BUCKET_SECONDS);
+        now[0] += bucket * (HdrDurationHistogram.WINDOW_BUCKETS - 1);
+        histogram.update(TimeUnit.MILLISECONDS.toNanos(10));
+        assertWithinOnePercent(TimeUnit.MILLISECONDS.toNanos(500), histogram.getSnapshot().getMax());
+
+        // the first bucket fell out of the window, the count includes all values
+        now[0] += bucket;
+        histogram.update(TimeUnit.MILLISECONDS.toNanos(20));
+        Snapshot snapshot = histogram.getSnapshot();
+        assertWithinOnePercent(TimeUnit.MILLISECONDS.toNanos(20), snapshot.getMax());
+        assertWithinOnePercent(TimeUnit.MILLISECONDS.toNanos(10), snapshot.getMin());
+        assertEquals(3, histogram.getCount());
+    }
+
+    @Test
+    public void testOutOfRangeValues() {
+        HdrDurationHistogram histogram = new HdrDurationHistogram();
+        histogram.update(-1);
+        histogram.update(TimeUnit.DAYS.toNanos(1));
+        Snapshot snapshot = histogram.getSnapshot();
+        assertEquals(2, snapshot.size());
+        assertEquals(0, snapshot.getMin());
+        assertWithinOnePercent(TimeUnit.HOURS.toNanos(1), snapshot.getMax());
+    }
+
+    @Test
+    public void testSizeMatchesValues() {
+        HdrDurationHistogram histogram = new HdrDurationHistogram();
+        histogram.update(TimeUnit.MILLISECONDS.toNanos(10));
+        histogram.update(TimeUnit.MILLISECONDS.toNanos(10));
+        histogram.update(TimeUnit.MILLISECONDS.toNanos(20));
+        assertEquals(3, histogram.getCount());
+        Snapshot snapshot = histogram.getSnapshot();
+        assertEquals(2, snapshot.size());
+        assertEquals(snapshot.size(), snapshot.getValues().length);
+    }
+
+    @Test
+    public void testDumpDoesNotCloseStream() {
+        HdrDurationHistogram histogram = new HdrDurationHistogram();
+        histogram.update(TimeUnit.MILLISECONDS.toNanos(10));
+        Snapshot snapshot = histogram.getSnapshot();
+        boolean[] closed = new boolean[1];
+        ByteArrayOutputStream output = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+        snapshot.dump(output);
+        assertFalse(closed[0]);
+        String dumped = new String(output.toByteArray(), StandardCharsets.UTF_8).trim();
+        assertArrayEquals(snapshot.getValues(), new long[] { Long.parseLong(dumped) });
+    }
+
+    private static void assertWithinOnePercent(long expected, double actual) {
+        assertTrue("expected " + expected + " but was " + actual, Math.abs(expected - actual) <= expected / 100.0);
+    }
+
+}
@@ -0,0 +1,122 @@
+package io.smallrye.faulttolerance.timer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HashedWheelTimerTest {
+
+    private HashedWheelTimer timer;
+
+    @Before
+    public void setUp() {
+        // a small wheel, so that tasks wrap around it
+        timer = new HashedWheelTimer(r -> new Thread(r, "timer-test"), TimeUnit.MICROSECONDS.toNanos(100), 16);
+    }
+
+    @After
+    public void tearDown() {
+        timer.stop();
+    }
+
+    @Test
+    public void testRunsAfterDeadline() throws InterruptedException {
+        long delay = TimeUnit.MILLISECONDS.toNanos(20);
+        AtomicLong ranAt = new AtomicLong();
+        CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+        timer.schedule(task(() -> {
+            ranAt.set(System.nanoTime());
+            latch.countDown();
+        }), delay);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(ranAt.get() - start >= delay);
+    }
+
+    @Test
+    public void testSubMillisecondDelay() throws InterruptedException {
+        long delay = TimeUnit.MICROSECONDS.toNanos(300);
+        AtomicLong ranAt = new AtomicLong();
+        CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+        TimerTask task = task(() -> {
+            ranAt.set(System.nanoTime());
+            latch.countDown();
+        });
+        timer.schedule(task, delay);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(ranAt.get() >= task.getDeadline());
+        assertTrue(task.getDeadline() - start >= delay);
+    }
+
+    @Test
+    public void testCancel() throws InterruptedException {
+        AtomicInteger ran = new AtomicInteger();
+        TimerTask task = task(ran::incrementAndGet);
+        timer.schedule(task, TimeUnit.MILLISECONDS.toNanos(10));
+        assertTrue(task.isScheduled());
+        assertTrue(task.cancel());
+        assertFalse(task.isScheduled());
+        assertFalse(task.cancel());
+        TimeUnit.MILLISECONDS.sleep(50);
+        assertEquals(0, ran.get());
+        // a cancelled task can be scheduled again
+        CountDownLatch latch = new CountDownLatch(1);
+        TimerTask again = task(latch::countDown);
+        timer.schedule(again, 0);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testScheduledTwice() {
+        TimerTask task = task(() -> {
+        });
+        timer.schedule(task, TimeUnit.SECONDS.toNanos(10));
+        timer.schedule(task, TimeUnit.SECONDS.toNanos(10));
+    }
+
+    @Test
+    public void testManyTasks() throws InterruptedException {
+        int count = 1000;
+        CountDownLatch latch = new CountDownLatch(count / 2);
+        AtomicInteger ran = new AtomicInteger();
+        TimerTask[] tasks = new TimerTask[count];
+        for (int i = 0; i < count; i++) {
+            tasks[i] = task(() -> {
+                ran.incrementAndGet();
+                latch.countDown();
+            });
+            // spans several rotations of the wheel
+            timer.schedule(tasks[i], TimeUnit.MICROSECONDS.toNanos(i * 10));
+        }
+        for (int i = 1; i < count; i += 2) {
+            tasks[i].cancel();
+        }
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        TimeUnit.MILLISECONDS.sleep(50);
+        // odd tasks may have run before they were cancelled
+        assertTrue(ran.get() >= count / 2);
+        for (int i = 0; i < count; i += 2) {
+            assertFalse(tasks[i].isScheduled());
+        }
+    }
+
+    private static TimerTask task(Runnable action) {
+        return new TimerTask() {
+            @Override
+            public void run() {
+                action.run();
+            }
+        };
+    }
+
+}
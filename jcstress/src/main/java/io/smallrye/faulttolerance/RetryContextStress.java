@@ -0,0 +1,71 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE_INTERESTING;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.ZZZ_Result;
+
+import io.smallrye.faulttolerance.config.RetryConfig;
+import io.smallrye.faulttolerance.metrics.MetricsRecorder;
+
+/**
+ * The retry decision of {@link RetryContext} when the failure of an attempt is handled concurrently, e.g. by a timeout
+ * and by the attempt itself.
+ */
+public class RetryContextStress {
+
+    static final RetryConfig CONFIG = new RetryConfig(StressService.class, StressService.getMethod("retry"));
+
+    static final Exception FAILURE = new IllegalStateException();
+
+    @JCStressTest
+    @Outcome(id = "true, true, false", expect = ACCEPTABLE, desc = "Both agree to retry, the retry is withdrawn once")
+    @Outcome(id = "false, false, false", expect = ACCEPTABLE_INTERESTING, desc = "The retry is withdrawn by the losing decision, which is discarded")
+    @Outcome(expect = FORBIDDEN, desc = "The decisions differ or the budget is overdrawn")
+    @State
+    public static class ShouldRetry {
+
+        // exactly one retry in the window
+        final RetryBudget budget = new RetryBudget(0, 1, 60_000, MetricsRecorder.NOOP);
+
+        final RetryContext context = new RetryContext(CONFIG, budget);
+
+        @Actor
+        public void actor1(ZZZ_Result r) {
+            r.r1 = context.shouldRetryOn(FAILURE);
+        }
+
+        @Actor
+        public void actor2(ZZZ_Result r) {
+            r.r2 = context.shouldRetryOn(FAILURE);
+        }
+
+        @Arbiter
+        public void arbiter(ZZZ_Result r) {
+            r.r3 = budget.tryAcquireRetry();
+        }
+
+    }
+
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance;
+
+import java.lang.reflect.Method;
+
+import org.eclipse.microprofile.faulttolerance.Bulkhead;
+import org.eclipse.microprofile.faulttolerance.CircuitBreaker;
+import org.eclipse.microprofile.faulttolerance.Retry;
+
+/**
+ * The annotated methods the configs of the stress tests are read from.
+ */
+public interface StressService {
+
+    /**
+     * Opens after two failures in a row, closes after two successful probes.
+     */
+    @CircuitBreaker(requestVolumeThreshold = 2, failureRatio = 1, delay = 0, successThreshold = 2)
+    void circuitBreaker();
+
+    @Retry(maxRetries = 1, delay = 0, jitter = 0)
+    void retry();
+
+    @Bulkhead(1)
+    void bulkhead();
+
+    static Method getMethod(String name) {
+        try {
+            return StressService.class.getMethod(name);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
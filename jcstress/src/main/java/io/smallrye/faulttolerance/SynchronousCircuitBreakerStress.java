@@ -0,0 +1,169 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.ZZZ_Result;
+import org.openjdk.jcstress.infra.results.ZZ_Result;
+
+import io.smallrye.faulttolerance.config.CircuitBreakerConfig;
+
+/**
+ * State transitions of {@link SynchronousCircuitBreaker} under racing outcomes. The delay is zero, so an open circuit
+ * transitions to HALF_OPEN on the next attempt.
+ */
+public class SynchronousCircuitBreakerStress {
+
+    static final CircuitBreakerConfig CONFIG = new CircuitBreakerConfig(StressService.class,
+            StressService.getMethod("circuitBreaker"));
+
+    static SynchronousCircuitBreaker newOpenCircuitBreaker() {
+        SynchronousCircuitBreaker breaker = new SynchronousCircuitBreaker(CONFIG);
+        breaker.executionFailed();
+        breaker.executionFailed();
+        return breaker;
+    }
+
+    @JCStressTest
+    @Outcome(id = { "true, false, true", "false, true, true" }, expect = ACCEPTABLE, desc = "One failure opens the circuit")
+    @Outcome(id = "true, true, true", expect = FORBIDDEN, desc = "Both failures report the transition to OPEN")
+    @Outcome(expect = FORBIDDEN, desc = "The circuit is not open")
+    @State
+    public static class Open {
+
+        final SynchronousCircuitBreaker breaker = new SynchronousCircuitBreaker(CONFIG);
+
+        public Open() {
+            // the next failure reaches the threshold
+            breaker.executionFailed();
+        }
+
+        @Actor
+        public void actor1(ZZZ_Result r) {
+            r.r1 = breaker.executionFailed();
+        }
+
+        @Actor
+        public void actor2(ZZZ_Result r) {
+            r.r2 = breaker.executionFailed();
+        }
+
+        @Arbiter
+        public void arbiter(ZZZ_Result r) {
+            r.r3 = breaker.isOpen();
+        }
+
+    }
+
+    @JCStressTest
+    @Outcome(id = { "true, true, false", "true, false, true", "false, true, true" }, expect = ACCEPTABLE, desc = "successThreshold probes admitted")
+    @Outcome(expect = FORBIDDEN, desc = "Too many or too few probes admitted")
+    @State
+    public static class HalfOpenProbes {
+
+        final SynchronousCircuitBreaker breaker = newOpenCircuitBreaker();
+
+        public HalfOpenProbes() {
+            // the transition to HALF_OPEN is not counted as a probe
+            breaker.attemptExecution();
+        }
+
+        @Actor
+        public void actor1(ZZZ_Result r) {
+            r.r1 = breaker.attemptExecution();
+        }
+
+        @Actor
+        public void actor2(ZZZ_Result r) {
+            r.r2 = breaker.attemptExecution();
+        }
+
+        @Actor
+        public void actor3(ZZZ_Result r) {
+            r.r3 = breaker.attemptExecution();
+        }
+
+    }
+
+    @JCStressTest
+    @Outcome(id = "false, true", expect = ACCEPTABLE, desc = "Both successful probes counted, the circuit is closed")
+    @Outcome(expect = FORBIDDEN, desc = "A successful probe was lost")
+    @State
+    public static class SuccessThreshold {
+
+        final SynchronousCircuitBreaker breaker = newOpenCircuitBreaker();
+
+        public SuccessThreshold() {
+            breaker.attemptExecution();
+            breaker.attemptExecution();
+        }
+
+        @Actor
+        public void actor1() {
+            breaker.executionSucceeded();
+        }
+
+        @Actor
+        public void actor2() {
+            breaker.executionSucceeded();
+        }
+
+        @Arbiter
+        public void arbiter(ZZ_Result r) {
+            r.r1 = breaker.isOpen();
+            r.r2 = breaker.attemptExecution();
+        }
+
+    }
+
+    @JCStressTest
+    @Outcome(id = "true, true", expect = ACCEPTABLE, desc = "The failed probe opens the circuit")
+    @Outcome(expect = FORBIDDEN, desc = "The failed probe was lost")
+    @State
+    public static class ProbeOutcomes {
+
+        final SynchronousCircuitBreaker breaker = newOpenCircuitBreaker();
+
+        public ProbeOutcomes() {
+            breaker.attemptExecution();
+            breaker.attemptExecution();
+        }
+
+        @Actor
+        public void actor1() {
+            breaker.executionSucceeded();
+        }
+
+        @Actor
+        public void actor2(ZZ_Result r) {
+            r.r1 = breaker.executionFailed();
+        }
+
+        @Arbiter
+        public void arbiter(ZZ_Result r) {
+            r.r2 = breaker.isOpen();
+        }
+
+    }
+
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.engine;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.II_Result;
+import org.openjdk.jcstress.infra.results.ZZI_Result;
+
+import io.smallrye.faulttolerance.StressService;
+import io.smallrye.faulttolerance.config.BulkheadConfig;
+import io.smallrye.faulttolerance.config.BulkheadPolicy;
+
+/**
+ * Permit accounting of {@link BulkheadPermits} when executions race with each other and with a resize. Whatever the
+ * interleaving, all permits are available again once the executions finished.
+ */
+public class BulkheadPermitsStress {
+
+    static final BulkheadConfig CONFIG = new BulkheadConfig(StressService.class, StressService.getMethod("bulkhead"));
+
+    static boolean execute(BulkheadPermits permits) {
+        permits.refresh();
+        if (!permits.tryAcquire()) {
+            return false;
+        }
+        permits.release();
+        return true;
+    }
+
+    @JCStressTest
+    @Outcome(id = { "true, true, 1", "true, false, 1", "false, true, 1" }, expect = ACCEPTABLE, desc = "All permits released")
+    @Outcome(expect = FORBIDDEN, desc = "A permit was lost or created, or both executions rejected")
+    @State
+    public static class Release {
+
+        final BulkheadPermits permits = new BulkheadPermits(CONFIG);
+
+        @Actor
+        public void actor1(ZZI_Result r) {
+            r.r1 = execute(permits);
+        }
+
+        @Actor
+        public void actor2(ZZI_Result r) {
+            r.r2 = execute(permits);
+        }
+
+        @Arbiter
+        public void arbiter(ZZI_Result r) {
+            r.r3 = permits.availablePermits();
+        }
+
+    }
+
+    @JCStressTest
+    @Outcome(id = "2, 0", expect = ACCEPTABLE, desc = "Grown to 2 permits, none held")
+    @Outcome(expect = FORBIDDEN, desc = "The resize was applied twice or lost, or a permit was lost")
+    @State
+    public static class Grow {
+
+        final BulkheadConfig config = new BulkheadConfig(StressService.class, StressService.getMethod("bulkhead"));
+
+        final BulkheadPermits permits = new BulkheadPermits(config);
+
+        @Actor
+        public void actor1() {
+            config.setPolicy(new BulkheadPolicy(2, 0));
+            permits.refresh();
+        }
+
+        @Actor
+        public void actor2() {
+            execute(permits);
+        }
+
+        @Actor
+        public void actor3() {
+            permits.refresh();
+        }
+
+        @Arbiter
+        public void arbiter(II_Result r) {
+            permits.refresh();
+            r.r1 = permits.availablePermits();
+            r.r2 = permits.getRunning();
+        }
+
+    }
+
+    @JCStressTest
+    @Outcome(id = "1, 0", expect = ACCEPTABLE, desc = "Shrunk to 1 permit, none held")
+    @Outcome(expect = FORBIDDEN, desc = "A permit held during the resize was lost or duplicated")
+    @State
+    public static class Shrink {
+
+        final BulkheadConfig config = new BulkheadConfig(StressService.class, StressService.getMethod("bulkhead"));
+
+        final BulkheadPermits permits;
+
+        public Shrink() {
+            config.setPolicy(new BulkheadPolicy(2, 0));
+            permits = new BulkheadPermits(config);
+        }
+
+        @Actor
+        public void actor1() {
+            config.setPolicy(new BulkheadPolicy(1, 0));
+            permits.refresh();
+        }
+
+        @Actor
+        public void actor2() {
+            execute(permits);
+        }
+
+        @Actor
+        public void actor3() {
+            execute(permits);
+        }
+
+        @Arbiter
+        public void arbiter(II_Result r) {
+            permits.refresh();
+            r.r1 = permits.availablePermits();
+            r.r2 = permits.getRunning();
+        }
+
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.allocation;
+
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Measures the bytes allocated per invocation, either by the calling thread only or by all threads, so that work handed
+ * off to thread pools is included. The operation is warmed up first, so the budgets apply to the code as compiled by the
+ * JIT. Background threads, e.g. the timers of Hystrix, add noise to the measurement of all threads, so it is only used
+ * for operations that hand work off to another thread.
+ */
+final class AllocationMeter {
+
+    static final int WARMUP_INVOCATIONS = 20_000;
+
+    static final int MEASURED_INVOCATIONS = 20_000;
+
+    private static final ThreadMXBean THREADS = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private AllocationMeter() {
+    }
+
+    static boolean isSupported() {
+        return THREADS.isThreadAllocatedMemorySupported() && THREADS.isThreadAllocatedMemoryEnabled();
+    }
+
+    static long bytesPerInvocation(Runnable invocation, boolean allThreads) {
+        for (int i = 0; i < WARMUP_INVOCATIONS; i++) {
+            invocation.run();
+        }
+        Map<Long, Long> before = allocatedBytes(allThreads);
+        for (int i = 0; i < MEASURED_INVOCATIONS; i++) {
+            invocation.run();
+        }
+        Map<Long, Long> after = allocatedBytes(allThreads);
+        long total = 0;
+        for (Map.Entry<Long, Long> entry : after.entrySet()) {
+            total += entry.getValue() - before.getOrDefault(entry.getKey(), 0L);
+        }
+        return total / MEASURED_INVOCATIONS;
+    }
+
+    /**
+     * Only the allocations of the calling thread are measured.
+     *
+     * @param operation
+     * @param invocation
+     * @param budget
+     */
+    static void assertBudget(String operation, Runnable invocation, long budget) {
+        assertBudget(operation, invocation, budget, false);
+    }
+
+    /**
+     * The allocations of all threads are measured.
+     *
+     * @param operation
+     * @param invocation
+     * @param budget
+     */
+    static void assertBudgetAllThreads(String operation, Runnable invocation, long budget) {
+        assertBudget(operation, invocation, budget, true);
+    }
+
+    private static void assertBudget(String operation, Runnable invocation, long budget, boolean allThreads) {
+        long bytes = bytesPerInvocation(invocation, allThreads);
+        assertTrue(operation + " allocated " + bytes + " bytes per invocation, the budget is " + budget + " bytes",
+                bytes <= budget);
+    }
+
+    private static Map<Long, Long> allocatedBytes(boolean allThreads) {
+        long[] ids = allThreads ? THREADS.getAllThreadIds() : new long[] { Thread.currentThread().getId() };
+        long[] bytes = THREADS.getThreadAllocatedBytes(ids);
+        Map<Long, Long> result = new HashMap<>();
+        for (int i = 0; i < ids.length; i++) {
+            // -1 if the thread is no longer alive
+            if (bytes[i] >= 0) {
+                result.put(ids[i], bytes[i]);
+            }
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.allocation;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.faulttolerance.Bulkhead;
+import org.eclipse.microprofile.faulttolerance.CircuitBreaker;
+import org.eclipse.microprofile.faulttolerance.Fallback;
+import org.eclipse.microprofile.faulttolerance.Retry;
+import org.eclipse.microprofile.faulttolerance.Timeout;
+
+@ApplicationScoped
+public class AllocationService {
+
+    static final String RESULT = "ok";
+
+    public String none() {
+        return RESULT;
+    }
+
+    @Retry
+    public String retry() {
+        return RESULT;
+    }
+
+    @CircuitBreaker
+    public String circuitBreaker() {
+        return RESULT;
+    }
+
+    @Fallback(fallbackMethod = "fallback")
+    public String fallbackNotUsed() {
+        return RESULT;
+    }
+
+    @Bulkhead
+    public String bulkhead() {
+        return RESULT;
+    }
+
+    @Timeout
+    public String timeout() {
+        return RESULT;
+    }
+
+    @Retry
+    @CircuitBreaker
+    @Timeout
+    @Bulkhead
+    @Fallback(fallbackMethod = "fallback")
+    public String all() {
+        return RESULT;
+    }
+
+    @Fallback(fallbackMethod = "fallback")
+    public String failingWithFallback() {
+        throw new IllegalStateException();
+    }
+
+    public String fallback() {
+        return RESULT;
+    }
+
+}
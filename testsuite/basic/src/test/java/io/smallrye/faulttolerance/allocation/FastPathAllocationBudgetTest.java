@@ -0,0 +1,73 @@
+/*
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.allocation;
+
+import static io.smallrye.faulttolerance.allocation.AllocationMeter.assertBudget;
+import static org.junit.Assume.assumeTrue;
+
+import javax.inject.Inject;
+
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.asset.StringAsset;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import io.smallrye.faulttolerance.HystrixCommandInterceptor;
+import io.smallrye.faulttolerance.TestArchive;
+
+/**
+ * Allocation budgets of the sync fast path, in bytes per invocation. If a change legitimately needs more, raise the
+ * budget in the same change and explain why. The fast path itself does not allocate if the call succeeds, the budgets
+ * cover the invocation context that the CDI container creates for each intercepted call.
+ */
+@RunWith(Arquillian.class)
+public class FastPathAllocationBudgetTest {
+
+    @Deployment
+    public static JavaArchive createTestArchive() {
+        return TestArchive.createBase(FastPathAllocationBudgetTest.class)
+                .addPackage(FastPathAllocationBudgetTest.class.getPackage())
+                .addAsManifestResource(new StringAsset(HystrixCommandInterceptor.SYNC_FAST_PATH_KEY + "=true"),
+                        "microprofile-config.properties");
+    }
+
+    @Inject
+    AllocationService service;
+
+    @Before
+    public void checkSupported() {
+        assumeTrue(AllocationMeter.isSupported());
+    }
+
+    @Test
+    public void testRetry() {
+        assertBudget("retry", service::retry, 256);
+    }
+
+    @Test
+    public void testCircuitBreaker() {
+        assertBudget("circuitBreaker", service::circuitBreaker, 256);
+    }
+
+    @Test
+    public void testFallback() {
+        assertBudget("fallback", service::fallbackNotUsed, 256);
+    }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.bulkhead.shared;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.faulttolerance.Asynchronous;
+import org.eclipse.microprofile.faulttolerance.Bulkhead;
+import org.eclipse.microprofile.faulttolerance.Timeout;
+
+@ApplicationScoped
+public class SharedExecutorService {
+
+    @Inject
+    SharedExecutorInnerService inner;
+
+    @Asynchronous
+    @Bulkhead(value = 1, waitingTaskQueue = 3)
+    public CompletionStage<String> slow(CountDownLatch startLatch, CountDownLatch endLatch) throws InterruptedException {
+        startLatch.countDown();
+        endLatch.await();
+        return CompletableFuture.completedFuture("slow");
+    }
+
+    @Asynchronous
+    @Bulkhead(1)
+    public CompletionStage<String> fast() {
+        return CompletableFuture.completedFuture("fast");
+    }
+
+    @Asynchronous
+    public CompletionStage<String> outer() {
+        return inner.inner();
+    }
+
+    @Asynchronous
+    public CompletionStage<String> blocking(CountDownLatch endLatch) throws InterruptedException {
+        endLatch.await();
+        return CompletableFuture.completedFuture("blocking");
+    }
+
+    @Timeout(1000)
+    public String timeout() {
+        return "timeout";
+    }
+
+}
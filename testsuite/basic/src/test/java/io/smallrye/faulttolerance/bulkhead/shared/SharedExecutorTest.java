@@ -0,0 +1,111 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.bulkhead.shared;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.faulttolerance.exceptions.BulkheadException;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.asset.StringAsset;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import io.smallrye.faulttolerance.HystrixCommandInterceptor;
+import io.smallrye.faulttolerance.TestArchive;
+
+@RunWith(Arquillian.class)
+public class SharedExecutorTest {
+
+    @Deployment
+    public static JavaArchive createTestArchive() {
+        return TestArchive.createBase(SharedExecutorTest.class)
+                .addPackage(SharedExecutorTest.class.getPackage())
+                .addAsManifestResource(new StringAsset(HystrixCommandInterceptor.NATIVE_ENGINE_KEY + "=true\n"
+                        + HystrixCommandInterceptor.MAIN_THREAD_POOL_SIZE_KEY + "=2"), "microprofile-config.properties");
+    }
+
+    @Inject
+    SharedExecutorService service;
+
+    @Test
+    public void testWaitingAttemptsDoNotOccupyThreads()
+            throws InterruptedException, ExecutionException, TimeoutException {
+        CountDownLatch startLatch = new CountDownLatch(1);
+        CountDownLatch endLatch = new CountDownLatch(1);
+        List<CompletionStage<String>> slow = new ArrayList<>();
+        // one running and three waiting in the queue of the bulkhead
+        for (int i = 0; i < 4; i++) {
+            slow.add(service.slow(startLatch, endLatch));
+        }
+        assertTrue(startLatch.await(1, TimeUnit.SECONDS));
+        try {
+            service.slow(startLatch, endLatch).toCompletableFuture().get(1, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException expected) {
+            assertTrue(expected.getCause() instanceof BulkheadException);
+        }
+        // only one of the two threads is busy
+        assertEquals("fast", service.fast().toCompletableFuture().get(1, TimeUnit.SECONDS));
+        endLatch.countDown();
+        for (CompletionStage<String> result : slow) {
+            assertEquals("slow", result.toCompletableFuture().get(1, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testCompletionStageIsNotAwaitedOnPoolThread()
+            throws InterruptedException, ExecutionException, TimeoutException {
+        // both threads run an invocation that completes with the result of another asynchronous invocation
+        CompletionStage<String> first = service.outer();
+        CompletionStage<String> second = service.outer();
+        assertEquals("inner", first.toCompletableFuture().get(1, TimeUnit.SECONDS));
+        assertEquals("inner", second.toCompletableFuture().get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testSyncTimeoutDoesNotWaitForAsyncWork()
+            throws InterruptedException, ExecutionException, TimeoutException {
+        CountDownLatch endLatch = new CountDownLatch(1);
+        List<CompletionStage<String>> blocking = new ArrayList<>();
+        try {
+            // both threads are busy and more work is queued
+            for (int i = 0; i < 3; i++) {
+                blocking.add(service.blocking(endLatch));
+            }
+            assertEquals("timeout", service.timeout());
+        } finally {
+            endLatch.countDown();
+        }
+        for (CompletionStage<String> result : blocking) {
+            assertEquals("blocking", result.toCompletableFuture().get(1, TimeUnit.SECONDS));
+        }
+    }
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.command.snapshot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.List;
+
+import javax.inject.Inject;
+
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import io.smallrye.faulttolerance.CommandListener;
+import io.smallrye.faulttolerance.CommandListenersProvider;
+import io.smallrye.faulttolerance.TestArchive;
+
+@RunWith(Arquillian.class)
+public class CommandListenersSnapshotTest {
+
+    @Deployment
+    public static JavaArchive createTestArchive() {
+        return TestArchive.createBase(CommandListenersSnapshotTest.class)
+                .addPackage(CommandListenersSnapshotTest.class.getPackage());
+    }
+
+    @Inject
+    CommandListenersProvider listenersProvider;
+
+    @Inject
+    HelloService service;
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testListenersAreResolvedOnce() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals("hello", service.hello());
+        }
+        assertEquals(3, CountingListener.EXECUTIONS.get());
+        assertEquals(1, CountingListener.CREATED.get());
+
+        List<CommandListener> listeners = listenersProvider.getCommandListeners();
+        assertSame(listeners, listenersProvider.getCommandListeners());
+        listeners.clear();
+    }
+}
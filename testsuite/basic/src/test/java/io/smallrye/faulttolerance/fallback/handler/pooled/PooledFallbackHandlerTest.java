@@ -0,0 +1,54 @@
+/*
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.fallback.handler.pooled;
+
+import static org.junit.Assert.assertEquals;
+
+import javax.inject.Inject;
+
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.asset.StringAsset;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import io.smallrye.faulttolerance.HystrixCommandInterceptor;
+import io.smallrye.faulttolerance.TestArchive;
+
+@RunWith(Arquillian.class)
+public class PooledFallbackHandlerTest {
+
+    @Deployment
+    public static JavaArchive createTestArchive() {
+        return TestArchive.createBase(PooledFallbackHandlerTest.class)
+                .addPackage(PooledFallbackHandlerTest.class.getPackage())
+                .addAsManifestResource(
+                        new StringAsset(HystrixCommandInterceptor.FALLBACK_HANDLER_POOL_SIZE_KEY + "=2"),
+                        "microprofile-config.properties");
+    }
+
+    @Inject
+    HelloService service;
+
+    @Test
+    public void testIdleHandlerIsReused() {
+        assertEquals("fallback1", service.hello());
+        assertEquals("fallback2", service.hello());
+        assertEquals("fallback3", service.hello());
+        assertEquals(1, PooledFallbackHandler.CREATED.get());
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.fallback.handler.requestscoped;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.enterprise.context.control.RequestContextController;
+import javax.inject.Inject;
+
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.asset.StringAsset;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import io.smallrye.faulttolerance.HystrixCommandInterceptor;
+import io.smallrye.faulttolerance.TestArchive;
+
+/**
+ * A new interceptor instance is created for each instance of a request scoped bean, the pool of fallback handlers must
+ * outlive them.
+ */
+@RunWith(Arquillian.class)
+public class RequestScopedServiceTest {
+
+    @Deployment
+    public static JavaArchive createTestArchive() {
+        return TestArchive.createBase(RequestScopedServiceTest.class)
+                .addPackage(RequestScopedServiceTest.class.getPackage())
+                .addAsManifestResource(
+                        new StringAsset(HystrixCommandInterceptor.FALLBACK_HANDLER_POOL_SIZE_KEY + "=1"),
+                        "microprofile-config.properties");
+    }
+
+    @Inject
+    RequestContextController requestContextController;
+
+    @Inject
+    HelloService service;
+
+    @Test
+    public void testPooledHandlerOutlivesRequests() throws Exception {
+        // the request context is active on the test thread for the whole test
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            for (int i = 1; i <= 3; i++) {
+                String result = executor.submit(() -> {
+                    assertTrue(requestContextController.activate());
+                    try {
+                        return service.hello();
+                    } finally {
+                        requestContextController.deactivate();
+                    }
+                }).get();
+                assertEquals("fallback" + i, result);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, PooledFallbackHandler.CREATED.get());
+        assertEquals(0, PooledFallbackHandler.DESTROYED.get());
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.fallback.handler.requestscopedhandler;
+
+import static org.junit.Assert.assertEquals;
+
+import javax.inject.Inject;
+
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import io.smallrye.faulttolerance.TestArchive;
+
+/**
+ * The fallback of a timed out invocation is invoked on a thread where the request context is not active, so a request
+ * scoped handler must not be resolved to its contextual reference.
+ */
+@RunWith(Arquillian.class)
+public class RequestScopedFallbackHandlerTest {
+
+    @Deployment
+    public static JavaArchive createTestArchive() {
+        return TestArchive.createBase(RequestScopedFallbackHandlerTest.class)
+                .addPackage(RequestScopedFallbackHandlerTest.class.getPackage());
+    }
+
+    @Inject
+    HelloService service;
+
+    @Test
+    public void testHandlerWorksWithoutRequestContext() throws InterruptedException {
+        for (int i = 1; i <= 2; i++) {
+            assertEquals("fallback", service.hello());
+            assertEquals(i, RequestScopedFallbackHandler.CREATED.get());
+        }
+    }
+}
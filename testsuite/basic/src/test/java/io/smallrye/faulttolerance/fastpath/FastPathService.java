@@ -0,0 +1,53 @@
+/*
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.fastpath;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.faulttolerance.CircuitBreaker;
+import org.eclipse.microprofile.faulttolerance.Fallback;
+import org.eclipse.microprofile.faulttolerance.Retry;
+import org.eclipse.microprofile.faulttolerance.Timeout;
+
+@ApplicationScoped
+public class FastPathService {
+
+    static final AtomicInteger COUNTER = new AtomicInteger();
+
+    @CircuitBreaker(requestVolumeThreshold = 10)
+    @Retry(maxRetries = 2)
+    @Fallback(fallbackMethod = "fallback")
+    public String flaky(boolean fail) {
+        COUNTER.incrementAndGet();
+        if (fail) {
+            throw new IllegalStateException();
+        }
+        return "ok";
+    }
+
+    @Timeout(1000)
+    @Retry(maxRetries = 2)
+    public String timed() {
+        return "ok";
+    }
+
+    String fallback(boolean fail) {
+        return "fallback";
+    }
+
+}
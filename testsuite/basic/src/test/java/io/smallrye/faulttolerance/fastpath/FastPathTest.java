@@ -0,0 +1,73 @@
+/*
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.fastpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import javax.inject.Inject;
+
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.asset.StringAsset;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.netflix.hystrix.HystrixCommandKey;
+import com.netflix.hystrix.HystrixCommandMetrics;
+
+import io.smallrye.faulttolerance.HystrixCommandInterceptor;
+import io.smallrye.faulttolerance.SimpleCommand;
+import io.smallrye.faulttolerance.TestArchive;
+
+@RunWith(Arquillian.class)
+public class FastPathTest {
+
+    @Deployment
+    public static JavaArchive createTestArchive() {
+        return TestArchive.createBase(FastPathTest.class).addPackage(FastPathTest.class.getPackage())
+                .addAsManifestResource(new StringAsset(HystrixCommandInterceptor.SYNC_FAST_PATH_KEY + "=true"),
+                        "microprofile-config.properties");
+    }
+
+    @Inject
+    FastPathService service;
+
+    @Test
+    public void testFastPath() throws NoSuchMethodException {
+        FastPathService.COUNTER.set(0);
+        assertEquals("ok", service.flaky(false));
+        assertEquals(1, FastPathService.COUNTER.get());
+        assertEquals("fallback", service.flaky(true));
+        assertEquals(4, FastPathService.COUNTER.get());
+        // no Hystrix command was executed
+        assertNull(HystrixCommandMetrics.getInstance(commandKey("flaky", boolean.class)));
+    }
+
+    @Test
+    public void testTimeoutUsesHystrix() throws NoSuchMethodException {
+        assertEquals("ok", service.timed());
+        assertNotNull(HystrixCommandMetrics.getInstance(commandKey("timed")));
+    }
+
+    private static HystrixCommandKey commandKey(String name, Class<?>... parameterTypes) throws NoSuchMethodException {
+        return HystrixCommandKey.Factory
+                .asKey(SimpleCommand.getCommandKey(FastPathService.class.getMethod(name, parameterTypes)));
+    }
+
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.index;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.faulttolerance.Retry;
+
+@ApplicationScoped
+public class IndexedService {
+
+    static final AtomicInteger INDEXED_CALLS = new AtomicInteger();
+
+    static final AtomicInteger NOT_INDEXED_CALLS = new AtomicInteger();
+
+    @Retry(maxRetries = 1, delay = 0, jitter = 0)
+    public String indexed() {
+        INDEXED_CALLS.incrementAndGet();
+        throw new IllegalStateException();
+    }
+
+    @Retry(maxRetries = 1, delay = 0, jitter = 0)
+    public String notIndexed() {
+        NOT_INDEXED_CALLS.incrementAndGet();
+        throw new IllegalStateException();
+    }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.index;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+
+import javax.inject.Inject;
+
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.asset.StringAsset;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import io.smallrye.faulttolerance.FaultToleranceManagement;
+import io.smallrye.faulttolerance.TestArchive;
+
+@RunWith(Arquillian.class)
+public class OperationIndexTest {
+
+    @Deployment
+    public static JavaArchive createTestArchive() {
+        return TestArchive.createBase(OperationIndexTest.class)
+                .addPackage(OperationIndexTest.class.getPackage())
+                .addAsResource(new StringAsset(IndexedService.class.getName() + "\n\tindexed()\n"),
+                        "META-INF/smallrye-fault-tolerance/operations");
+    }
+
+    @Inject
+    IndexedService service;
+
+    @Inject
+    FaultToleranceManagement management;
+
+    @Test
+    public void testOnlyIndexedOperationsCollected() {
+        String[] operations = management.getOperations();
+        assertTrue(Arrays.toString(operations), Arrays.stream(operations).anyMatch(o -> o.endsWith(".indexed()")));
+        assertTrue(Arrays.toString(operations), Arrays.stream(operations).noneMatch(o -> o.endsWith(".notIndexed()")));
+    }
+
+    @Test
+    public void testAllOperationsApplied() {
+        try {
+            service.indexed();
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+        assertEquals(2, IndexedService.INDEXED_CALLS.get());
+        try {
+            service.notIndexed();
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+        // the operation metadata is created on the fly
+        assertEquals(2, IndexedService.NOT_INDEXED_CALLS.get());
+    }
+
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.management;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+import javax.inject.Inject;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.eclipse.microprofile.faulttolerance.exceptions.CircuitBreakerOpenException;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.asset.StringAsset;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import io.smallrye.faulttolerance.FaultToleranceManagement;
+import io.smallrye.faulttolerance.HystrixCommandInterceptor;
+import io.smallrye.faulttolerance.TestArchive;
+
+@RunWith(Arquillian.class)
+public class FaultToleranceManagementTest {
+
+    @Deployment
+    public static JavaArchive createTestArchive() {
+        return TestArchive.createBase(FaultToleranceManagementTest.class)
+                .addPackage(FaultToleranceManagementTest.class.getPackage())
+                .addAsManifestResource(new StringAsset(HystrixCommandInterceptor.MANAGEMENT_MBEAN_KEY + "=true"),
+                        "microprofile-config.properties");
+    }
+
+    @Inject
+    ManagedService service;
+
+    @Inject
+    FaultToleranceManagement management;
+
+    @Test
+    public void testRetryChangedViaMBean() throws Exception {
+        invokeRetry();
+        assertEquals(2, ManagedService.RETRY_CALLS.get());
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("io.smallrye.faulttolerance:type=FaultToleranceManagement");
+        String[] operations = (String[]) server.getAttribute(name, "Operations");
+        String operation = find(operations, "retry()");
+        server.invoke(name, "setRetry", new Object[] { operation, 3, 0L, 180000L },
+                new String[] { String.class.getName(), int.class.getName(), long.class.getName(),
+                        long.class.getName() });
+
+        ManagedService.RETRY_CALLS.set(0);
+        invokeRetry();
+        assertEquals(4, ManagedService.RETRY_CALLS.get());
+        assertEquals(3, management.getFaultToleranceOperation(operation).getRetry().getPolicy().getMaxRetries());
+    }
+
+    @Test
+    public void testRetryZeroMaxDurationRejected() {
+        String operation = find(management.getOperations(), "retry()");
+        long maxDuration = management.getFaultToleranceOperation(operation).getRetry().getPolicy().getMaxDurationNanos();
+        try {
+            management.setRetry(operation, 2, 0, 0);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+        assertEquals(maxDuration,
+                management.getFaultToleranceOperation(operation).getRetry().getPolicy().getMaxDurationNanos());
+
+        // retries are still performed
+        ManagedService.RETRY_CALLS.set(0);
+        invokeRetry();
+        assertTrue(ManagedService.RETRY_CALLS.get() > 1);
+    }
+
+    @Test
+    public void testCircuitBreakerChanged() {
+        String operation = find(management.getOperations(), "circuitBreaker()");
+        management.setCircuitBreaker(operation, 60000, 1.0, 2, 1);
+        for (int i = 0; i < 2; i++) {
+            try {
+                service.circuitBreaker();
+                fail();
+            } catch (IllegalStateException expected) {
+            }
+        }
+        try {
+            service.circuitBreaker();
+            fail();
+        } catch (CircuitBreakerOpenException expected) {
+        }
+    }
+
+    @Test
+    public void testPoliciesNotAppliedByHystrix() {
+        String bulkhead = find(management.getOperations(), "bulkhead()");
+        try {
+            management.setBulkhead(bulkhead, 2, 0);
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+        String timeout = find(management.getOperations(), "timeout()");
+        try {
+            management.setTimeout(timeout, 2000);
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+        assertEquals(1, management.getFaultToleranceOperation(bulkhead).getBulkhead().getPolicy().getSize());
+    }
+
+    private void invokeRetry() {
+        try {
+            service.retry();
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    static String find(String[] operations, String method) {
+        String operation = Arrays.stream(operations).filter(o -> o.endsWith("." + method)).findFirst().orElse(null);
+        assertTrue(Arrays.toString(operations), operation != null);
+        return operation;
+    }
+
+}
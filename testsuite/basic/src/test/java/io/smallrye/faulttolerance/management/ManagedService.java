@@ -0,0 +1,53 @@
+/*
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.management;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.faulttolerance.Bulkhead;
+import org.eclipse.microprofile.faulttolerance.CircuitBreaker;
+import org.eclipse.microprofile.faulttolerance.Retry;
+import org.eclipse.microprofile.faulttolerance.Timeout;
+
+@ApplicationScoped
+public class ManagedService {
+
+    static final AtomicInteger RETRY_CALLS = new AtomicInteger();
+
+    @Retry(maxRetries = 1, delay = 0, jitter = 0)
+    public String retry() {
+        RETRY_CALLS.incrementAndGet();
+        throw new IllegalStateException();
+    }
+
+    @CircuitBreaker(requestVolumeThreshold = 10, failureRatio = 0.5)
+    public String circuitBreaker() {
+        throw new IllegalStateException();
+    }
+
+    @Bulkhead(1)
+    public String bulkhead() {
+        return "bulkhead";
+    }
+
+    @Timeout(1000)
+    public String timeout() {
+        return "timeout";
+    }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.management;
+
+import static io.smallrye.faulttolerance.management.FaultToleranceManagementTest.find;
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.asset.StringAsset;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import io.smallrye.faulttolerance.FaultToleranceManagement;
+import io.smallrye.faulttolerance.HystrixCommandInterceptor;
+import io.smallrye.faulttolerance.TestArchive;
+import io.smallrye.faulttolerance.config.FaultToleranceOperation;
+
+@RunWith(Arquillian.class)
+public class NativeEngineManagementTest {
+
+    @Deployment
+    public static JavaArchive createTestArchive() {
+        return TestArchive.createBase(NativeEngineManagementTest.class)
+                .addPackage(NativeEngineManagementTest.class.getPackage())
+                .addAsManifestResource(new StringAsset(HystrixCommandInterceptor.NATIVE_ENGINE_KEY + "=true"),
+                        "microprofile-config.properties");
+    }
+
+    @Inject
+    ManagedService service;
+
+    @Inject
+    FaultToleranceManagement management;
+
+    @Test
+    public void testSyncBulkheadWithoutQueue() {
+        String operation = find(management.getOperations(), "bulkhead()");
+        management.setBulkhead(operation, 2, 0);
+        FaultToleranceOperation ftOperation = management.getFaultToleranceOperation(operation);
+        assertEquals(2, ftOperation.getBulkhead().getPolicy().getSize());
+        assertEquals("bulkhead", service.bulkhead());
+    }
+
+    @Test
+    public void testTimeoutChanged() {
+        String operation = find(management.getOperations(), "timeout()");
+        management.setTimeout(operation, 2000);
+        FaultToleranceOperation ftOperation = management.getFaultToleranceOperation(operation);
+        assertEquals(TimeUnit.SECONDS.toNanos(2), ftOperation.getTimeout().getPolicy().getTimeoutNanos());
+        assertEquals("timeout", service.timeout());
+    }
+
+}
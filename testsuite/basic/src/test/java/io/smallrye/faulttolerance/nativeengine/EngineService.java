@@ -0,0 +1,63 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.nativeengine;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.faulttolerance.Asynchronous;
+import org.eclipse.microprofile.faulttolerance.CircuitBreaker;
+import org.eclipse.microprofile.faulttolerance.Fallback;
+import org.eclipse.microprofile.faulttolerance.Retry;
+import org.eclipse.microprofile.faulttolerance.Timeout;
+
+@ApplicationScoped
+public class EngineService {
+
+    static final AtomicInteger COUNTER = new AtomicInteger();
+
+    @Retry(maxRetries = 2)
+    @CircuitBreaker(requestVolumeThreshold = 10)
+    @Fallback(fallbackMethod = "fallback")
+    public String ping() {
+        COUNTER.incrementAndGet();
+        throw new IllegalStateException();
+    }
+
+    public String fallback() {
+        return "fallback";
+    }
+
+    @Timeout(100)
+    public String sleep() throws InterruptedException {
+        TimeUnit.SECONDS.sleep(10);
+        return "done";
+    }
+
+    @Asynchronous
+    @Retry(maxRetries = 2)
+    public CompletionStage<String> pingAsync() {
+        if (COUNTER.incrementAndGet() < 3) {
+            throw new IllegalStateException();
+        }
+        return CompletableFuture.completedFuture("pong");
+    }
+
+}
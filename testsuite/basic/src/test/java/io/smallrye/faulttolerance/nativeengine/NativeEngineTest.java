@@ -0,0 +1,88 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.nativeengine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.faulttolerance.exceptions.TimeoutException;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.asset.StringAsset;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.netflix.hystrix.HystrixCircuitBreaker;
+import com.netflix.hystrix.HystrixCommandKey;
+
+import io.smallrye.faulttolerance.HystrixCommandInterceptor;
+import io.smallrye.faulttolerance.SimpleCommand;
+import io.smallrye.faulttolerance.TestArchive;
+
+@RunWith(Arquillian.class)
+public class NativeEngineTest {
+
+    @Deployment
+    public static JavaArchive createTestArchive() {
+        return TestArchive.createBase(NativeEngineTest.class)
+                .addPackage(NativeEngineTest.class.getPackage())
+                .addAsManifestResource(new StringAsset(HystrixCommandInterceptor.NATIVE_ENGINE_KEY + "=true"),
+                        "microprofile-config.properties");
+    }
+
+    @Inject
+    EngineService service;
+
+    @Before
+    public void reset() {
+        EngineService.COUNTER.set(0);
+    }
+
+    @Test
+    public void testRetryCircuitBreakerFallback() throws NoSuchMethodException {
+        assertEquals("fallback", service.ping());
+        assertEquals(3, EngineService.COUNTER.get());
+        // Hystrix is not involved at all
+        assertNull(HystrixCircuitBreaker.Factory.getInstance(
+                HystrixCommandKey.Factory.asKey(SimpleCommand.getCommandKey(EngineService.class.getMethod("ping")))));
+    }
+
+    @Test
+    public void testTimeout() throws InterruptedException {
+        long start = System.nanoTime();
+        try {
+            service.sleep();
+            fail();
+        } catch (TimeoutException expected) {
+        }
+        assertEquals(0, TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start));
+    }
+
+    @Test
+    public void testAsyncRetry() throws InterruptedException, ExecutionException {
+        assertEquals("pong", service.pingAsync().toCompletableFuture().get());
+        assertEquals(3, EngineService.COUNTER.get());
+    }
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.registry;
+
+import static org.junit.Assert.assertEquals;
+
+import javax.enterprise.inject.Instance;
+import javax.inject.Inject;
+
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import io.smallrye.faulttolerance.TestArchive;
+
+@RunWith(Arquillian.class)
+public class CommandMetadataRegistryTest {
+
+    @Deployment
+    public static JavaArchive createTestArchive() {
+        return TestArchive.createBase(CommandMetadataRegistryTest.class)
+                .addPackage(CommandMetadataRegistryTest.class.getPackage());
+    }
+
+    @Inject
+    Instance<DependentService> services;
+
+    @Test
+    public void testMetadataSharedByDependentInstances() {
+        for (int i = 0; i < 5; i++) {
+            DependentService service = services.get();
+            assertEquals("pong", service.ping());
+            services.destroy(service);
+        }
+        assertEquals(1, CountingOperationProvider.COUNT.get());
+    }
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.registry;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Priority;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Alternative;
+import javax.enterprise.inject.spi.BeanManager;
+import javax.inject.Inject;
+
+import io.smallrye.faulttolerance.DefaultFaultToleranceOperationProvider;
+import io.smallrye.faulttolerance.config.FaultToleranceOperation;
+
+@Priority(1)
+@Alternative
+@ApplicationScoped
+public class CountingOperationProvider extends DefaultFaultToleranceOperationProvider {
+
+    static final AtomicInteger COUNT = new AtomicInteger();
+
+    @Inject
+    public CountingOperationProvider(BeanManager beanManager) {
+        super(beanManager);
+    }
+
+    @Override
+    public FaultToleranceOperation get(Class<?> beanClass, Method method) {
+        if (DependentService.class.equals(beanClass)) {
+            COUNT.incrementAndGet();
+        }
+        return super.get(beanClass, method);
+    }
+
+}
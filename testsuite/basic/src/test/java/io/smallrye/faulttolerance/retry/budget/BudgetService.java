@@ -0,0 +1,41 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.retry.budget;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.faulttolerance.Fallback;
+import org.eclipse.microprofile.faulttolerance.Retry;
+
+@ApplicationScoped
+public class BudgetService {
+
+    static final AtomicInteger ATTEMPTS = new AtomicInteger(0);
+
+    @Retry(maxRetries = 3)
+    @Fallback(fallbackMethod = "fallback")
+    public String hello() {
+        ATTEMPTS.incrementAndGet();
+        throw new IllegalStateException();
+    }
+
+    String fallback() {
+        return "fallback";
+    }
+
+}
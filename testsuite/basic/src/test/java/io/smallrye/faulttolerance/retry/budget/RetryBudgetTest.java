@@ -0,0 +1,55 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.retry.budget;
+
+import static org.junit.Assert.assertEquals;
+
+import javax.inject.Inject;
+
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.asset.StringAsset;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import io.smallrye.faulttolerance.TestArchive;
+
+@RunWith(Arquillian.class)
+public class RetryBudgetTest {
+
+    @Deployment
+    public static JavaArchive createTestArchive() {
+        String prefix = BudgetService.class.getName() + "/hello/Retry/";
+        return TestArchive.createBase(RetryBudgetTest.class)
+                .addPackage(RetryBudgetTest.class.getPackage())
+                .addAsManifestResource(new StringAsset(prefix + "budgetRatio=0.1\n" + prefix + "budgetMinRetries=5"),
+                        "microprofile-config.properties");
+    }
+
+    @Inject
+    BudgetService service;
+
+    @Test
+    public void testRetriesLimitedByBudget() {
+        for (int i = 0; i < 10; i++) {
+            assertEquals("fallback", service.hello());
+        }
+        // 10 first attempts, the budget allows 10 * 0.1 + 5 retries, the rest of the failures go straight to fallback
+        assertEquals(16, BudgetService.ATTEMPTS.get());
+    }
+
+}
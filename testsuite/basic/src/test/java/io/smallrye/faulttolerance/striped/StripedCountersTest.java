@@ -0,0 +1,90 @@
+/*
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.striped;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.MetricID;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.asset.StringAsset;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import io.smallrye.faulttolerance.HystrixCommandInterceptor;
+import io.smallrye.faulttolerance.TestArchive;
+
+@RunWith(Arquillian.class)
+public class StripedCountersTest {
+
+    private static final String PREFIX = "ft.io.smallrye.faulttolerance.striped.StripedService.ping.";
+
+    @Deployment
+    public static JavaArchive createTestArchive() {
+        return TestArchive.createBase(StripedCountersTest.class)
+                .addPackage(StripedCountersTest.class.getPackage())
+                .addAsManifestResource(new StringAsset(HystrixCommandInterceptor.STRIPED_COUNTERS_KEY + "=true"),
+                        "microprofile-config.properties");
+    }
+
+    @Inject
+    StripedService service;
+
+    @Inject
+    MetricRegistry metrics;
+
+    @Test
+    public void testConcurrentIncrements() throws InterruptedException {
+        int threads = 8;
+        int calls = 1000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            for (int i = 0; i < threads; i++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int j = 0; j < calls; j++) {
+                        service.ping();
+                    }
+                });
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        }
+
+        Counter invocations = metrics.getCounters().get(new MetricID(PREFIX + "invocations.total"));
+        assertEquals("StripedCounter", invocations.getClass().getSimpleName());
+        assertEquals(threads * calls, invocations.getCount());
+        assertEquals(threads * calls, metrics.counter(PREFIX + "circuitbreaker.callsSucceeded.total").getCount());
+    }
+}
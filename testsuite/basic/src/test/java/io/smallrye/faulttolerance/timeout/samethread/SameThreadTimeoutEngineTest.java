@@ -0,0 +1,87 @@
+/*
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.timeout.samethread;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.faulttolerance.exceptions.TimeoutException;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.asset.StringAsset;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import io.smallrye.faulttolerance.HystrixCommandInterceptor;
+import io.smallrye.faulttolerance.TestArchive;
+
+@RunWith(Arquillian.class)
+public class SameThreadTimeoutEngineTest {
+
+    @Deployment
+    public static JavaArchive createTestArchive() {
+        return TestArchive.createBase(SameThreadTimeoutEngineTest.class)
+                .addClass(SameThreadTimeoutService.class)
+                .addAsManifestResource(new StringAsset(HystrixCommandInterceptor.NATIVE_ENGINE_KEY + "=true\n"
+                        + HystrixCommandInterceptor.SAME_THREAD_TIMEOUT_KEY + "=true"),
+                        "microprofile-config.properties");
+    }
+
+    @Inject
+    SameThreadTimeoutService service;
+
+    @Test
+    public void testTimeoutInterruptsCallingThread() {
+        try {
+            service.sleep(2000);
+            fail("No timeout");
+        } catch (TimeoutException expected) {
+        }
+        assertSame(Thread.currentThread(), SameThreadTimeoutService.executionThread);
+        assertTrue(SameThreadTimeoutService.interrupted);
+        // the interruption does not leak to the caller
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    public void testTimeoutWhenInterruptionIgnored() {
+        try {
+            service.ignoreInterruption(400);
+            fail("No timeout");
+        } catch (TimeoutException expected) {
+        }
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    public void testNoTimeout() throws InterruptedException {
+        assertEquals("slept", service.sleep(10));
+        assertSame(Thread.currentThread(), SameThreadTimeoutService.executionThread);
+        assertFalse(SameThreadTimeoutService.interrupted);
+        // the watchdog was disarmed
+        TimeUnit.MILLISECONDS.sleep(300);
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+}
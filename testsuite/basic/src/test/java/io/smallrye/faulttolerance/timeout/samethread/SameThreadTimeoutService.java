@@ -0,0 +1,52 @@
+/*
+ * Copyright 2018 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.timeout.samethread;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.faulttolerance.Timeout;
+
+@ApplicationScoped
+public class SameThreadTimeoutService {
+
+    static volatile Thread executionThread;
+
+    static volatile boolean interrupted;
+
+    @Timeout(200)
+    public String sleep(long millis) {
+        executionThread = Thread.currentThread();
+        interrupted = false;
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            interrupted = true;
+        }
+        return "slept";
+    }
+
+    @Timeout(200)
+    public String ignoreInterruption(long millis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        while (System.nanoTime() < deadline) {
+            // busy waiting does not react to interruption
+        }
+        return "done";
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.load;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of a single call to the {@link StubDownstream}. A distribution is written as {@code fixed:<duration>},
+ * {@code uniform:<min>..<max>} or {@code exponential:<mean>}, e.g. {@code exponential:20ms}.
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+    LatencyDistribution NONE = random -> 0;
+
+    /**
+     * @return the latency in nanoseconds
+     */
+    long sample(Random random);
+
+    static LatencyDistribution fixed(long nanos) {
+        return random -> nanos;
+    }
+
+    static LatencyDistribution uniform(long minNanos, long maxNanos) {
+        if (maxNanos < minNanos) {
+            throw new IllegalArgumentException("Invalid uniform distribution: " + minNanos + ".." + maxNanos);
+        }
+        return random -> minNanos + (long) (random.nextDouble() * (maxNanos - minNanos));
+    }
+
+    static LatencyDistribution exponential(long meanNanos) {
+        return random -> (long) (-Math.log(1.0 - random.nextDouble()) * meanNanos);
+    }
+
+    static LatencyDistribution parse(String value) {
+        int colon = value.indexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("Invalid latency distribution: " + value);
+        }
+        String type = value.substring(0, colon);
+        String params = value.substring(colon + 1);
+        switch (type) {
+            case "fixed":
+                return fixed(parseDuration(params));
+            case "uniform":
+                int separator = params.indexOf("..");
+                if (separator < 0) {
+                    throw new IllegalArgumentException("Invalid uniform distribution: " + value);
+                }
+                return uniform(parseDuration(params.substring(0, separator)),
+                        parseDuration(params.substring(separator + 2)));
+            case "exponential":
+                return exponential(parseDuration(params));
+            default:
+                throw new IllegalArgumentException("Unknown latency distribution: " + value);
+        }
+    }
+
+    /**
+     * Parses a duration such as {@code 500us}, {@code 20ms}, {@code 10s} or {@code 1m}.
+     *
+     * @return the duration in nanoseconds
+     */
+    static long parseDuration(String value) {
+        String trimmed = value.trim();
+        int unitStart = 0;
+        while (unitStart < trimmed.length() && Character.isDigit(trimmed.charAt(unitStart))) {
+            unitStart++;
+        }
+        if (unitStart == 0) {
+            throw new IllegalArgumentException("Invalid duration: " + value);
+        }
+        long amount = Long.parseLong(trimmed.substring(0, unitStart));
+        switch (trimmed.substring(unitStart)) {
+            case "us":
+                return TimeUnit.MICROSECONDS.toNanos(amount);
+            case "ms":
+                return TimeUnit.MILLISECONDS.toNanos(amount);
+            case "s":
+                return TimeUnit.SECONDS.toNanos(amount);
+            case "m":
+                return TimeUnit.MINUTES.toNanos(amount);
+            default:
+                throw new IllegalArgumentException("Invalid duration: " + value);
+        }
+    }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.load;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Drives an operation at a fixed arrival rate (open loop): requests are issued on schedule regardless of how many
+ * previous requests are still in flight, each one on a thread of an unbounded caller pool, just like independent
+ * clients would. If the generator falls behind, the late requests are issued immediately and their response time
+ * still counts from the scheduled arrival.
+ * <p>
+ * The behavior of the {@link StubDownstream} changes when a phase starts, so requests still in flight at the end of a
+ * phase already see the behavior of the next one. Their results are attributed to the phase they arrived in.
+ */
+final class LoadGenerator {
+
+    private static final long DRAIN_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final Supplier<CompletionStage<?>> invocation;
+
+    private final StubDownstream downstream;
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    private final AtomicLong inFlight = new AtomicLong();
+
+    LoadGenerator(Supplier<CompletionStage<?>> invocation, StubDownstream downstream) {
+        this.invocation = invocation;
+        this.downstream = downstream;
+    }
+
+    List<PhaseStats> run(Scenario scenario, long drainTimeoutNanos) {
+        List<PhaseStats> results = new ArrayList<>();
+        ExecutorService callers = Executors.newCachedThreadPool(new CallerThreadFactory());
+        try {
+            for (Scenario.Phase phase : scenario.getPhases()) {
+                results.add(run(phase, callers));
+            }
+            drain(drainTimeoutNanos);
+        } finally {
+            callers.shutdownNow();
+        }
+        results.forEach(PhaseStats::finishRecording);
+        return results;
+    }
+
+    private PhaseStats run(Scenario.Phase phase, ExecutorService callers) {
+        PhaseStats stats = new PhaseStats(phase);
+        downstream.configure(phase.getLatency(), phase.getErrorRate());
+        downstream.resetCalls();
+        downstream.resetPeakConcurrency();
+        threads.resetPeakThreadCount();
+
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / phase.getRate();
+        long start = System.nanoTime();
+        long end = start + phase.getDurationNanos();
+        long arrivals = 0;
+        while (true) {
+            long intendedStart = start + (long) (arrivals * intervalNanos);
+            if (intendedStart - end >= 0) {
+                break;
+            }
+            long delay = intendedStart - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+                continue;
+            }
+            dispatch(stats, intendedStart, callers);
+            arrivals++;
+        }
+        stats.finishArrivals(arrivals, end - start, downstream.resetCalls(), downstream.resetPeakConcurrency(),
+                threads.getPeakThreadCount());
+        return stats;
+    }
+
+    private void dispatch(PhaseStats stats, long intendedStart, ExecutorService callers) {
+        inFlight.incrementAndGet();
+        callers.execute(() -> {
+            long start = System.nanoTime();
+            CompletionStage<?> result;
+            try {
+                result = invocation.get();
+            } catch (Throwable e) {
+                CompletableFuture<?> failed = new CompletableFuture<>();
+                failed.completeExceptionally(e);
+                result = failed;
+            }
+            result.whenComplete((ignored, failure) -> {
+                stats.record(intendedStart, start, System.nanoTime(), Outcome.of(failure));
+                inFlight.decrementAndGet();
+            });
+        });
+    }
+
+    private void drain(long timeoutNanos) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (inFlight.get() > 0 && deadline - System.nanoTime() > 0) {
+            LockSupport.parkNanos(DRAIN_POLL_NANOS);
+        }
+    }
+
+    private static final class CallerThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "load-caller-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+
+    }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.load;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ServiceLoader;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.enterprise.inject.spi.Extension;
+
+import org.jboss.weld.environment.se.Weld;
+import org.jboss.weld.environment.se.WeldContainer;
+
+/**
+ * Runs a {@link Scenario} against {@link LoadService} in a Weld SE container and prints a {@link LoadReport}.
+ * <p>
+ * Usage: {@code LoadHarness <scenario> [<histogram output directory>]}, where the scenario is the name of a bundled
+ * scenario ({@code brownout}, {@code recovery}, {@code retry-storm}) or a path to a scenario file.
+ */
+public class LoadHarness {
+
+    static final long DRAIN_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: LoadHarness <scenario> [<histogram output directory>]");
+            System.exit(1);
+        }
+        Scenario scenario = Scenario.load(args[0]);
+        LoadReport report = run(scenario);
+        report.print(System.out);
+        if (args.length > 1) {
+            report.writeHistograms(Paths.get(args[1]));
+        }
+    }
+
+    /**
+     * Runs the scenario in a new container. The config overrides of the scenario are set as system properties.
+     */
+    public static LoadReport run(Scenario scenario) {
+        scenario.getConfig().forEach(System::setProperty);
+        // Weld SE does not load extensions from META-INF/services when discovery is disabled
+        Weld weld = new Weld().disableDiscovery().addBeanClasses(LoadService.class, StubDownstream.class);
+        ServiceLoader.load(Extension.class).forEach(weld::addExtension);
+        WeldContainer container = weld.initialize();
+        try {
+            LoadService service = container.select(LoadService.class).get();
+            StubDownstream downstream = container.select(StubDownstream.class).get();
+            LoadGenerator generator = new LoadGenerator(getInvocation(service, scenario.getOperation()), downstream);
+            return new LoadReport(scenario, generator.run(scenario, DRAIN_TIMEOUT_NANOS));
+        } finally {
+            container.shutdown();
+        }
+    }
+
+    static Supplier<CompletionStage<?>> getInvocation(LoadService service, String operation) {
+        switch (operation) {
+            case "guarded":
+                return () -> CompletableFuture.completedFuture(service.guarded());
+            case "asyncGuarded":
+                return service::asyncGuarded;
+            case "retried":
+                return () -> CompletableFuture.completedFuture(service.retried());
+            default:
+                throw new IllegalArgumentException("Unknown operation: " + operation);
+        }
+    }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.load;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.StringJoiner;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Prints the results of a scenario and optionally writes the full latency distributions in the HdrHistogram
+ * percentile format ({@code .hgrm}), which can be plotted with the HdrHistogram plotter.
+ */
+public final class LoadReport {
+
+    static final double MICROS_PER_MILLI = 1000.0;
+
+    static final double[] PERCENTILES = { 50.0, 90.0, 99.0, 99.9 };
+
+    private final Scenario scenario;
+
+    private final List<PhaseStats> phases;
+
+    public LoadReport(Scenario scenario, List<PhaseStats> phases) {
+        this.scenario = scenario;
+        this.phases = phases;
+    }
+
+    public List<PhaseStats> getPhases() {
+        return phases;
+    }
+
+    public void print(PrintStream out) {
+        out.printf("Scenario %s, operation %s%n", scenario.getName(), scenario.getOperation());
+        scenario.getConfig().forEach((key, value) -> out.printf("  %s=%s%n", key, value));
+        for (PhaseStats stats : phases) {
+            out.println();
+            out.printf("Phase %s%n", stats.getPhase());
+            out.printf("  arrivals            %d (%.1f/s), throughput %.1f/s%n", stats.getArrivals(),
+                    stats.getArrivalRate(), stats.getThroughput());
+            StringJoiner outcomes = new StringJoiner(", ", "  outcomes            ", "");
+            for (Outcome outcome : Outcome.values()) {
+                outcomes.add(String.format("%s %.2f%%", outcome.getLabel(),
+                        percentOfArrivals(stats, stats.getCount(outcome))));
+            }
+            if (stats.getPending() > 0) {
+                outcomes.add("pending " + stats.getPending());
+            }
+            out.println(outcomes);
+            out.println(latencies("  response time (ms) ", stats.getResponseTimes()));
+            out.println(latencies("  service time (ms)  ", stats.getServiceTimes()));
+            out.printf("  downstream calls    %d (%.2f per arrival), peak concurrency %d%n", stats.getDownstreamCalls(),
+                    stats.getArrivals() == 0 ? 0.0 : (double) stats.getDownstreamCalls() / stats.getArrivals(),
+                    stats.getPeakDownstreamConcurrency());
+            out.printf("  peak threads        %d%n", stats.getPeakThreads());
+        }
+    }
+
+    public void writeHistograms(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (PhaseStats stats : phases) {
+            String prefix = scenario.getName() + "-" + stats.getPhase().getName();
+            writeHistogram(directory.resolve(prefix + "-response.hgrm"), stats.getResponseTimes());
+            writeHistogram(directory.resolve(prefix + "-service.hgrm"), stats.getServiceTimes());
+        }
+    }
+
+    private static void writeHistogram(Path file, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, "UTF-8")) {
+            histogram.outputPercentileDistribution(out, MICROS_PER_MILLI);
+        }
+    }
+
+    private static String latencies(String label, Histogram histogram) {
+        StringBuilder result = new StringBuilder(label);
+        if (histogram.getTotalCount() == 0) {
+            return result.append("n/a").toString();
+        }
+        for (double percentile : PERCENTILES) {
+            String name = percentile == (long) percentile ? Long.toString((long) percentile)
+                    : Double.toString(percentile);
+            result.append(String.format(" p%s %.2f", name,
+                    histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI));
+        }
+        return result.append(String.format(" max %.2f", histogram.getMaxValue() / MICROS_PER_MILLI)).toString();
+    }
+
+    private static double percentOfArrivals(PhaseStats stats, long count) {
+        return stats.getArrivals() == 0 ? 0.0 : 100.0 * count / stats.getArrivals();
+    }
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.load;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.faulttolerance.Asynchronous;
+import org.eclipse.microprofile.faulttolerance.Bulkhead;
+import org.eclipse.microprofile.faulttolerance.CircuitBreaker;
+import org.eclipse.microprofile.faulttolerance.Retry;
+import org.eclipse.microprofile.faulttolerance.Timeout;
+
+/**
+ * The operations driven by the load harness. The annotation values are only defaults, scenarios override them with
+ * {@code config} lines, e.g. {@code config io.smallrye.faulttolerance.load.LoadService/guarded/Bulkhead/value=20}.
+ */
+@ApplicationScoped
+public class LoadService {
+
+    @Inject
+    StubDownstream downstream;
+
+    @Bulkhead(10)
+    @Timeout(500)
+    @CircuitBreaker(requestVolumeThreshold = 20, failureRatio = 0.5, delay = 1000)
+    public String guarded() {
+        return downstream.call();
+    }
+
+    @Asynchronous
+    @Bulkhead(value = 10, waitingTaskQueue = 20)
+    @Timeout(500)
+    @CircuitBreaker(requestVolumeThreshold = 20, failureRatio = 0.5, delay = 1000)
+    public CompletionStage<String> asyncGuarded() {
+        return CompletableFuture.completedFuture(downstream.call());
+    }
+
+    @Retry(maxRetries = 3, delay = 10, jitter = 5)
+    @Timeout(500)
+    public String retried() {
+        return downstream.call();
+    }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.load;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+import org.eclipse.microprofile.faulttolerance.exceptions.BulkheadException;
+import org.eclipse.microprofile.faulttolerance.exceptions.CircuitBreakerOpenException;
+import org.eclipse.microprofile.faulttolerance.exceptions.TimeoutException;
+
+/**
+ * How an invocation of {@link LoadService} completed.
+ */
+public enum Outcome {
+
+    SUCCESS("success"),
+    REJECTED("rejected"),
+    CIRCUIT_OPEN("circuit open"),
+    TIMEOUT("timeout"),
+    FAILED("failed"),
+    ;
+
+    private final String label;
+
+    Outcome(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    static Outcome of(Throwable failure) {
+        if (failure == null) {
+            return SUCCESS;
+        }
+        while ((failure instanceof CompletionException || failure instanceof ExecutionException)
+                && failure.getCause() != null) {
+            failure = failure.getCause();
+        }
+        if (failure instanceof BulkheadException) {
+            return REJECTED;
+        } else if (failure instanceof CircuitBreakerOpenException) {
+            return CIRCUIT_OPEN;
+        } else if (failure instanceof TimeoutException) {
+            return TIMEOUT;
+        }
+        return FAILED;
+    }
+
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.load;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Results of a single {@link Scenario.Phase}. Latencies are recorded in microseconds. The response time is measured
+ * from the time the request was <em>scheduled</em> to arrive, so that requests delayed by a stalled caller are not
+ * omitted (coordinated omission). The service time is measured from the time the request was actually issued.
+ */
+public final class PhaseStats {
+
+    private final Scenario.Phase phase;
+
+    private final Recorder responseTimes = new Recorder(3);
+
+    private final Recorder serviceTimes = new Recorder(3);
+
+    private final LongAdder[] outcomes = new LongAdder[Outcome.values().length];
+
+    private volatile long arrivals;
+
+    private volatile long durationNanos;
+
+    private volatile long downstreamCalls;
+
+    private volatile int peakDownstreamConcurrency;
+
+    private volatile int peakThreads;
+
+    private Histogram responseHistogram;
+
+    private Histogram serviceHistogram;
+
+    PhaseStats(Scenario.Phase phase) {
+        this.phase = phase;
+        for (int i = 0; i < outcomes.length; i++) {
+            outcomes[i] = new LongAdder();
+        }
+    }
+
+    void record(long intendedStartNanos, long startNanos, long endNanos, Outcome outcome) {
+        responseTimes.recordValue(toMicros(endNanos - intendedStartNanos));
+        serviceTimes.recordValue(toMicros(endNanos - startNanos));
+        outcomes[outcome.ordinal()].increment();
+    }
+
+    void finishArrivals(long arrivals, long durationNanos, long downstreamCalls, int peakDownstreamConcurrency,
+            int peakThreads) {
+        this.arrivals = arrivals;
+        this.durationNanos = durationNanos;
+        this.downstreamCalls = downstreamCalls;
+        this.peakDownstreamConcurrency = peakDownstreamConcurrency;
+        this.peakThreads = peakThreads;
+    }
+
+    /**
+     * Must be called once all invocations completed or the drain timeout elapsed.
+     */
+    void finishRecording() {
+        responseHistogram = responseTimes.getIntervalHistogram();
+        serviceHistogram = serviceTimes.getIntervalHistogram();
+    }
+
+    public Scenario.Phase getPhase() {
+        return phase;
+    }
+
+    public long getArrivals() {
+        return arrivals;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public long getCount(Outcome outcome) {
+        return outcomes[outcome.ordinal()].sum();
+    }
+
+    /**
+     * @return the number of invocations that did not complete within the drain timeout
+     */
+    public long getPending() {
+        long completed = 0;
+        for (LongAdder outcome : outcomes) {
+            completed += outcome.sum();
+        }
+        return arrivals - completed;
+    }
+
+    /**
+     * @return the number of successful invocations per second
+     */
+    public double getThroughput() {
+        return perSecond(getCount(Outcome.SUCCESS));
+    }
+
+    /**
+     * @return the number of arrivals per second that were actually achieved
+     */
+    public double getArrivalRate() {
+        return perSecond(arrivals);
+    }
+
+    /**
+     * @return the number of downstream calls made during the phase, including retries
+     */
+    public long getDownstreamCalls() {
+        return downstreamCalls;
+    }
+
+    public int getPeakDownstreamConcurrency() {
+        return peakDownstreamConcurrency;
+    }
+
+    /**
+     * @return the peak number of live JVM threads during the phase
+     */
+    public int getPeakThreads() {
+        return peakThreads;
+    }
+
+    public Histogram getResponseTimes() {
+        return responseHistogram;
+    }
+
+    public Histogram getServiceTimes() {
+        return serviceHistogram;
+    }
+
+    private double perSecond(long count) {
+        return durationNanos == 0 ? 0 : count * (double) TimeUnit.SECONDS.toNanos(1) / durationNanos;
+    }
+
+    private static long toMicros(long nanos) {
+        return Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.load;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A load test script: the operation of {@link LoadService} to drive, config overrides, and a sequence of phases, each
+ * with its own arrival rate and downstream behavior. One directive per line, {@code #} starts a comment:
+ *
+ * <pre>
+ * operation guarded
+ * config io.smallrye.faulttolerance.load.LoadService/guarded/Bulkhead/value=20
+ * rate 200
+ * latency fixed:5ms
+ * errors 0
+ * phase steady 10s
+ * phase brownout 20s latency=exponential:300ms errors=0.1
+ * </pre>
+ *
+ * {@code rate}, {@code latency} and {@code errors} set the defaults of the phases that follow, a phase may override
+ * them with {@code key=value} arguments. The rate is the number of arrivals per second.
+ */
+public final class Scenario {
+
+    static final String RESOURCE_PREFIX = "scenarios/";
+
+    static final String RESOURCE_SUFFIX = ".scenario";
+
+    private final String name;
+
+    private final String operation;
+
+    private final Map<String, String> config;
+
+    private final List<Phase> phases;
+
+    private Scenario(String name, String operation, Map<String, String> config, List<Phase> phases) {
+        this.name = name;
+        this.operation = operation;
+        this.config = Collections.unmodifiableMap(config);
+        this.phases = Collections.unmodifiableList(phases);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public Map<String, String> getConfig() {
+        return config;
+    }
+
+    public List<Phase> getPhases() {
+        return phases;
+    }
+
+    /**
+     * Loads one of the bundled scenarios, e.g. {@code brownout}, or a scenario file.
+     */
+    public static Scenario load(String nameOrPath) throws IOException {
+        InputStream bundled = Scenario.class.getClassLoader()
+                .getResourceAsStream(RESOURCE_PREFIX + nameOrPath + RESOURCE_SUFFIX);
+        if (bundled != null) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(bundled, StandardCharsets.UTF_8))) {
+                return parse(nameOrPath, reader);
+            }
+        }
+        Path path = Paths.get(nameOrPath);
+        if (!Files.isRegularFile(path)) {
+            throw new IllegalArgumentException("No bundled scenario or file found: " + nameOrPath);
+        }
+        String fileName = path.getFileName().toString();
+        String name = fileName.endsWith(RESOURCE_SUFFIX)
+                ? fileName.substring(0, fileName.length() - RESOURCE_SUFFIX.length())
+                : fileName;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return parse(name, reader);
+        }
+    }
+
+    static Scenario parse(String name, BufferedReader reader) throws IOException {
+        String operation = null;
+        Map<String, String> config = new LinkedHashMap<>();
+        List<Phase> phases = new ArrayList<>();
+        Set<String> phaseNames = new HashSet<>();
+        double rate = 0;
+        String latency = "fixed:0ms";
+        double errorRate = 0;
+
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            int comment = line.indexOf('#');
+            if (comment >= 0) {
+                line = line.substring(0, comment);
+            }
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            String[] parts = line.split("\\s+");
+            try {
+                switch (parts[0]) {
+                    case "operation":
+                        operation = singleArgument(parts);
+                        break;
+                    case "config":
+                        String entry = singleArgument(parts);
+                        int eq = entry.indexOf('=');
+                        if (eq <= 0) {
+                            throw new IllegalArgumentException("Expected key=value");
+                        }
+                        config.put(entry.substring(0, eq), entry.substring(eq + 1));
+                        break;
+                    case "rate":
+                        rate = parseRate(singleArgument(parts));
+                        break;
+                    case "latency":
+                        latency = singleArgument(parts);
+                        LatencyDistribution.parse(latency);
+                        break;
+                    case "errors":
+                        errorRate = parseErrorRate(singleArgument(parts));
+                        break;
+                    case "phase":
+                        if (parts.length < 3) {
+                            throw new IllegalArgumentException("Expected phase <name> <duration> [key=value...]");
+                        }
+                        if (!phaseNames.add(parts[1])) {
+                            throw new IllegalArgumentException("Duplicate phase " + parts[1]);
+                        }
+                        phases.add(parsePhase(parts, rate, latency, errorRate));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown directive " + parts[0]);
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(
+                        "Invalid scenario " + name + " at line " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        if (operation == null) {
+            throw new IllegalArgumentException("Invalid scenario " + name + ": no operation");
+        }
+        if (phases.isEmpty()) {
+            throw new IllegalArgumentException("Invalid scenario " + name + ": no phase");
+        }
+        return new Scenario(name, operation, config, phases);
+    }
+
+    private static Phase parsePhase(String[] parts, double rate, String latency, double errorRate) {
+        long duration = LatencyDistribution.parseDuration(parts[2]);
+        for (int i = 3; i < parts.length; i++) {
+            int eq = parts[i].indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value: " + parts[i]);
+            }
+            String value = parts[i].substring(eq + 1);
+            switch (parts[i].substring(0, eq)) {
+                case "rate":
+                    rate = parseRate(value);
+                    break;
+                case "latency":
+                    latency = value;
+                    break;
+                case "errors":
+                    errorRate = parseErrorRate(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown phase argument " + parts[i]);
+            }
+        }
+        if (rate <= 0) {
+            throw new IllegalArgumentException("No rate specified for phase " + parts[1]);
+        }
+        return new Phase(parts[1], duration, rate, latency, LatencyDistribution.parse(latency), errorRate);
+    }
+
+    private static String singleArgument(String[] parts) {
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Expected a single argument to " + parts[0]);
+        }
+        return parts[1];
+    }
+
+    private static double parseRate(String value) {
+        double rate = Double.parseDouble(value);
+        if (rate <= 0) {
+            throw new IllegalArgumentException("Rate must be positive: " + value);
+        }
+        return rate;
+    }
+
+    private static double parseErrorRate(String value) {
+        double errorRate = Double.parseDouble(value);
+        if (errorRate < 0 || errorRate > 1) {
+            throw new IllegalArgumentException("Error rate must be between 0 and 1: " + value);
+        }
+        return errorRate;
+    }
+
+    public static final class Phase {
+
+        private final String name;
+
+        private final long durationNanos;
+
+        private final double rate;
+
+        private final String latencyDescription;
+
+        private final LatencyDistribution latency;
+
+        private final double errorRate;
+
+        Phase(String name, long durationNanos, double rate, String latencyDescription, LatencyDistribution latency,
+                double errorRate) {
+            this.name = name;
+            this.durationNanos = durationNanos;
+            this.rate = rate;
+            this.latencyDescription = latencyDescription;
+            this.latency = latency;
+            this.errorRate = errorRate;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+
+        /**
+         * @return the number of arrivals per second
+         */
+        public double getRate() {
+            return rate;
+        }
+
+        public LatencyDistribution getLatency() {
+            return latency;
+        }
+
+        public double getErrorRate() {
+            return errorRate;
+        }
+
+        @Override
+        public String toString() {
+            return name + " [rate=" + rate + "/s, latency=" + latencyDescription + ", errors=" + errorRate + "]";
+        }
+
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.load;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.enterprise.context.ApplicationScoped;
+
+/**
+ * In-process stand-in for a remote dependency. Each call sleeps for a latency sampled from the current
+ * {@link LatencyDistribution} and then fails with the current error rate. The behavior is switched by the
+ * {@link LoadGenerator} at the start of each {@link Scenario.Phase}.
+ */
+@ApplicationScoped
+public class StubDownstream {
+
+    static final String RESULT = "ok";
+
+    private volatile LatencyDistribution latency = LatencyDistribution.NONE;
+
+    private volatile double errorRate;
+
+    private final LongAdder calls = new LongAdder();
+
+    private final AtomicInteger concurrency = new AtomicInteger();
+
+    private final AtomicInteger peakConcurrency = new AtomicInteger();
+
+    public String call() {
+        calls.increment();
+        int current = concurrency.incrementAndGet();
+        peakConcurrency.accumulateAndGet(current, Math::max);
+        try {
+            Random random = ThreadLocalRandom.current();
+            long nanos = latency.sample(random);
+            if (nanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(nanos);
+                } catch (InterruptedException e) {
+                    // interrupted by a timeout
+                    Thread.currentThread().interrupt();
+                    throw new DownstreamException();
+                }
+            }
+            if (errorRate > 0 && random.nextDouble() < errorRate) {
+                throw new DownstreamException();
+            }
+            return RESULT;
+        } finally {
+            concurrency.decrementAndGet();
+        }
+    }
+
+    void configure(LatencyDistribution latency, double errorRate) {
+        this.latency = latency;
+        this.errorRate = errorRate;
+    }
+
+    /**
+     * @return the number of calls since the last invocation of this method
+     */
+    long resetCalls() {
+        return calls.sumThenReset();
+    }
+
+    /**
+     * @return the maximum number of concurrent calls since the last invocation of this method
+     */
+    int resetPeakConcurrency() {
+        return peakConcurrency.getAndSet(concurrency.get());
+    }
+
+}
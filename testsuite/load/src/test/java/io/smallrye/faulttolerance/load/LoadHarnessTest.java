@@ -0,0 +1,64 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.load;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.Test;
+
+public class LoadHarnessTest {
+
+    @Test
+    public void testOutage() throws IOException {
+        // the warmup phase avoids bulkhead rejections caused by the initialization of the first invocation
+        Scenario scenario = Scenario.parse("outage", new BufferedReader(new StringReader("operation guarded\n"
+                + "config io.smallrye.faulttolerance.load.LoadService/guarded/Bulkhead/value=100\n"
+                + "latency fixed:1ms\n"
+                + "phase warmup 1s rate=20\n"
+                + "rate 200\n"
+                + "phase healthy 1s\n"
+                + "phase outage 1s errors=1\n")));
+
+        LoadReport report = LoadHarness.run(scenario);
+
+        assertEquals(3, report.getPhases().size());
+        for (PhaseStats stats : report.getPhases()) {
+            assertEquals(0, stats.getPending());
+            assertEquals(stats.getArrivals(), stats.getResponseTimes().getTotalCount());
+            assertEquals(stats.getArrivals(), stats.getServiceTimes().getTotalCount());
+        }
+        for (PhaseStats stats : report.getPhases().subList(1, 3)) {
+            assertEquals(200, stats.getArrivals(), 20);
+        }
+
+        PhaseStats healthy = report.getPhases().get(1);
+        // requests still in flight when the outage starts fail
+        assertEquals(healthy.getArrivals(), healthy.getCount(Outcome.SUCCESS) + healthy.getCount(Outcome.FAILED));
+        assertTrue(healthy.getCount(Outcome.FAILED) <= healthy.getPeakDownstreamConcurrency());
+
+        PhaseStats outage = report.getPhases().get(2);
+        assertEquals(0, outage.getCount(Outcome.SUCCESS));
+        assertEquals(outage.getArrivals(), outage.getCount(Outcome.FAILED) + outage.getCount(Outcome.CIRCUIT_OPEN));
+        assertTrue(outage.getCount(Outcome.CIRCUIT_OPEN) > 0);
+        assertTrue(outage.getDownstreamCalls() < outage.getArrivals());
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2020 Red Hat, Inc, and individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.smallrye.faulttolerance.load;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class ScenarioTest {
+
+    @Test
+    public void testParse() throws IOException {
+        Scenario scenario = parse("# comment\n"
+                + "operation guarded\n"
+                + "config io.smallrye.faulttolerance.load.LoadService/guarded/Bulkhead/value=20\n"
+                + "rate 100\n"
+                + "latency fixed:5ms # trailing comment\n"
+                + "\n"
+                + "phase first 2s\n"
+                + "phase second 500ms rate=50 latency=uniform:1ms..3ms errors=0.5\n"
+                + "errors 0.1\n"
+                + "phase third 1m\n");
+
+        assertEquals("guarded", scenario.getOperation());
+        assertEquals("20",
+                scenario.getConfig().get("io.smallrye.faulttolerance.load.LoadService/guarded/Bulkhead/value"));
+        assertEquals(3, scenario.getPhases().size());
+
+        Scenario.Phase first = scenario.getPhases().get(0);
+        assertEquals("first", first.getName());
+        assertEquals(TimeUnit.SECONDS.toNanos(2), first.getDurationNanos());
+        assertEquals(100, first.getRate(), 0);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(5), first.getLatency().sample(new Random()));
+        assertEquals(0, first.getErrorRate(), 0);
+
+        Scenario.Phase second = scenario.getPhases().get(1);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), second.getDurationNanos());
+        assertEquals(50, second.getRate(), 0);
+        assertEquals(0.5, second.getErrorRate(), 0);
+        long latency = second.getLatency().sample(new Random());
+        assertTrue(latency >= TimeUnit.MILLISECONDS.toNanos(1) && latency <= TimeUnit.MILLISECONDS.toNanos(3));
+
+        Scenario.Phase third = scenario.getPhases().get(2);
+        assertEquals(TimeUnit.MINUTES.toNanos(1), third.getDurationNanos());
+        assertEquals(100, third.getRate(), 0);
+        assertEquals(0.1, third.getErrorRate(), 0);
+    }
+
+    @Test
+    public void testInvalid() throws IOException {
+        assertInvalid("rate 100\nphase first 1s\n");
+        assertInvalid("operation guarded\nrate 100\n");
+        assertInvalid("operation guarded\nphase first 1s\n");
+        assertInvalid("operation guarded\nrate 100\nphase first 1s\nphase first 2s\n");
+        assertInvalid("operation guarded\nrate 100\nphase first 1h\n");
+        assertInvalid("operation guarded\nrate 100\nphase first 1s errors=2\n");
+        assertInvalid("operation guarded\nrate 100\nlatency gaussian:5ms\nphase first 1s\n");
+        assertInvalid("operation guarded\nrate 100\nwarmup 1s\n");
+    }
+
+    @Test
+    public void testLoadBundled() throws IOException {
+        for (String name : new String[] { "brownout", "recovery", "retry-storm" }) {
+            Scenario scenario = Scenario.load(name);
+            assertEquals(name, scenario.getName());
+            assertTrue(scenario.getPhases().size() > 1);
+        }
+    }
+
+    private static Scenario parse(String text) throws IOException {
+        return Scenario.parse("test", new BufferedReader(new StringReader(text)));
+    }
+
+    private static void assertInvalid(String text) throws IOException {
+        try {
+            parse(text);
+            fail("Scenario should be invalid: " + text);
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+}